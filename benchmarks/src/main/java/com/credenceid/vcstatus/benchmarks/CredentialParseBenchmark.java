@@ -0,0 +1,59 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import com.credenceid.vcstatus.client.ParsedStatusListCredential;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson deserialization of a BitstringStatusListCredential, with the reader configuration of
+ * {@link com.credenceid.vcstatus.client.StatusListClient}, from an in-memory body: complete binding against the
+ * streaming extraction of the status fields done by the client.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CredentialParseBenchmark {
+
+    @Param({"16384", "1048576", "8388608"})
+    public int listBytes;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final ObjectReader credentialReader = objectMapper.readerFor(VerifiableCredential.class);
+    private byte[] body;
+
+    @Setup
+    public void setUp() {
+        body = StatusListFixtures.credentialJson("https://example.com/status/1",
+                StatusListFixtures.encodedList(StatusListFixtures.bitstring(listBytes, 1, 42)));
+    }
+
+    @Benchmark
+    public VerifiableCredential parseCredential() throws IOException {
+        return credentialReader.readValue(new ByteArrayInputStream(body));
+    }
+
+    @Benchmark
+    public ParsedStatusListCredential extractStatusFields() throws IOException {
+        return ParsedStatusListCredential.parse(body, objectMapper.getFactory(), credentialReader);
+    }
+}
@@ -0,0 +1,337 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.LatencyHistogram;
+import com.credenceid.vcstatus.service.StatusVerifierService;
+import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load test of a cached {@link StatusVerifierService} against status lists served by an embedded HTTP server.
+ * <p>
+ * Every worker runs on a virtual thread and verifies one credentialStatus at a time. The status lists are picked with a
+ * Zipf distribution, so that a few hot lists take most of the traffic as in production, and the server can delay its
+ * responses and fail a share of them. When a rate is set, the workers follow a fixed schedule and latencies are
+ * measured from the scheduled start of each verification, so that a stalled verifier is not hidden by the workers
+ * waiting for it. The report gives the throughput, the latency percentiles, the allocation rate and the number of
+ * requests that reached the server. The server runs on its own platform threads, whose allocations are not counted.
+ * <p>
+ * Not a JMH benchmark; run it from the benchmarks jar with options of the form {@code --name=value}:
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar com.credenceid.vcstatus.benchmarks.LoadTest --concurrency=2000 --lists=500
+ * </pre>
+ */
+public final class LoadTest {
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+    private static final String SERVER_THREAD_PREFIX = "load-server-";
+    //thread of the embedded HttpServer accepting connections
+    private static final String SERVER_DISPATCHER_THREAD = "HTTP-Dispatcher";
+
+    static {
+        DEFAULTS.put("lists", "200");
+        DEFAULTS.put("listBytes", "16384");
+        DEFAULTS.put("zipf", "1.1");
+        DEFAULTS.put("concurrency", "1000");
+        DEFAULTS.put("rate", "0");
+        DEFAULTS.put("warmupSeconds", "5");
+        DEFAULTS.put("durationSeconds", "20");
+        DEFAULTS.put("latencyMillis", "20");
+        DEFAULTS.put("jitterMillis", "10");
+        DEFAULTS.put("errorRate", "0.01");
+        DEFAULTS.put("maxAgeSeconds", "10");
+        DEFAULTS.put("cacheEntries", "1000");
+        DEFAULTS.put("maxConcurrentRequestsPerHost", String.valueOf(StatusListClient.DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST));
+        DEFAULTS.put("staleIfErrorSeconds", "0");
+    }
+
+    private final Map<String, String> options;
+    private final int lists;
+    private final double[] zipfCdf;
+    private final LongAdder upstreamRequests = new LongAdder();
+    private final LongAdder upstreamErrors = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+    private volatile LatencyHistogram latencies = new LatencyHistogram();
+    private volatile boolean running = true;
+
+    private LoadTest(final Map<String, String> options) {
+        this.options = options;
+        this.lists = intOption("lists");
+        this.zipfCdf = zipfCdf(lists, doubleOption("zipf"));
+    }
+
+    public static void main(final String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            String name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (name == null || !DEFAULTS.containsKey(name)) {
+                System.err.println("Unknown option " + arg + ", expected --name=value with a name among " + DEFAULTS.keySet());
+                System.exit(2);
+            }
+            options.put(name, arg.substring(separator + 1));
+        }
+        new LoadTest(options).run();
+    }
+
+    private void run() throws IOException, InterruptedException {
+        System.out.println("Options " + options);
+        HttpServer httpServer = startServer();
+        String baseUrl = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + httpServer.getAddress().getPort() + "/status/";
+        int entryCount = intOption("listBytes") * Byte.SIZE;
+        StatusListClient statusListClient = StatusListClient.builder()
+                .maxConcurrentRequestsPerHost(intOption("maxConcurrentRequestsPerHost"))
+                .staleIfError(Duration.ofSeconds(intOption("staleIfErrorSeconds")))
+                .build();
+        StatusListCache statusListCache = new StatusListCache(intOption("cacheEntries"), StatusListCache.DEFAULT_TTL);
+        StatusVerifierService statusVerifierService = new StatusVerifierService(statusListClient, statusListCache);
+
+        int concurrency = intOption("concurrency");
+        double rate = doubleOption("rate");
+        //interval between the scheduled starts of the verifications of a worker, zero to run back to back
+        long intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.add(Thread.ofVirtual().name("load-", i).start(() -> work(statusVerifierService, baseUrl, entryCount, intervalNanos)));
+        }
+
+        Thread.sleep(TimeUnit.SECONDS.toMillis(intOption("warmupSeconds")));
+        latencies = new LatencyHistogram();
+        verifications.reset();
+        failures.clear();
+        long startRequests = upstreamRequests.sum();
+        long startErrors = upstreamErrors.sum();
+        Map<Long, Long> startAllocated = allocatedBytes();
+        long startNanos = System.nanoTime();
+        Thread.sleep(TimeUnit.SECONDS.toMillis(intOption("durationSeconds")));
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytesSince(startAllocated);
+        LatencyHistogram measured = latencies;
+        long completed = verifications.sum();
+        long requests = upstreamRequests.sum() - startRequests;
+        long errors = upstreamErrors.sum() - startErrors;
+
+        running = false;
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        statusListClient.close();
+        httpServer.stop(0);
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("Throughput       %.0f verifications/s (%d in %.1f s)%n", completed / seconds, completed, seconds);
+        System.out.printf("Latency          p50 %.3f ms, p99 %.3f ms, p99.9 %.3f ms, max %.3f ms%n",
+                millis(measured.percentile(50)), millis(measured.percentile(99)), millis(measured.percentile(99.9)), millis(measured.max()));
+        System.out.printf("Failures         %d %s%n", failures.values().stream().mapToLong(LongAdder::sum).sum(), failures);
+        System.out.printf("Upstream fetches %d (%d answered with an error), %.5f per verification%n",
+                requests, errors, completed > 0 ? (double) requests / completed : 0);
+        System.out.printf("Cache            %d hits, %d misses, %d evictions over the whole run%n",
+                statusListCache.hitCount(), statusListCache.missCount(), statusListCache.evictionCount());
+        if (allocated >= 0) {
+            System.out.printf("Allocation       %.1f MB/s, %.0f bytes per verification%n",
+                    allocated / seconds / 1e6, completed > 0 ? (double) allocated / completed : 0);
+        } else {
+            System.out.println("Allocation       not measurable on this JVM");
+        }
+    }
+
+    private void work(final StatusVerifierService statusVerifierService, final String baseUrl, final int entryCount, final long intervalNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        //spread the first scheduled starts over one interval
+        long scheduledNanos = System.nanoTime() + (intervalNanos > 0 ? random.nextLong(intervalNanos) : 0);
+        while (running) {
+            if (intervalNanos > 0) {
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+            } else {
+                scheduledNanos = System.nanoTime();
+            }
+            List<CredentialStatus> credentialStatus = List.of(CredentialStatus.fromMap(Map.of(
+                    "type", "BitstringStatusListEntry",
+                    "statusPurpose", "revocation",
+                    "statusListIndex", String.valueOf(random.nextInt(entryCount)),
+                    "statusListCredential", baseUrl + pickList(random))));
+            try {
+                statusVerifierService.verify(credentialStatus);
+            } catch (CredentialStatusProcessingException e) {
+                failures.computeIfAbsent(e.getTitle(), title -> new LongAdder()).increment();
+            } catch (CredentialStatusNetworkException e) {
+                failures.computeIfAbsent(e.getTitle(), title -> new LongAdder()).increment();
+            } catch (RuntimeException e) {
+                //counted instead of ending the worker, which would lower the concurrency
+                failures.computeIfAbsent(e.getClass().getSimpleName(), title -> new LongAdder()).increment();
+            }
+            latencies.record(System.nanoTime() - scheduledNanos);
+            verifications.increment();
+            scheduledNanos += intervalNanos;
+        }
+    }
+
+    private HttpServer startServer() throws IOException {
+        int listBytes = intOption("listBytes");
+        long latencyMillis = intOption("latencyMillis");
+        long jitterMillis = intOption("jitterMillis");
+        double errorRate = doubleOption("errorRate");
+        String cacheControl = "max-age=" + intOption("maxAgeSeconds");
+        HttpServer httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 4096);
+        String baseUrl = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + httpServer.getAddress().getPort() + "/status/";
+        byte[][] bodies = new byte[lists][];
+        for (int i = 0; i < lists; i++) {
+            bodies[i] = StatusListFixtures.credentialJson(baseUrl + i,
+                    StatusListFixtures.encodedList(StatusListFixtures.bitstring(listBytes, 1, i)));
+        }
+        //platform threads, so that the allocations of the server are not mixed with those of the carriers of the workers
+        ExecutorService executor = Executors.newCachedThreadPool(Thread.ofPlatform().name(SERVER_THREAD_PREFIX, 0).daemon().factory());
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/status/", exchange -> {
+            upstreamRequests.increment();
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            long delayMillis = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            int list = parseList(exchange);
+            if (list < 0) {
+                respond(exchange, 404, new byte[0], null);
+            } else if (random.nextDouble() < errorRate) {
+                upstreamErrors.increment();
+                respond(exchange, 503, new byte[0], null);
+            } else {
+                respond(exchange, 200, bodies[list], cacheControl);
+            }
+        });
+        httpServer.start();
+        return httpServer;
+    }
+
+    private int parseList(final HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        try {
+            int list = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            return list >= 0 && list < lists ? list : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int statusCode, final byte[] body, final String cacheControl) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "application/vc+ld+json");
+        if (cacheControl != null) {
+            exchange.getResponseHeaders().add("Cache-Control", cacheControl);
+        }
+        exchange.sendResponseHeaders(statusCode, body.length > 0 ? body.length : -1);
+        try (OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(body);
+        }
+    }
+
+    /**
+     * @return the index of a list drawn from the Zipf distribution, list 0 being the most frequent.
+     */
+    private int pickList(final ThreadLocalRandom random) {
+        int position = Arrays.binarySearch(zipfCdf, random.nextDouble());
+        return Math.min(position >= 0 ? position : -position - 1, lists - 1);
+    }
+
+    /**
+     * @return the cumulative probabilities of ranks 1 to n under a Zipf distribution of the given exponent.
+     */
+    private static double[] zipfCdf(final int n, final double exponent) {
+        double[] cdf = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1 / Math.pow(rank, exponent);
+            cdf[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cdf[i] /= sum;
+        }
+        return cdf;
+    }
+
+    /**
+     * @return the bytes allocated on the heap so far by each live platform thread other than the server threads, which
+     * include the carriers of the virtual threads, or null if the JVM does not measure it.
+     */
+    private static Map<Long, Long> allocatedBytes() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threadMXBean)
+                || !threadMXBean.isThreadAllocatedMemorySupported() || !threadMXBean.isThreadAllocatedMemoryEnabled()) {
+            return null;
+        }
+        long[] threadIds = threadMXBean.getAllThreadIds();
+        long[] allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadIds);
+        ThreadInfo[] threadInfos = threadMXBean.getThreadInfo(threadIds);
+        Map<Long, Long> allocatedByThread = new HashMap<>();
+        for (int i = 0; i < threadIds.length; i++) {
+            //null and -1 for the threads that ended meanwhile
+            if (threadInfos[i] != null && allocatedBytes[i] >= 0 && !isServerThread(threadInfos[i].getThreadName())) {
+                allocatedByThread.put(threadIds[i], allocatedBytes[i]);
+            }
+        }
+        return allocatedByThread;
+    }
+
+    /**
+     * @param start the allocations returned by {@link #allocatedBytes()} at the start of the measurement.
+     * @return the bytes allocated since by the threads still alive, or -1 if the JVM does not measure it. A thread
+     * ending during the measurement is left out rather than subtracted.
+     */
+    private static long allocatedBytesSince(final Map<Long, Long> start) {
+        Map<Long, Long> end = allocatedBytes();
+        if (start == null || end == null) {
+            return -1;
+        }
+        long total = 0;
+        for (Map.Entry<Long, Long> allocated : end.entrySet()) {
+            total += allocated.getValue() - start.getOrDefault(allocated.getKey(), 0L);
+        }
+        return total;
+    }
+
+    private static boolean isServerThread(final String threadName) {
+        return threadName.startsWith(SERVER_THREAD_PREFIX) || threadName.equals(SERVER_DISPATCHER_THREAD);
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / 1e6;
+    }
+
+    private int intOption(final String name) {
+        return Integer.parseInt(options.get(name));
+    }
+
+    private double doubleOption(final String name) {
+        return Double.parseDouble(options.get(name));
+    }
+}
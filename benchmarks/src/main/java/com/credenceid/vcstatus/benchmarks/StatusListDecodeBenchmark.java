@@ -0,0 +1,74 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.credenceid.vcstatus.util.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding of the encodedList and status lookups, from the 16KB minimum list size of the specification to
+ * multi-megabyte lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusListDecodeBenchmark {
+
+    @Param({"16384", "1048576", "8388608"})
+    public int listBytes;
+
+    @Param({"1", "2", "8"})
+    public int statusSize;
+
+    private String encodedList;
+    private StatusList statusList;
+    private int entryCount;
+
+    @Setup
+    public void setUp() throws CredentialStatusProcessingException {
+        encodedList = StatusListFixtures.encodedList(StatusListFixtures.bitstring(listBytes, statusSize, 42));
+        statusList = StatusList.wrap(Utils.decodeStatusList(encodedList));
+        entryCount = (int) statusList.entryCount(statusSize);
+    }
+
+    /**
+     * Full Base64URL decode and GZIP decompression of the list.
+     */
+    @Benchmark
+    public byte[] decodeStatusList() throws CredentialStatusProcessingException {
+        return Utils.decodeStatusList(encodedList);
+    }
+
+    /**
+     * Single lookup at a random index straight from the encodedList: Base64URL decode of the whole list and GZIP
+     * decompression up to the index on every call.
+     */
+    @Benchmark
+    public boolean decodeAndGetBitAtIndex() throws CredentialStatusProcessingException {
+        return Utils.decodeStatusList(encodedList, ThreadLocalRandom.current().nextInt(entryCount), statusSize);
+    }
+
+    /**
+     * Single lookup in an already decoded list, as the cached verifier does.
+     */
+    @Benchmark
+    public int getStatus() throws CredentialStatusProcessingException {
+        return statusList.getStatus(ThreadLocalRandom.current().nextInt(entryCount), statusSize);
+    }
+}
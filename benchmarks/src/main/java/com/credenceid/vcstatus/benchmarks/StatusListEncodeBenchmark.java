@@ -0,0 +1,64 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.statuslist.MutableStatusList;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.credenceid.vcstatus.util.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issuer-side updates of a status list and re-encoding of its encodedList after each change.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatusListEncodeBenchmark {
+
+    @Param({"16384", "1048576", "8388608"})
+    public int listBytes;
+
+    @Param({"1", "2"})
+    public int statusSize;
+
+    private MutableStatusList statusList;
+
+    @Setup
+    public void setUp() throws CredentialStatusProcessingException {
+        byte[] bitstring = StatusListFixtures.bitstring(listBytes, statusSize, 42);
+        statusList = MutableStatusList.copyOf(StatusList.wrap(Utils.decodeStatusList(StatusListFixtures.encodedList(bitstring))), statusSize);
+    }
+
+    /**
+     * Single status change, as a revocation does.
+     */
+    @Benchmark
+    public void set() throws CredentialStatusProcessingException {
+        statusList.set(ThreadLocalRandom.current().nextInt(statusList.entryCount()), 1);
+    }
+
+    /**
+     * Status change followed by the GZIP compression and Base64URL encoding of the whole list, as republishing does.
+     */
+    @Benchmark
+    public String setAndEncode() throws CredentialStatusProcessingException {
+        int index = ThreadLocalRandom.current().nextInt(statusList.entryCount());
+        statusList.set(index, statusList.get(index) ^ 1);
+        return statusList.encode();
+    }
+}
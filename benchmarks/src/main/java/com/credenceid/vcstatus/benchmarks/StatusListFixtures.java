@@ -0,0 +1,82 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Builds deterministic status lists and BitstringStatusListCredentials for the benchmarks.
+ */
+final class StatusListFixtures {
+    /**
+     * Share of the status entries that are set, close to the revocation rate of real issuers.
+     */
+    static final double SET_RATIO = 0.01;
+
+    private StatusListFixtures() {
+    }
+
+    /**
+     * @param byteLength length of the decompressed bitstring.
+     * @param statusSize size of each status in bits.
+     * @param seed       seed of the generated statuses.
+     * @return a bitstring where {@link #SET_RATIO} of the entries hold a random non-zero status.
+     */
+    static byte[] bitstring(final int byteLength, final int statusSize, final long seed) {
+        byte[] bitstring = new byte[byteLength];
+        Random random = new Random(seed);
+        long entries = (long) byteLength * Byte.SIZE / statusSize;
+        for (long entry = 0; entry < entries; entry++) {
+            if (random.nextDouble() < SET_RATIO) {
+                int status = 1 + random.nextInt((1 << statusSize) - 1);
+                for (int bit = 0; bit < statusSize; bit++) {
+                    if ((status >>> (statusSize - 1 - bit) & 1) != 0) {
+                        long offset = entry * statusSize + bit;
+                        bitstring[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+                    }
+                }
+            }
+        }
+        return bitstring;
+    }
+
+    /**
+     * @param bitstring decompressed bitstring.
+     * @return the multibase encodedList value: {@code u} followed by the base64url, unpadded, GZIP-compressed bitstring.
+     */
+    static String encodedList(final byte[] bitstring) {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+            gzipOutputStream.write(bitstring);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(byteArrayOutputStream.toByteArray());
+    }
+
+    /**
+     * @param id          id of the credential, also the URL it is served from.
+     * @param encodedList encodedList of the credentialSubject.
+     * @return the JSON of a revocation BitstringStatusListCredential.
+     */
+    static byte[] credentialJson(final String id, final String encodedList) {
+        return ("""
+                {
+                  "@context": ["https://www.w3.org/ns/credentials/v2"],
+                  "id": "%1$s",
+                  "type": ["VerifiableCredential", "BitstringStatusListCredential"],
+                  "issuer": "did:web:example.com",
+                  "validFrom": "2024-01-01T00:00:00Z",
+                  "credentialSubject": {
+                    "id": "%1$s#list",
+                    "type": "BitstringStatusList",
+                    "statusPurpose": "revocation",
+                    "encodedList": "%2$s"
+                  }
+                }""").formatted(id, encodedList).getBytes(StandardCharsets.UTF_8);
+    }
+}
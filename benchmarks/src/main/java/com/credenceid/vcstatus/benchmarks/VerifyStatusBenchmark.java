@@ -0,0 +1,104 @@
+package com.credenceid.vcstatus.benchmarks;
+
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.dto.StatusVerificationResult;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.service.StatusVerifierService;
+import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end status verification against a BitstringStatusListCredential served by an embedded HTTP server on the
+ * loopback interface: fetch, parse, decode and lookup on every call for the static verifier, lookup only once the
+ * list is cached.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VerifyStatusBenchmark {
+
+    @Param({"16384", "1048576"})
+    public int listBytes;
+
+    private HttpServer httpServer;
+    private String statusListCredential;
+    private int entryCount;
+    private StatusListClient statusListClient;
+    private StatusVerifierService cachedVerifierService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        httpServer = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        statusListCredential = "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + httpServer.getAddress().getPort() + "/status/1";
+        byte[] body = StatusListFixtures.credentialJson(statusListCredential,
+                StatusListFixtures.encodedList(StatusListFixtures.bitstring(listBytes, 1, 42)));
+        httpServer.createContext("/status/1", exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "application/vc+ld+json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        httpServer.start();
+        entryCount = listBytes * Byte.SIZE;
+        statusListClient = StatusListClient.builder().build();
+        cachedVerifierService = new StatusVerifierService(statusListClient, new StatusListCache());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        statusListClient.close();
+        httpServer.stop(0);
+    }
+
+    private List<CredentialStatus> credentialStatus() {
+        return List.of(CredentialStatus.fromMap(Map.of(
+                "type", "BitstringStatusListEntry",
+                "statusPurpose", "revocation",
+                "statusListIndex", String.valueOf(ThreadLocalRandom.current().nextInt(entryCount)),
+                "statusListCredential", statusListCredential)));
+    }
+
+    /**
+     * The static, uncached entry point: every call downloads, parses and decodes the list.
+     */
+    @Benchmark
+    public List<StatusVerificationResult> verifyStatusUncached() throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        return StatusVerifierService.verifyStatus(credentialStatus());
+    }
+
+    /**
+     * A verifier with a cache: the list is fetched once and every call is a lookup.
+     */
+    @Benchmark
+    public List<StatusVerificationResult> verifyCached() throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        return cachedVerifierService.verify(credentialStatus());
+    }
+}
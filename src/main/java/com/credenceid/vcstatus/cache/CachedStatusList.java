@@ -0,0 +1,52 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.statuslist.StatusList;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * A record representing a decoded status list held by the {@link StatusListCache}.
+ *
+ * @param statusListCredential The URL of the BitstringStatusListCredential the list was fetched from.
+ * @param statusPurpose        The statusPurpose value of the credentialSubject.
+ * @param statusList           The Base64URL-decoded and GZIP-decompressed status list.
+ * @param fetchedAt            The instant at which the list was fetched or last revalidated.
+ * @param expiresAt            The instant after which the list must be fetched or revalidated again.
+ * @param validUntil           The validUntil value of the BitstringStatusListCredential, or null.
+ * @param ttl                  The ttl value of the credentialSubject, or null.
+ * @param etag                 The ETag validator returned by the statusListCredential endpoint, or null.
+ * @param lastModified         The Last-Modified validator returned by the statusListCredential endpoint, or null.
+ */
+public record CachedStatusList(String statusListCredential, String statusPurpose, StatusList statusList,
+                               Instant fetchedAt, Instant expiresAt, Instant validUntil, Duration ttl,
+                               String etag, String lastModified) {
+
+    /**
+     * @param now the current instant
+     * @return boolean whether the list must be fetched or revalidated again
+     */
+    public boolean isExpired(final Instant now) {
+        return expiresAt == null || !now.isBefore(expiresAt);
+    }
+
+    /**
+     * @return boolean whether the list can be revalidated with a conditional request
+     */
+    public boolean hasValidators() {
+        return etag != null || lastModified != null;
+    }
+
+    /**
+     * Returns a copy of this list renewed after a successful revalidation, keeping the decoded status list.
+     *
+     * @param revalidatedAt the instant of the revalidation.
+     * @param newExpiresAt  the new expiry instant.
+     * @param newEtag       the ETag returned with the revalidation, or null to keep the current one.
+     * @return the renewed list.
+     */
+    public CachedStatusList renew(final Instant revalidatedAt, final Instant newExpiresAt, final String newEtag) {
+        return new CachedStatusList(statusListCredential, statusPurpose, statusList, revalidatedAt, newExpiresAt,
+                validUntil, ttl, newEtag != null ? newEtag : etag, lastModified);
+    }
+}
@@ -0,0 +1,224 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.statuslist.StatusList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Off-heap memory for decoded status lists, keeping large numbers of bitstrings out of the Java heap and away from
+ * the garbage collector.
+ * <p>
+ * Memory is reserved from the operating system in direct slabs of a fixed size and carved into chunks of power-of-two
+ * size classes, from {@link #MIN_CHUNK_BYTES}, the size of the smallest valid bitstring, up to the slab size. A slab
+ * serves a single size class and free chunks are kept in one free list per class. Lists larger than a slab get a
+ * dedicated direct buffer. Lookups on the returned {@link StatusList} read the native memory directly.
+ * <p>
+ * A released chunk is quarantined: it is reused only once the quarantine period has elapsed and the released
+ * {@link StatusList} is no longer referenced, so that a lookup still holding an evicted list never reads another list.
+ * Once the capacity is reached, lists are left on the heap.
+ * <p>
+ * Instances are thread-safe.
+ */
+public class OffHeapStatusListArena {
+    private static final Logger logger = LoggerFactory.getLogger(OffHeapStatusListArena.class);
+
+    public static final int MIN_CHUNK_BYTES = 16 * 1024;
+    public static final int DEFAULT_SLAB_BYTES = 4 * 1024 * 1024;
+    public static final Duration DEFAULT_QUARANTINE = Duration.ofMinutes(1);
+
+    private final long capacityBytes;
+    private final int slabBytes;
+    private final long quarantineNanos;
+    private final ArrayDeque<ByteBuffer>[] freeChunks;
+    private final Map<StatusList, Chunk> allocatedChunks = new IdentityHashMap<>();
+    private final ArrayDeque<Chunk> quarantinedChunks = new ArrayDeque<>();
+    //guarded by the instance lock
+    private long reservedBytes;
+    private long usedBytes;
+
+    /**
+     * @param capacityBytes maximum off-heap memory reserved, with {@link #DEFAULT_SLAB_BYTES} slabs and a
+     *                      {@link #DEFAULT_QUARANTINE}.
+     */
+    public OffHeapStatusListArena(final long capacityBytes) {
+        this(capacityBytes, DEFAULT_SLAB_BYTES, DEFAULT_QUARANTINE);
+    }
+
+    /**
+     * @param capacityBytes maximum off-heap memory reserved.
+     * @param slabBytes     size of the slabs reserved at once, a power of two of at least {@link #MIN_CHUNK_BYTES}.
+     * @param quarantine    minimum time between the release of a list and the reuse of its memory.
+     */
+    @SuppressWarnings("unchecked")
+    public OffHeapStatusListArena(final long capacityBytes, final int slabBytes, final Duration quarantine) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("capacityBytes must be greater than zero");
+        }
+        if (slabBytes < MIN_CHUNK_BYTES || Integer.bitCount(slabBytes) != 1) {
+            throw new IllegalArgumentException("slabBytes must be a power of two of at least " + MIN_CHUNK_BYTES);
+        }
+        if (quarantine == null || quarantine.isNegative()) {
+            throw new IllegalArgumentException("quarantine must not be null or negative");
+        }
+        this.capacityBytes = capacityBytes;
+        this.slabBytes = slabBytes;
+        this.quarantineNanos = quarantine.toNanos();
+        this.freeChunks = new ArrayDeque[sizeClass(slabBytes) + 1];
+        for (int i = 0; i < freeChunks.length; i++) {
+            freeChunks[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Copies a status list to off-heap memory.
+     *
+     * @param statusList the list to copy, usually backed by a heap array.
+     * @return the off-heap copy, or the given list if the arena is full.
+     */
+    public StatusList copyOf(final StatusList statusList) {
+        int length = statusList.byteLength();
+        Chunk chunk;
+        synchronized (this) {
+            reclaim(System.nanoTime());
+            chunk = take(length);
+        }
+        if (chunk == null) {
+            logger.debug("Off-heap arena full, keeping a status list of {} bytes on the heap", length);
+            return statusList;
+        }
+        ByteBuffer target = chunk.buffer.duplicate().clear().limit(length);
+        target.put(statusList.asByteBuffer()).flip();
+        StatusList offHeapStatusList = StatusList.wrap(target);
+        synchronized (this) {
+            allocatedChunks.put(offHeapStatusList, chunk);
+            usedBytes += chunk.buffer.capacity();
+        }
+        return offHeapStatusList;
+    }
+
+    /**
+     * Returns the memory of a list copied by this arena, to be reused after the quarantine. Other lists are ignored.
+     *
+     * @param statusList the list that is no longer cached.
+     */
+    public synchronized void release(final StatusList statusList) {
+        Chunk chunk = allocatedChunks.remove(statusList);
+        if (chunk == null) {
+            return;
+        }
+        usedBytes -= chunk.buffer.capacity();
+        chunk.owner = new WeakReference<>(statusList);
+        chunk.releasedAt = System.nanoTime();
+        quarantinedChunks.add(chunk);
+    }
+
+    /**
+     * @param statusList a status list.
+     * @return boolean whether the list lives in the memory of this arena.
+     */
+    public synchronized boolean contains(final StatusList statusList) {
+        return allocatedChunks.containsKey(statusList);
+    }
+
+    /**
+     * @return the off-heap memory reserved from the operating system, in bytes.
+     */
+    public synchronized long reservedBytes() {
+        return reservedBytes;
+    }
+
+    /**
+     * @return the off-heap memory holding cached lists, in bytes, rounded up to their size classes.
+     */
+    public synchronized long usedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * @return the number of released chunks not reusable yet.
+     */
+    public synchronized int quarantinedCount() {
+        return quarantinedChunks.size();
+    }
+
+    /**
+     * Must be called while holding the instance lock.
+     *
+     * @return a chunk of at least the given length, or null if the capacity is reached.
+     */
+    private Chunk take(final int length) {
+        if (length > slabBytes) {
+            if (reservedBytes + length > capacityBytes) {
+                return null;
+            }
+            reservedBytes += length;
+            return new Chunk(ByteBuffer.allocateDirect(length), -1);
+        }
+        int sizeClass = sizeClass(length);
+        ArrayDeque<ByteBuffer> free = freeChunks[sizeClass];
+        if (free.isEmpty()) {
+            if (reservedBytes + slabBytes > capacityBytes) {
+                return null;
+            }
+            ByteBuffer slab = ByteBuffer.allocateDirect(slabBytes);
+            reservedBytes += slabBytes;
+            int chunkBytes = MIN_CHUNK_BYTES << sizeClass;
+            for (int offset = 0; offset < slabBytes; offset += chunkBytes) {
+                free.add(slab.slice(offset, chunkBytes));
+            }
+            logger.debug("Reserved an off-heap slab of {} bytes for chunks of {} bytes", slabBytes, chunkBytes);
+        }
+        return new Chunk(free.poll(), sizeClass);
+    }
+
+    /**
+     * Must be called while holding the instance lock. Returns the chunks past their quarantine, whose list is no longer
+     * referenced, to their free list; dedicated buffers are dropped and freed by the garbage collector.
+     */
+    private void reclaim(final long now) {
+        Iterator<Chunk> iterator = quarantinedChunks.iterator();
+        while (iterator.hasNext()) {
+            Chunk chunk = iterator.next();
+            if (now - chunk.releasedAt < quarantineNanos) {
+                //chunks are quarantined in release order
+                break;
+            }
+            if (chunk.owner.get() != null) {
+                continue;
+            }
+            iterator.remove();
+            if (chunk.sizeClass < 0) {
+                reservedBytes -= chunk.buffer.capacity();
+            } else {
+                freeChunks[chunk.sizeClass].push(chunk.buffer);
+            }
+        }
+    }
+
+    /**
+     * @return the index of the smallest size class holding the given length.
+     */
+    private static int sizeClass(final int length) {
+        return length <= MIN_CHUNK_BYTES ? 0 : 32 - Integer.numberOfLeadingZeros(length - 1) - Integer.numberOfTrailingZeros(MIN_CHUNK_BYTES);
+    }
+
+    private static final class Chunk {
+        private final ByteBuffer buffer;
+        private final int sizeClass;
+        private WeakReference<StatusList> owner;
+        private long releasedAt;
+
+        private Chunk(final ByteBuffer buffer, final int sizeClass) {
+            this.buffer = buffer;
+            this.sizeClass = sizeClass;
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.credenceid.vcstatus.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process cache of decoded status lists keyed by their statusListCredential URL.
+ * <p>
+ * The cache is bounded by a maximum number of entries and evicts the least recently used list once full.
+ * Every entry carries an expiry instant derived from the {@code ttl} and {@code validUntil} of the
+ * BitstringStatusListCredential and from the HTTP Cache-Control header, whichever comes first.
+ * When none of them is available the configured default time to live is used.
+ * <p>
+ * Expired lists that carry an HTTP validator (ETag or Last-Modified) are kept, until evicted by size, so that they
+ * can be revalidated with a conditional request and reused without downloading and decoding them again.
+ * <p>
+ * A cache created with a {@link StatusListStore} also writes every newly decoded list to disk, and starts with the
+ * lists found there, so that a restarted verifier serves lookups from the memory-mapped files and only revalidates
+ * expired lists instead of downloading them all again. Failures of the store are logged and never fail a lookup.
+ * <p>
+ * A cache created with an {@link OffHeapStatusListArena} copies every newly decoded list to off-heap memory and hands
+ * the memory back to the arena once the list is replaced, evicted or invalidated, so that many large lists can be held
+ * without growing the Java heap.
+ * <p>
+ * Every URL has a {@link #version(String)} that changes whenever the bitstring held for it is replaced or removed,
+ * so that results derived from a list can be checked for staleness without a lookup.
+ */
+public class StatusListCache {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListCache.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+    public static final Duration DEFAULT_TTL = Duration.ofMinutes(5);
+    //URLs share version counters by hash, a change of one list also retires the results of the lists sharing its stripe
+    private static final int VERSION_STRIPES = 4096;
+
+    private final int maxEntries;
+    private final Duration defaultTtl;
+    private final Clock clock;
+    private final StatusListStore statusListStore;
+    private final OffHeapStatusListArena arena;
+    private final Map<String, CachedStatusList> entries;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    /**
+     * Creates a cache holding up to {@link #DEFAULT_MAX_ENTRIES} lists for {@link #DEFAULT_TTL} by default.
+     */
+    public StatusListCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maxEntries maximum number of status lists held before the least recently used one is evicted.
+     * @param defaultTtl time to live applied when neither the credential nor the HTTP response announce one.
+     */
+    public StatusListCache(final int maxEntries, final Duration defaultTtl) {
+        this(maxEntries, defaultTtl, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxEntries maximum number of status lists held before the least recently used one is evicted.
+     * @param defaultTtl time to live applied when neither the credential nor the HTTP response announce one.
+     * @param clock      clock used to compute and check expiry instants.
+     */
+    public StatusListCache(final int maxEntries, final Duration defaultTtl, final Clock clock) {
+        this(maxEntries, defaultTtl, clock, null);
+    }
+
+    /**
+     * @param maxEntries      maximum number of status lists held before the least recently used one is evicted.
+     * @param defaultTtl      time to live applied when neither the credential nor the HTTP response announce one.
+     * @param statusListStore store persisting the decoded lists across restarts, loaded into the cache at creation.
+     */
+    public StatusListCache(final int maxEntries, final Duration defaultTtl, final StatusListStore statusListStore) {
+        this(maxEntries, defaultTtl, Clock.systemUTC(), statusListStore);
+    }
+
+    /**
+     * @param maxEntries      maximum number of status lists held before the least recently used one is evicted.
+     * @param defaultTtl      time to live applied when neither the credential nor the HTTP response announce one.
+     * @param clock           clock used to compute and check expiry instants.
+     * @param statusListStore store persisting the decoded lists across restarts, loaded into the cache at creation, or null.
+     */
+    public StatusListCache(final int maxEntries, final Duration defaultTtl, final Clock clock, final StatusListStore statusListStore) {
+        this(maxEntries, defaultTtl, clock, statusListStore, null);
+    }
+
+    /**
+     * @param maxEntries      maximum number of status lists held before the least recently used one is evicted.
+     * @param defaultTtl      time to live applied when neither the credential nor the HTTP response announce one.
+     * @param clock           clock used to compute and check expiry instants.
+     * @param statusListStore store persisting the decoded lists across restarts, loaded into the cache at creation, or null.
+     * @param arena           off-heap memory holding the decoded lists, or null to keep them on the heap.
+     */
+    public StatusListCache(final int maxEntries, final Duration defaultTtl, final Clock clock, final StatusListStore statusListStore,
+                           final OffHeapStatusListArena arena) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        if (defaultTtl == null || defaultTtl.isNegative()) {
+            throw new IllegalArgumentException("defaultTtl must not be null or negative");
+        }
+        this.maxEntries = maxEntries;
+        this.defaultTtl = defaultTtl;
+        this.clock = clock;
+        this.statusListStore = statusListStore;
+        this.arena = arena;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatusList> eldest) {
+                boolean evict = size() > StatusListCache.this.maxEntries;
+                if (evict) {
+                    evictionCount.increment();
+                    logger.debug("Evicting least recently used status list {}", eldest.getKey());
+                    bumpVersion(eldest.getKey());
+                    release(eldest.getValue());
+                }
+                return evict;
+            }
+        };
+        if (statusListStore != null) {
+            loadStore();
+        }
+    }
+
+    /**
+     * Loads the stored lists, most recently fetched last so that they survive the size bound.
+     * Expired lists that cannot be revalidated are removed from the store.
+     */
+    private void loadStore() {
+        List<CachedStatusList> storedStatusLists;
+        try {
+            storedStatusLists = statusListStore.loadAll();
+        } catch (IOException e) {
+            logger.warn("Unable to load stored status lists from {}: {}", statusListStore.directory(), e.getMessage());
+            return;
+        }
+        Instant now = clock.instant();
+        storedStatusLists.sort(Comparator.comparing(CachedStatusList::fetchedAt, Comparator.nullsFirst(Comparator.naturalOrder())));
+        synchronized (entries) {
+            for (CachedStatusList storedStatusList : storedStatusLists) {
+                if (storedStatusList.isExpired(now) && !storedStatusList.hasValidators()) {
+                    deleteStored(storedStatusList.statusListCredential());
+                } else {
+                    entries.put(storedStatusList.statusListCredential(), storedStatusList);
+                }
+            }
+        }
+        logger.debug("Loaded {} stored status lists from {}", entries.size(), statusListStore.directory());
+    }
+
+    /**
+     * Returns the cached status list for the given URL if it has not expired yet.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the cached status list, or null if it is absent or expired.
+     */
+    public CachedStatusList get(final String statusListCredential) {
+        Instant now = clock.instant();
+        synchronized (entries) {
+            CachedStatusList cachedStatusList = entries.get(statusListCredential);
+            if (cachedStatusList != null && cachedStatusList.isExpired(now)) {
+                logger.debug("Cached status list {} expired at {}", statusListCredential, cachedStatusList.expiresAt());
+                if (!cachedStatusList.hasValidators()) {
+                    entries.remove(statusListCredential);
+                    evictionCount.increment();
+                    bumpVersion(statusListCredential);
+                    release(cachedStatusList);
+                }
+                cachedStatusList = null;
+            }
+            if (cachedStatusList == null) {
+                missCount.increment();
+            } else {
+                hitCount.increment();
+            }
+            return cachedStatusList;
+        }
+    }
+
+    /**
+     * Returns the status list held for the given URL, even if it has expired, without updating the hit and miss counters.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the held status list, or null if it is absent.
+     */
+    public CachedStatusList peek(final String statusListCredential) {
+        synchronized (entries) {
+            return entries.get(statusListCredential);
+        }
+    }
+
+    /**
+     * Stores a decoded status list unless it is already expired and cannot be revalidated.
+     * A list with a new bitstring is also written to the {@link StatusListStore}, if any; a renewed list is not,
+     * and is revalidated once more after a restart. A list backed by heap memory is copied to the
+     * {@link OffHeapStatusListArena}, if any.
+     *
+     * @param statusList the decoded status list.
+     * @return the list as held by the cache, which may be backed by off-heap memory, or the given list if not cached.
+     */
+    public CachedStatusList put(final CachedStatusList statusList) {
+        if (statusList.isExpired(clock.instant()) && !statusList.hasValidators()) {
+            logger.trace("Not caching already expired status list {}", statusList.statusListCredential());
+            return statusList;
+        }
+        CachedStatusList cachedStatusList = statusList;
+        if (arena != null && !statusList.statusList().asByteBuffer().isDirect()) {
+            cachedStatusList = new CachedStatusList(statusList.statusListCredential(), statusList.statusPurpose(),
+                    arena.copyOf(statusList.statusList()), statusList.fetchedAt(), statusList.expiresAt(), statusList.validUntil(),
+                    statusList.ttl(), statusList.etag(), statusList.lastModified());
+        }
+        CachedStatusList previous;
+        boolean newBitstring;
+        synchronized (entries) {
+            previous = entries.put(cachedStatusList.statusListCredential(), cachedStatusList);
+            newBitstring = previous == null || previous.statusList() != cachedStatusList.statusList();
+            if (newBitstring) {
+                bumpVersion(cachedStatusList.statusListCredential());
+            }
+        }
+        if (previous != null && newBitstring) {
+            release(previous);
+        }
+        if (statusListStore != null && newBitstring) {
+            try {
+                statusListStore.save(cachedStatusList);
+            } catch (IOException e) {
+                logger.warn("Unable to store status list {}: {}", cachedStatusList.statusListCredential(), e.getMessage());
+            }
+        }
+        return cachedStatusList;
+    }
+
+    /**
+     * Removes the status list of the given URL from the cache and from the {@link StatusListStore}, if any.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     */
+    public void invalidate(final String statusListCredential) {
+        CachedStatusList removed;
+        synchronized (entries) {
+            removed = entries.remove(statusListCredential);
+            bumpVersion(statusListCredential);
+        }
+        if (removed != null) {
+            release(removed);
+        }
+        if (statusListStore != null) {
+            deleteStored(statusListCredential);
+        }
+    }
+
+    private void deleteStored(final String statusListCredential) {
+        try {
+            statusListStore.delete(statusListCredential);
+        } catch (IOException e) {
+            logger.warn("Unable to delete stored status list {}: {}", statusListCredential, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes every status list from the cache. Lists kept by the {@link StatusListStore} are left in place.
+     */
+    public void clear() {
+        synchronized (entries) {
+            if (arena != null) {
+                entries.values().forEach(this::release);
+            }
+            entries.clear();
+            for (int stripe = 0; stripe < VERSION_STRIPES; stripe++) {
+                versions.incrementAndGet(stripe);
+            }
+        }
+    }
+
+    /**
+     * Returns a counter that changes whenever the bitstring held for the URL is replaced, evicted, expires or is
+     * invalidated. It may also change when another list changes, but never stays the same across a change of this one.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the version of the list held for the URL.
+     */
+    public long version(final String statusListCredential) {
+        return versions.get(versionStripe(statusListCredential));
+    }
+
+    private void bumpVersion(final String statusListCredential) {
+        versions.incrementAndGet(versionStripe(statusListCredential));
+    }
+
+    private static int versionStripe(final String statusListCredential) {
+        int hash = statusListCredential.hashCode();
+        return (hash ^ hash >>> 16) & (VERSION_STRIPES - 1);
+    }
+
+    /**
+     * Hands the memory of a list no longer cached back to the {@link OffHeapStatusListArena}, if any.
+     */
+    private void release(final CachedStatusList cachedStatusList) {
+        if (arena != null) {
+            arena.release(cachedStatusList.statusList());
+        }
+    }
+
+    /**
+     * Computes the instant after which a fetched or revalidated status list must be fetched or revalidated again.
+     * It is the earliest of the credential's {@code validUntil}, the fetch instant plus the credentialSubject's
+     * {@code ttl} and the fetch instant plus the HTTP Cache-Control max-age, as extracted by
+     * {@link com.credenceid.vcstatus.client.ParsedStatusListCredential}. The default time to live applies when none of
+     * them is present.
+     *
+     * @param validUntil validUntil of the BitstringStatusListCredential, or null.
+     * @param ttl        ttl of the credentialSubject, or null.
+     * @param maxAge     max-age announced through the HTTP Cache-Control header, or null.
+     * @param fetchedAt  the instant at which the list was fetched or revalidated.
+     * @return the expiry instant.
+     */
+    public Instant computeExpiry(final Instant validUntil, final Duration ttl, final Duration maxAge, final Instant fetchedAt) {
+        Instant expiresAt = validUntil;
+        if (ttl != null) {
+            expiresAt = earliest(expiresAt, fetchedAt.plus(ttl));
+        }
+        if (maxAge != null) {
+            expiresAt = earliest(expiresAt, fetchedAt.plus(maxAge));
+        }
+        return expiresAt != null ? expiresAt : fetchedAt.plus(defaultTtl);
+    }
+
+    /**
+     * @return the instant used as the fetch time of newly cached lists.
+     */
+    public Instant now() {
+        return clock.instant();
+    }
+
+    /**
+     * @return the number of status lists currently held, including expired ones not yet evicted.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Counts a hit for a status list that was not looked up because the status of an entry on it was answered from a
+     * cache of results computed from the list held here.
+     *
+     * @param statusListCredential statusListCredential URL of the list.
+     */
+    public void recordHit(final String statusListCredential) {
+        logger.trace("Status list {} answered from cached results", statusListCredential);
+        hitCount.increment();
+    }
+
+    /**
+     * @return the number of lookups that returned a cached status list, including the lists answered from cached results.
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of lookups that found no usable status list.
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * @return the number of status lists evicted because of size or expiry.
+     */
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private static Instant earliest(final Instant current, final Instant candidate) {
+        return current == null || candidate.isBefore(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,265 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.statuslist.StatusList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Directory of decoded status lists persisted across restarts.
+ * <p>
+ * Each list is written to its own file, named after the SHA-256 of its statusListCredential URL, holding the fetch
+ * metadata followed by the decompressed bitstring. Files are written to a temporary file, forced to disk, atomically
+ * renamed over the previous version and the directory is forced to disk, so a crash leaves either the old or the new
+ * list, never a torn one. Lists are not stored on file systems without atomic renames.
+ * Lists are read back through a read-only memory mapping: the returned {@link StatusList} is backed by the mapped
+ * pages and no copy of the bitstring is made on the heap.
+ * <p>
+ * Instances are thread-safe. A directory must not be shared by several running processes.
+ */
+public class StatusListStore {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListStore.class);
+
+    private static final int MAGIC = 0x5643534c; //"VCSL"
+    private static final int VERSION = 1;
+    private static final String FILE_SUFFIX = ".vcsl";
+    private static final String TEMP_SUFFIX = ".tmp";
+    //magic, version and header length
+    private static final int PREAMBLE_LENGTH = 3 * Integer.BYTES;
+
+    private final Path directory;
+
+    /**
+     * @param directory directory holding the status list files, created if missing.
+     *                  Temporary files left by an interrupted write are removed.
+     * @throws IOException If the directory cannot be created.
+     */
+    public StatusListStore(final Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + TEMP_SUFFIX)) {
+            for (Path path : files) {
+                logger.debug("Removing interrupted status list write {}", path);
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    /**
+     * Writes the given status list and its fetch metadata, replacing any previous version of the same URL.
+     *
+     * @param cachedStatusList the decoded status list.
+     * @throws IOException If the list cannot be written, or the file system cannot rename it atomically
+     *                     ({@link AtomicMoveNotSupportedException}).
+     */
+    public void save(final CachedStatusList cachedStatusList) throws IOException {
+        ByteBuffer bitstring = cachedStatusList.statusList().asByteBuffer();
+        CRC32C checksum = new CRC32C();
+        checksum.update(bitstring.duplicate());
+        byte[] header = writeHeader(cachedStatusList, bitstring.remaining(), checksum.getValue());
+
+        Path target = file(cachedStatusList.statusListCredential());
+        Path temp = Files.createTempFile(directory, target.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_LENGTH).putInt(MAGIC).putInt(VERSION).putInt(header.length).flip();
+                writeFully(channel, preamble);
+                writeFully(channel, ByteBuffer.wrap(header));
+                writeFully(channel, bitstring);
+                channel.force(true);
+            }
+            //a plain move could leave the list missing or torn after a crash, so the list is not stored without an atomic one
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            forceDirectory();
+            logger.debug("Stored status list {} in {}", cachedStatusList.statusListCredential(), target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Forces the directory entry of a renamed file to disk. Platforms that cannot open or force a directory, such as
+     * Windows, already persist the rename with the file system journal.
+     */
+    private void forceDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            logger.trace("Unable to force the status list directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the status list stored for the given URL.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the stored status list backed by a memory mapping, or null if none is stored.
+     * @throws IOException If the file cannot be read or is corrupted.
+     */
+    public CachedStatusList load(final String statusListCredential) throws IOException {
+        Path path = file(statusListCredential);
+        if (!Files.exists(path)) {
+            return null;
+        }
+        CachedStatusList cachedStatusList = read(path);
+        if (!cachedStatusList.statusListCredential().equals(statusListCredential)) {
+            throw new IOException("Status list file " + path + " holds another URL");
+        }
+        return cachedStatusList;
+    }
+
+    /**
+     * Reads every stored status list. Corrupted or unreadable files are deleted and skipped.
+     *
+     * @return the stored status lists, each backed by a memory mapping.
+     * @throws IOException If the directory cannot be listed.
+     */
+    public List<CachedStatusList> loadAll() throws IOException {
+        List<CachedStatusList> statusLists = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path path : files) {
+                try {
+                    statusLists.add(read(path));
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Discarding unreadable status list file {}: {}", path, e.getMessage());
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+        return statusLists;
+    }
+
+    /**
+     * Removes the status list stored for the given URL, if any.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @throws IOException If the file cannot be deleted.
+     */
+    public void delete(final String statusListCredential) throws IOException {
+        Files.deleteIfExists(file(statusListCredential));
+    }
+
+    /**
+     * @return the directory holding the status list files.
+     */
+    public Path directory() {
+        return directory;
+    }
+
+    private Path file(final String statusListCredential) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(statusListCredential.getBytes(StandardCharsets.UTF_8));
+            return directory.resolve(HexFormat.of().formatHex(digest) + FILE_SUFFIX);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static CachedStatusList read(final Path path) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            //the mapping stays valid after the channel is closed and after the file is replaced by a newer version
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (mapped.remaining() < PREAMBLE_LENGTH || mapped.getInt() != MAGIC || mapped.getInt() != VERSION) {
+            throw new IOException("Not a status list file: " + path);
+        }
+        int headerLength = mapped.getInt();
+        if (headerLength < 0 || headerLength > mapped.remaining()) {
+            throw new IOException("Truncated status list file: " + path);
+        }
+        byte[] header = new byte[headerLength];
+        mapped.get(header);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(header))) {
+            String statusListCredential = input.readUTF();
+            String statusPurpose = readNullableString(input);
+            Instant fetchedAt = readNullableInstant(input);
+            Instant expiresAt = readNullableInstant(input);
+            Instant validUntil = readNullableInstant(input);
+            long ttlMillis = input.readLong();
+            String etag = readNullableString(input);
+            String lastModified = readNullableString(input);
+            int bitstringLength = input.readInt();
+            long expectedChecksum = input.readLong();
+            if (bitstringLength != mapped.remaining()) {
+                throw new IOException("Truncated status list file: " + path);
+            }
+            ByteBuffer bitstring = mapped.slice();
+            CRC32C checksum = new CRC32C();
+            checksum.update(bitstring.duplicate());
+            if (checksum.getValue() != expectedChecksum) {
+                throw new IOException("Checksum mismatch in status list file: " + path);
+            }
+            return new CachedStatusList(statusListCredential, statusPurpose, StatusList.wrap(bitstring), fetchedAt, expiresAt,
+                    validUntil, ttlMillis >= 0 ? Duration.ofMillis(ttlMillis) : null, etag, lastModified);
+        }
+    }
+
+    private static byte[] writeHeader(final CachedStatusList cachedStatusList, final int bitstringLength, final long checksum) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(byteArrayOutputStream)) {
+            output.writeUTF(cachedStatusList.statusListCredential());
+            writeNullableString(output, cachedStatusList.statusPurpose());
+            writeNullableInstant(output, cachedStatusList.fetchedAt());
+            writeNullableInstant(output, cachedStatusList.expiresAt());
+            writeNullableInstant(output, cachedStatusList.validUntil());
+            output.writeLong(cachedStatusList.ttl() != null ? cachedStatusList.ttl().toMillis() : -1);
+            writeNullableString(output, cachedStatusList.etag());
+            writeNullableString(output, cachedStatusList.lastModified());
+            output.writeInt(bitstringLength);
+            output.writeLong(checksum);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static void writeNullableString(final DataOutputStream output, final String value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(final DataInputStream input) throws IOException {
+        return input.readBoolean() ? input.readUTF() : null;
+    }
+
+    private static void writeNullableInstant(final DataOutputStream output, final Instant value) throws IOException {
+        output.writeBoolean(value != null);
+        if (value != null) {
+            output.writeLong(value.getEpochSecond());
+            output.writeInt(value.getNano());
+        }
+    }
+
+    private static Instant readNullableInstant(final DataInputStream input) throws IOException {
+        return input.readBoolean() ? Instant.ofEpochSecond(input.readLong(), input.readInt()) : null;
+    }
+}
@@ -0,0 +1,205 @@
+package com.credenceid.vcstatus.client;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Isolates the statusListCredential endpoints of the {@link StatusListClient} from each other.
+ * <p>
+ * Every host gets a bulkhead of a fixed number of concurrent requests and a circuit breaker: after a number of
+ * consecutive failures of the host, its requests fail fast for a while, then a single trial request decides whether
+ * the circuit closes again. Requests admitted before the circuit opened do not count as the trial. Independently, a failed URL is remembered for a short time and not requested again
+ * until then, so credentials pointing at a broken list do not each pay for the failure.
+ */
+final class EndpointGuard {
+    private static final Logger logger = LoggerFactory.getLogger(EndpointGuard.class);
+
+    //failed URLs are swept once this many are remembered
+    private static final int FAILED_URLS_SWEEP_THRESHOLD = 10_000;
+
+    private final int maxConcurrentRequestsPerHost;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Duration failureCacheTtl;
+    private final Clock clock;
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final Map<String, Instant> failedUrls = new ConcurrentHashMap<>();
+
+    /**
+     * @param maxConcurrentRequestsPerHost maximum number of requests in flight to a host.
+     * @param failureThreshold             number of consecutive failures of a host opening its circuit.
+     * @param openDuration                 time during which an open circuit fails fast before a trial request.
+     * @param failureCacheTtl              time during which a failed URL is not requested again, zero to disable.
+     */
+    EndpointGuard(final int maxConcurrentRequestsPerHost, final int failureThreshold, final Duration openDuration, final Duration failureCacheTtl) {
+        this(maxConcurrentRequestsPerHost, failureThreshold, openDuration, failureCacheTtl, Clock.systemUTC());
+    }
+
+    /**
+     * @param maxConcurrentRequestsPerHost maximum number of requests in flight to a host.
+     * @param failureThreshold             number of consecutive failures of a host opening its circuit.
+     * @param openDuration                 time during which an open circuit fails fast before a trial request.
+     * @param failureCacheTtl              time during which a failed URL is not requested again, zero to disable.
+     * @param clock                        clock timing open circuits and failed URLs.
+     */
+    EndpointGuard(final int maxConcurrentRequestsPerHost, final int failureThreshold, final Duration openDuration, final Duration failureCacheTtl,
+                  final Clock clock) {
+        this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.failureCacheTtl = failureCacheTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Admits a request, waiting up to the given time for a free slot of the host.
+     *
+     * @param url      statusListCredential URL requested.
+     * @param hostName host of the URL.
+     * @param wait     maximum time to wait for a free slot.
+     * @return the permit holding the slot, to hand back to {@link #exit(String, Permit, boolean, boolean)}.
+     * @throws CredentialStatusNetworkException If the URL failed recently, the circuit of the host is open or no slot freed up in time.
+     * @throws InterruptedException             If interrupted while waiting for a slot.
+     */
+    Permit enter(final String url, final String hostName, final Duration wait) throws CredentialStatusNetworkException, InterruptedException {
+        Instant now = clock.instant();
+        Instant failedUntil = failedUrls.get(url);
+        if (failedUntil != null) {
+            if (now.isBefore(failedUntil)) {
+                logger.debug("Not requesting {}, it failed recently", url);
+                throw unavailable();
+            }
+            failedUrls.remove(url, failedUntil);
+        }
+        Host host = hosts.computeIfAbsent(Objects.requireNonNullElse(hostName, ""), name -> new Host(maxConcurrentRequestsPerHost));
+        Permit permit = host.admit(now);
+        if (permit == null) {
+            logger.debug("Not requesting {}, the circuit of host {} is open", url, hostName);
+            throw unavailable();
+        }
+        if (!host.permits.tryAcquire(wait.toNanos(), TimeUnit.NANOSECONDS)) {
+            host.abandon(permit);
+            logger.error("No request slot to host {} freed up within {}", hostName, wait);
+            throw new CredentialStatusNetworkException(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, Constants.STATUS_LIST_TIMEOUT_ERROR_DETAIL);
+        }
+        return permit;
+    }
+
+    /**
+     * Releases the slot of a request and records its outcome.
+     *
+     * @param url          statusListCredential URL requested.
+     * @param permit       the permit returned by {@link #enter(String, String, Duration)}.
+     * @param succeeded    whether the request returned a status list.
+     * @param hostResponded whether the host answered, even with an error, rather than failing or answering 5xx or 429.
+     */
+    void exit(final String url, final Permit permit, final boolean succeeded, final boolean hostResponded) {
+        permit.host.permits.release();
+        Instant now = clock.instant();
+        if (succeeded) {
+            failedUrls.remove(url);
+        } else if (failureCacheTtl.isPositive()) {
+            if (failedUrls.size() >= FAILED_URLS_SWEEP_THRESHOLD) {
+                failedUrls.values().removeIf(failedUntil -> !now.isBefore(failedUntil));
+            }
+            failedUrls.put(url, now.plus(failureCacheTtl));
+        }
+        permit.host.record(permit, hostResponded, now);
+    }
+
+    /**
+     * Releases the slot of a request whose outcome says nothing about the endpoint, such as an interrupted one.
+     *
+     * @param permit the permit returned by {@link #enter(String, String, Duration)}.
+     */
+    void abandon(final Permit permit) {
+        permit.host.permits.release();
+        permit.host.abandon(permit);
+    }
+
+    private static CredentialStatusNetworkException unavailable() {
+        return new CredentialStatusNetworkException(Constants.STATUS_LIST_UNAVAILABLE_ERROR_TITLE, Constants.STATUS_LIST_UNAVAILABLE_ERROR_DETAIL);
+    }
+
+    /**
+     * A request admitted to a host, which is the trial request of the host if its circuit was half-open.
+     */
+    static final class Permit {
+        private final Host host;
+        private final boolean trial;
+
+        private Permit(final Host host, final boolean trial) {
+            this.host = host;
+            this.trial = trial;
+        }
+    }
+
+    /**
+     * Bulkhead and circuit breaker of a host.
+     */
+    private final class Host {
+        private final Semaphore permits;
+        private final Permit permit = new Permit(this, false);
+        //guarded by the instance lock
+        private int consecutiveFailures;
+        private boolean open;
+        private Instant openUntil;
+        private Permit trial;
+
+        private Host(final int maxConcurrentRequests) {
+            this.permits = new Semaphore(maxConcurrentRequests);
+        }
+
+        /**
+         * @return the permit of the request, or null if the circuit is open.
+         */
+        private synchronized Permit admit(final Instant now) {
+            if (!open) {
+                return permit;
+            }
+            if (now.isBefore(openUntil) || trial != null) {
+                return null;
+            }
+            trial = new Permit(this, true);
+            return trial;
+        }
+
+        private synchronized void record(final Permit completed, final boolean responded, final Instant now) {
+            if (open && completed != trial) {
+                //admitted before the circuit opened, its outcome is already known to be a failure or outdated
+                return;
+            }
+            trial = null;
+            if (responded) {
+                consecutiveFailures = 0;
+                open = false;
+            } else {
+                consecutiveFailures++;
+                if (completed.trial || consecutiveFailures >= failureThreshold) {
+                    if (!open) {
+                        logger.warn("Opening the circuit of a status list host after {} consecutive failures", consecutiveFailures);
+                    }
+                    open = true;
+                    openUntil = now.plus(openDuration);
+                }
+            }
+        }
+
+        private synchronized void abandon(final Permit abandoned) {
+            if (abandoned == trial) {
+                trial = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.credenceid.vcstatus.client;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.util.Constants;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+
+/**
+ * The fields of a BitstringStatusListCredential needed to check statuses, extracted from the response body with a
+ * streaming parser.
+ * <p>
+ * Only {@code validFrom}, {@code validUntil} and the {@code statusPurpose}, {@code encodedList} and {@code ttl} of the
+ * credentialSubject are read; every other value is skipped without building any object. The complete
+ * {@link VerifiableCredential} is bound from the kept response body the first time {@link #credential()} is called,
+ * for callers needing more than the status, such as proof checks, and {@link #contentDigest()} identifies the exact
+ * version of the credential.
+ */
+public final class ParsedStatusListCredential {
+    private static final Logger logger = LoggerFactory.getLogger(ParsedStatusListCredential.class);
+
+    private final String statusPurpose;
+    private final String encodedList;
+    private final Instant validFrom;
+    private final Instant validUntil;
+    private final Duration ttl;
+    private final byte[] content;
+    private final ObjectReader credentialReader;
+    private volatile VerifiableCredential credential;
+    private volatile byte[] contentDigest;
+
+    private ParsedStatusListCredential(final String statusPurpose, final String encodedList, final Instant validFrom, final Instant validUntil,
+                                       final Duration ttl, final byte[] content, final ObjectReader credentialReader, final VerifiableCredential credential) {
+        this.statusPurpose = statusPurpose;
+        this.encodedList = encodedList;
+        this.validFrom = validFrom;
+        this.validUntil = validUntil;
+        this.ttl = ttl;
+        this.content = content;
+        this.credential = credential;
+        this.credentialReader = credentialReader;
+    }
+
+    /**
+     * Extracts the status fields of an already bound credential.
+     *
+     * @param credential BitstringStatusListCredential.
+     * @return the fields of the credential, which {@link #credential()} returns as is.
+     */
+    public static ParsedStatusListCredential of(final VerifiableCredential credential) {
+        Map<String, Object> credentialSubject = credential.getCredentialSubject().getJsonObject();
+        return new ParsedStatusListCredential(asString(credentialSubject.get("statusPurpose")), asString(credentialSubject.get("encodedList")),
+                parseInstant("validFrom", credential.getJsonObject().get("validFrom")),
+                parseInstant("validUntil", credential.getJsonObject().get("validUntil")),
+                parseTtl(credentialSubject.get("ttl")), null, null, credential);
+    }
+
+    /**
+     * Extracts the status fields of a BitstringStatusListCredential with a streaming parser.
+     *
+     * @param content          the JSON of the credential.
+     * @param jsonFactory      factory of the streaming parser.
+     * @param credentialReader reader binding the complete credential on demand.
+     * @return the fields of the credential.
+     * @throws IOException If the content is not a well-formed JSON object.
+     */
+    public static ParsedStatusListCredential parse(final byte[] content, final JsonFactory jsonFactory, final ObjectReader credentialReader) throws IOException {
+        Object validFrom = null;
+        Object validUntil = null;
+        CredentialSubject credentialSubject = new CredentialSubject();
+        try (JsonParser parser = jsonFactory.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("BitstringStatusListCredential is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "validFrom" -> validFrom = scalar(parser, value);
+                    case "validUntil" -> validUntil = scalar(parser, value);
+                    case "credentialSubject" -> {
+                        if (value == JsonToken.START_OBJECT) {
+                            readCredentialSubject(parser, credentialSubject);
+                        } else if (value == JsonToken.START_ARRAY) {
+                            //a credentialSubject array is read from its first object
+                            boolean read = false;
+                            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                                if (!read && parser.currentToken() == JsonToken.START_OBJECT) {
+                                    readCredentialSubject(parser, credentialSubject);
+                                    read = true;
+                                } else {
+                                    parser.skipChildren();
+                                }
+                            }
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.currentToken() != JsonToken.END_OBJECT || parser.nextToken() != null) {
+                throw new IOException("Unexpected content after the BitstringStatusListCredential");
+            }
+        }
+        return new ParsedStatusListCredential(credentialSubject.statusPurpose, credentialSubject.encodedList, parseInstant("validFrom", validFrom),
+                parseInstant("validUntil", validUntil), parseTtl(credentialSubject.ttl), content, credentialReader, null);
+    }
+
+    /**
+     * Reads the status fields of a credentialSubject object, from its first field to its end.
+     */
+    private static void readCredentialSubject(final JsonParser parser, final CredentialSubject credentialSubject) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String subjectField = parser.currentName();
+            JsonToken subjectValue = parser.nextToken();
+            switch (subjectField) {
+                case "statusPurpose" -> credentialSubject.statusPurpose = asString(scalar(parser, subjectValue));
+                case "encodedList" -> credentialSubject.encodedList = asString(scalar(parser, subjectValue));
+                case "ttl" -> credentialSubject.ttl = scalar(parser, subjectValue);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * @return the statusPurpose of the credentialSubject, or null if absent.
+     */
+    public String statusPurpose() {
+        return statusPurpose;
+    }
+
+    /**
+     * @return the encodedList of the credentialSubject, or null if absent.
+     */
+    public String encodedList() {
+        return encodedList;
+    }
+
+    /**
+     * @return the validFrom value of the credential, or null if absent or invalid.
+     */
+    public Instant validFrom() {
+        return validFrom;
+    }
+
+    /**
+     * @return the validUntil value of the credential, or null if absent or invalid.
+     */
+    public Instant validUntil() {
+        return validUntil;
+    }
+
+    /**
+     * @return the ttl value of the credentialSubject, or null if absent or invalid.
+     */
+    public Duration ttl() {
+        return ttl;
+    }
+
+    /**
+     * Binds the complete credential on first use.
+     *
+     * @return the BitstringStatusListCredential.
+     * @throws CredentialStatusNetworkException If the response body cannot be bound to a {@link VerifiableCredential}.
+     */
+    public VerifiableCredential credential() throws CredentialStatusNetworkException {
+        VerifiableCredential bound = credential;
+        if (bound == null) {
+            synchronized (this) {
+                bound = credential;
+                if (bound == null) {
+                    try {
+                        bound = credentialReader.readValue(content);
+                    } catch (IOException e) {
+                        logger.error(e.getMessage());
+                        throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+                    }
+                    credential = bound;
+                }
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Computes the digest on first use.
+     *
+     * @return the SHA-256 digest of the response body, or of the JSON serialization of a credential bound elsewhere.
+     */
+    public byte[] contentDigest() {
+        byte[] digest = contentDigest;
+        if (digest == null) {
+            byte[] bytes = content != null ? content : credential.toJson().getBytes(StandardCharsets.UTF_8);
+            try {
+                digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            } catch (NoSuchAlgorithmException e) {
+                //every Java platform implements SHA-256
+                throw new IllegalStateException(e);
+            }
+            contentDigest = digest;
+        }
+        return digest.clone();
+    }
+
+    /**
+     * @return the value of a scalar token, or null after skipping an object or an array.
+     */
+    private static Object scalar(final JsonParser parser, final JsonToken token) throws IOException {
+        return switch (token) {
+            case VALUE_STRING -> parser.getText();
+            case VALUE_NUMBER_INT -> parser.getLongValue();
+            case VALUE_NUMBER_FLOAT -> parser.getDoubleValue();
+            case START_OBJECT, START_ARRAY -> {
+                parser.skipChildren();
+                yield null;
+            }
+            default -> null;
+        };
+    }
+
+    private static String asString(final Object value) {
+        return value instanceof String string ? string : null;
+    }
+
+    private static Instant parseInstant(final String field, final Object value) {
+        if (value instanceof String valueStr) {
+            try {
+                return OffsetDateTime.parse(valueStr).toInstant();
+            } catch (DateTimeParseException e) {
+                logger.warn("Ignoring unparseable {} {}", field, valueStr);
+            }
+        }
+        return null;
+    }
+
+    private static Duration parseTtl(final Object ttl) {
+        if (ttl instanceof Number number) {
+            return Duration.ofMillis(number.longValue());
+        }
+        if (ttl instanceof String ttlStr) {
+            try {
+                return Duration.ofMillis(Long.parseLong(ttlStr));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring unparseable ttl {}", ttlStr);
+            }
+        }
+        return null;
+    }
+
+    private static final class CredentialSubject {
+        private String statusPurpose;
+        private String encodedList;
+        private Object ttl;
+    }
+}
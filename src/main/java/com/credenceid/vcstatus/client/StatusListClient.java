@@ -1,67 +1,629 @@
 package com.credenceid.vcstatus.client;
 
 import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.proof.StatusListProofVerification;
 import com.credenceid.vcstatus.util.Constants;
+import com.credenceid.vcstatus.util.StatusListLimits;
 import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
 
 
 /**
  * This class implements the HTTP client to fetch the BitstringStatuslistcredential from an statusListCredential WEB endpoint
  * Java HTTP client is used for implementation.
+ * <p>
+ * An instance is meant to be long-lived and shared: it holds a single {@link HttpClient}, so connections,
+ * TLS sessions and HTTP/2 streams are reused across fetches, and a single pre-configured {@link ObjectReader}.
+ * Responses are read with a streaming parser extracting only the fields needed to check statuses, see
+ * {@link ParsedStatusListCredential}; the complete credential is bound only when asked for.
+ * <p>
+ * Every request has a single deadline, covering the wait for a free slot, the response headers and the body, and the
+ * endpoints are isolated from each other: each host gets a bounded number of concurrent requests and a circuit breaker
+ * failing fast while it is down, and a failed URL is not requested again for a short while. Requests refused this way
+ * fail with the {@code STATUS_LIST_UNAVAILABLE_ERROR} title.
+ * Instances are thread-safe. The static methods delegate to a lazily created default instance.
  */
-public class StatusListClient {
+public class StatusListClient implements AutoCloseable {
     private static final Logger logger = LoggerFactory.getLogger(StatusListClient.class);
 
+    public static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    public static final Duration DEFAULT_REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    public static final int DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST = 32;
+    public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+    public static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+    public static final Duration DEFAULT_FAILURE_CACHE_TTL = Duration.ofSeconds(5);
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private static final int READ_CHUNK = 8 * 1024;
 
-    private StatusListClient() {
+    private final HttpClient httpClient;
+    private final ObjectReader credentialReader;
+    private final JsonFactory jsonFactory;
+    private final VerificationListener verificationListener;
+    private final StatusListLimits limits;
+    private final Duration requestTimeout;
+    private final EndpointGuard endpointGuard;
+    private final Duration staleIfError;
+    private final StatusListProofVerification proofVerification;
+
+    /**
+     * Creates a client with the default configuration.
+     */
+    public StatusListClient() {
+        this(builder());
+    }
+
+    private StatusListClient(final Builder builder) {
+        HttpClient.Builder httpClientBuilder = HttpClient.newBuilder()
+                .version(builder.version)
+                .connectTimeout(builder.connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (builder.executor != null) {
+            httpClientBuilder.executor(builder.executor);
+        }
+        this.httpClient = httpClientBuilder.build();
+        //objectMapper to deserialize json into VerifiableCredential object.
+        ObjectMapper objectMapper = builder.objectMapper != null ? builder.objectMapper : new ObjectMapper().registerModule(new JavaTimeModule());
+        this.credentialReader = objectMapper.readerFor(VerifiableCredential.class);
+        this.jsonFactory = objectMapper.getFactory();
+        this.verificationListener = builder.verificationListener;
+        this.limits = builder.limits;
+        this.requestTimeout = builder.requestTimeout;
+        this.endpointGuard = new EndpointGuard(builder.maxConcurrentRequestsPerHost, builder.failureThreshold, builder.openDuration, builder.failureCacheTtl);
+        this.staleIfError = builder.staleIfError;
+        this.proofVerification = builder.proofVerification;
     }
 
     /**
-     * Makes an HTTP call to statusListCredential WEB endpoint to return a BitstringStatusListCredential.
+     * @return a new {@link Builder} to configure a {@link StatusListClient}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return the shared client used by the static methods of this class.
+     */
+    public static StatusListClient getDefault() {
+        return DefaultClientHolder.INSTANCE;
+    }
+
+    /**
+     * Makes an HTTP call to statusListCredential WEB endpoint to return a BitstringStatusListCredential,
+     * using the default client.
      *
      * @param url statusListCredential from credentialStatus.
      * @return BitstringStatusListCredential
      * @throws CredentialStatusNetworkException If there is an issue during the HTTP call or if the response body is null or empty.
      */
     public static VerifiableCredential fetchStatusListCredential(final String url) throws CredentialStatusNetworkException {
+        return getDefault().fetch(url).credential();
+    }
+
+    /**
+     * Makes an HTTP call to statusListCredential WEB endpoint to return a BitstringStatusListCredential
+     * along with the caching information announced by the endpoint, using the default client.
+     *
+     * @param url statusListCredential from credentialStatus.
+     * @return {@link StatusListResponse} holding the BitstringStatusListCredential and its HTTP max-age.
+     * @throws CredentialStatusNetworkException If there is an issue during the HTTP call or if the response body is null or empty.
+     */
+    public static StatusListResponse fetchStatusList(final String url) throws CredentialStatusNetworkException {
+        return getDefault().fetch(url);
+    }
+
+    /**
+     * Makes an HTTP call to statusListCredential WEB endpoint to return a BitstringStatusListCredential
+     * along with the caching information announced by the endpoint.
+     *
+     * @param url statusListCredential from credentialStatus.
+     * @return {@link StatusListResponse} holding the BitstringStatusListCredential and its HTTP caching information.
+     * @throws CredentialStatusNetworkException If there is an issue during the HTTP call or if the response body is null or empty.
+     */
+    public StatusListResponse fetch(final String url) throws CredentialStatusNetworkException {
+        return fetch(url, null, null);
+    }
+
+    /**
+     * Makes a conditional HTTP call to statusListCredential WEB endpoint to revalidate a previously fetched
+     * BitstringStatusListCredential. The request carries {@code If-None-Match} and {@code If-Modified-Since}
+     * for the given validators, and a {@code 304 Not Modified} answer is returned as
+     * {@link StatusListResponse#isNotModified()} without any body to parse.
+     * Responses sent with {@code Content-Encoding: gzip} are decompressed while being parsed.
+     *
+     * @param url          statusListCredential from credentialStatus.
+     * @param etag         ETag of the previously fetched credential, or null.
+     * @param lastModified Last-Modified of the previously fetched credential, or null.
+     * @return {@link StatusListResponse} holding the BitstringStatusListCredential and its HTTP caching information.
+     * @throws CredentialStatusNetworkException If there is an issue during the HTTP call or if the response body is null or empty.
+     */
+    public StatusListResponse fetch(final String url, final String etag, final String lastModified) throws CredentialStatusNetworkException {
+        boolean timed = verificationListener != VerificationListener.NOOP;
+        long startNanos = timed ? System.nanoTime() : 0;
+        //a single deadline covers the wait for a slot, the response headers and the body
+        long deadlineNanos = System.nanoTime() + requestTimeout.toNanos();
+        CompletableFuture<Void> bodyDeadline = null;
+        int statusCode = -1;
+        CountingInputStream body = null;
+        EndpointGuard.Permit permit = null;
+        boolean succeeded = false;
+        boolean interrupted = false;
         try {
-            //objectMapper to deserialize json into StatusVerifiableResult object.
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
             logger.trace("Downloading Status List from {}", url);
-            HttpResponse<String> response;
-            try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build()) {
-                HttpRequest request = HttpRequest.newBuilder()
-                        .uri(URI.create(url))
-                        .build();
-                response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            }
-            VerifiableCredential bitStringStatusListCredential;
+            URI uri = URI.create(url);
+            permit = endpointGuard.enter(url, uri.getHost(), remaining(deadlineNanos));
+            HttpRequest.Builder requestBuilder = HttpRequest.newBuilder()
+                    .uri(uri)
+                    .timeout(remaining(deadlineNanos))
+                    .header("Accept-Encoding", "gzip");
+            if (etag != null) {
+                requestBuilder.header("If-None-Match", etag);
+            }
+            if (lastModified != null) {
+                requestBuilder.header("If-Modified-Since", lastModified);
+            }
+            HttpResponse<InputStream> response = httpClient.send(requestBuilder.build(), HttpResponse.BodyHandlers.ofInputStream());
             if (response == null || response.body() == null) {
                 logger.error("Response received from credential endpoint is null or empty");
                 throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
             }
-            bitStringStatusListCredential = objectMapper.readValue(response.body(), VerifiableCredential.class);
-            logger.debug("fetched successfully! {}", bitStringStatusListCredential);
-            return bitStringStatusListCredential;
+            statusCode = response.statusCode();
+            HttpHeaders headers = response.headers();
+            Duration maxAge = parseMaxAge(headers.firstValue("Cache-Control").orElse(null));
+            if (statusCode == HTTP_NOT_MODIFIED) {
+                response.body().close();
+                logger.debug("Status list {} not modified", url);
+                if (timed) {
+                    verificationListener.onFetch(url, statusCode, 0, System.nanoTime() - startNanos, true);
+                }
+                succeeded = true;
+                return StatusListResponse.notModified(maxAge, headers.firstValue("ETag").orElse(null));
+            }
+            if (statusCode < 200 || statusCode >= 300) {
+                response.body().close();
+                logger.error("Unexpected HTTP status {} received from credential endpoint {}", statusCode, url);
+                throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+            }
+            body = new CountingInputStream(response.body());
+            //HttpRequest.timeout only bounds the wait for the headers, a stalled body is closed when the deadline passes
+            InputStream responseBody = response.body();
+            bodyDeadline = new CompletableFuture<>();
+            bodyDeadline.orTimeout(remaining(deadlineNanos).toNanos(), TimeUnit.NANOSECONDS).whenComplete((ignored, e) -> {
+                if (e != null) {
+                    closeQuietly(responseBody);
+                }
+            });
+            byte[] content;
+            try (InputStream decodedBody = decodeContent(body, headers)) {
+                content = readBody(url, decodedBody, headers);
+            }
+            if (!bodyDeadline.complete(null)) {
+                throw new HttpTimeoutException("Response body not received in time");
+            }
+            long parseStartNanos = 0;
+            if (timed) {
+                parseStartNanos = System.nanoTime();
+                verificationListener.onFetch(url, statusCode, body.count, parseStartNanos - startNanos, true);
+                body.reported = true;
+            }
+            ParsedStatusListCredential bitStringStatusListCredential = parse(url, content, parseStartNanos);
+            logger.debug("fetched successfully! {} bytes from {}", content.length, url);
+            succeeded = true;
+            return new StatusListResponse(bitStringStatusListCredential, maxAge,
+                    headers.firstValue("ETag").orElse(null), headers.firstValue("Last-Modified").orElse(null));
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            interrupted = true;
+            logger.error(e.getMessage());
+            fetchFailed(url, statusCode, body, startNanos);
+            throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+        } catch (HttpTimeoutException e) {
+            logger.error("Request to {} did not complete within {}", url, requestTimeout);
+            fetchFailed(url, statusCode, body, startNanos);
+            throw new CredentialStatusNetworkException(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, Constants.STATUS_LIST_TIMEOUT_ERROR_DETAIL);
+        } catch (IOException | IllegalArgumentException e) {
+            fetchFailed(url, statusCode, body, startNanos);
+            if (bodyDeadline != null && bodyDeadline.isCompletedExceptionally()) {
+                logger.error("Request to {} did not complete within {}", url, requestTimeout);
+                throw new CredentialStatusNetworkException(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, Constants.STATUS_LIST_TIMEOUT_ERROR_DETAIL);
+            }
             logger.error(e.getMessage());
             throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+        } catch (CredentialStatusNetworkException e) {
+            fetchFailed(url, statusCode, body, startNanos);
+            throw e;
+        } finally {
+            if (bodyDeadline != null) {
+                //cancels the pending timeout
+                bodyDeadline.complete(null);
+            }
+            if (permit != null) {
+                if (interrupted) {
+                    endpointGuard.abandon(permit);
+                } else {
+                    //an answer other than 5xx or 429 shows the host is up, even if this list is broken
+                    endpointGuard.exit(url, permit, succeeded, statusCode > 0 && statusCode < 500 && statusCode != 429);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the listener receiving the timings of the verifications using this client, {@link VerificationListener#NOOP} if none.
+     */
+    public VerificationListener verificationListener() {
+        return verificationListener;
+    }
+
+    /**
+     * @return the time past its expiry during which a cached list is served when it cannot be fetched again,
+     * {@link Duration#ZERO} if failures are never hidden.
+     */
+    public Duration staleIfError() {
+        return staleIfError;
+    }
+
+    /**
+     * @return the proof verification stage applied to every newly fetched list, or null if proofs are not checked.
+     */
+    public StatusListProofVerification proofVerification() {
+        return proofVerification;
+    }
+
+    /**
+     * @return the size limits of the status lists fetched and decoded with this client.
+     */
+    public StatusListLimits limits() {
+        return limits;
+    }
+
+    /**
+     * @return the time left until the deadline of a request.
+     * @throws HttpTimeoutException If the deadline has passed.
+     */
+    private static Duration remaining(final long deadlineNanos) throws HttpTimeoutException {
+        long remainingNanos = deadlineNanos - System.nanoTime();
+        if (remainingNanos <= 0) {
+            throw new HttpTimeoutException("Request deadline passed");
+        }
+        return Duration.ofNanos(remainingNanos);
+    }
+
+    private static void closeQuietly(final InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            logger.debug("Closing a timed out response body failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the decoded response body, failing as soon as it grows past the response size limit.
+     * The output is sized once from Content-Length when the body is not content-encoded.
+     */
+    private byte[] readBody(final String url, final InputStream decodedBody, final HttpHeaders headers) throws IOException, CredentialStatusNetworkException {
+        int maxResponseBytes = limits.maxResponseBytes();
+        //Content-Length counts the encoded bytes, which only tell the decoded size without a content coding
+        long contentLength = headers.firstValue("Content-Encoding").isEmpty() ? headers.firstValueAsLong("Content-Length").orElse(-1) : -1;
+        if (contentLength > maxResponseBytes) {
+            throw responseSizeLimitExceeded(url);
+        }
+        byte[] content = new byte[contentLength >= 0 ? (int) contentLength : Math.min(READ_CHUNK, maxResponseBytes)];
+        int size = 0;
+        while (true) {
+            if (size == content.length) {
+                int next = decodedBody.read();
+                if (next < 0) {
+                    break;
+                }
+                if (size >= maxResponseBytes) {
+                    throw responseSizeLimitExceeded(url);
+                }
+                content = Arrays.copyOf(content, (int) Math.min(maxResponseBytes, Math.max(READ_CHUNK, 2L * size)));
+                content[size++] = (byte) next;
+            }
+            int read = decodedBody.read(content, size, content.length - size);
+            if (read < 0) {
+                break;
+            }
+            size += read;
+        }
+        return size == content.length ? content : Arrays.copyOf(content, size);
+    }
+
+    private CredentialStatusNetworkException responseSizeLimitExceeded(final String url) {
+        logger.error("Response from {} exceeds the limit of {} bytes", url, limits.maxResponseBytes());
+        return new CredentialStatusNetworkException(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, Constants.STATUS_LIST_RESPONSE_SIZE_LIMIT_ERROR_DETAIL);
+    }
+
+    /**
+     * Extracts the status fields of the BitstringStatusListCredential and reports the parse to the listener.
+     */
+    private ParsedStatusListCredential parse(final String url, final byte[] content, final long startNanos) throws CredentialStatusNetworkException {
+        try {
+            ParsedStatusListCredential bitStringStatusListCredential = ParsedStatusListCredential.parse(content, jsonFactory, credentialReader);
+            if (verificationListener != VerificationListener.NOOP) {
+                verificationListener.onParse(url, System.nanoTime() - startNanos, true);
+            }
+            return bitStringStatusListCredential;
         } catch (IOException e) {
             logger.error(e.getMessage());
+            if (verificationListener != VerificationListener.NOOP) {
+                verificationListener.onParse(url, System.nanoTime() - startNanos, false);
+            }
             throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
         }
     }
+
+    /**
+     * Reports a failed fetch to the listener, unless the failure happened after the fetch was reported.
+     */
+    private void fetchFailed(final String url, final int statusCode, final CountingInputStream body, final long startNanos) {
+        if (verificationListener != VerificationListener.NOOP && (body == null || !body.reported)) {
+            verificationListener.onFetch(url, statusCode, body != null ? body.count : 0, System.nanoTime() - startNanos, false);
+        }
+    }
+
+    /**
+     * Closes the underlying {@link HttpClient}. The default client is never closed.
+     */
+    @Override
+    public void close() {
+        if (this != DefaultClientHolder.INSTANCE) {
+            httpClient.close();
+        }
+    }
+
+    /**
+     * Wraps the response body into a decompressing stream when the endpoint used a gzip content coding.
+     */
+    private static InputStream decodeContent(final InputStream body, final HttpHeaders headers) throws IOException {
+        String contentEncoding = headers.firstValue("Content-Encoding").orElse("");
+        if (contentEncoding.equalsIgnoreCase("gzip") || contentEncoding.equalsIgnoreCase("x-gzip")) {
+            return new GZIPInputStream(body);
+        }
+        return body;
+    }
+
+    /**
+     * Extracts the freshness lifetime from an HTTP Cache-Control header value.
+     *
+     * @param cacheControl value of the Cache-Control header, may be null.
+     * @return the max-age directive, {@link Duration#ZERO} for no-store and no-cache, or null if absent or invalid.
+     */
+    static Duration parseMaxAge(final String cacheControl) {
+        if (cacheControl == null) {
+            return null;
+        }
+        Duration maxAge = null;
+        for (String directive : cacheControl.split(",")) {
+            String normalized = directive.trim().toLowerCase(Locale.ROOT);
+            if (normalized.equals("no-store") || normalized.equals("no-cache")) {
+                return Duration.ZERO;
+            }
+            if (normalized.startsWith("max-age=")) {
+                try {
+                    maxAge = Duration.ofSeconds(Long.parseLong(normalized.substring("max-age=".length()).replace("\"", "")));
+                } catch (NumberFormatException e) {
+                    logger.warn("Ignoring invalid Cache-Control directive {}", directive);
+                }
+            }
+        }
+        return maxAge;
+    }
+
+    /**
+     * Counts the bytes of the response body as received, before content decoding.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+        private boolean reported;
+
+        private CountingInputStream(final InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read >= 0) {
+                count++;
+            }
+            return read;
+        }
+
+        @Override
+        public int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(final long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+
+    private static final class DefaultClientHolder {
+        private static final StatusListClient INSTANCE = new StatusListClient();
+    }
+
+    /**
+     * Builder of {@link StatusListClient}.
+     * <p>
+     * Connections are kept alive and pooled by the JDK {@link HttpClient}; the idle timeout of pooled
+     * connections is governed by the {@code jdk.httpclient.keepalive.timeout} system property.
+     */
+    public static class Builder {
+        private Duration connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+        private HttpClient.Version version = HttpClient.Version.HTTP_2;
+        private Executor executor;
+        private ObjectMapper objectMapper;
+        private VerificationListener verificationListener = VerificationListener.NOOP;
+        private StatusListLimits limits = StatusListLimits.DEFAULT;
+        private Duration requestTimeout = DEFAULT_REQUEST_TIMEOUT;
+        private int maxConcurrentRequestsPerHost = DEFAULT_MAX_CONCURRENT_REQUESTS_PER_HOST;
+        private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+        private Duration openDuration = DEFAULT_OPEN_DURATION;
+        private Duration failureCacheTtl = DEFAULT_FAILURE_CACHE_TTL;
+        private Duration staleIfError = Duration.ZERO;
+        private StatusListProofVerification proofVerification;
+
+        private Builder() {
+        }
+
+        /**
+         * @param connectTimeout maximum time to establish a connection to the statusListCredential endpoint.
+         * @return this builder
+         */
+        public Builder connectTimeout(final Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+            return this;
+        }
+
+        /**
+         * @param version preferred HTTP version, HTTP/2 by default with fallback to HTTP/1.1.
+         * @return this builder
+         */
+        public Builder version(final HttpClient.Version version) {
+            this.version = version;
+            return this;
+        }
+
+        /**
+         * @param executor executor used by the {@link HttpClient} for asynchronous tasks, the JDK default if not set.
+         * @return this builder
+         */
+        public Builder executor(final Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param objectMapper mapper used to parse and, on demand, bind the BitstringStatusListCredential.
+         * @return this builder
+         */
+        public Builder objectMapper(final ObjectMapper objectMapper) {
+            this.objectMapper = objectMapper;
+            return this;
+        }
+
+        /**
+         * @param verificationListener listener receiving the timings of every stage of the verifications using the client.
+         * @return this builder
+         */
+        public Builder verificationListener(final VerificationListener verificationListener) {
+            this.verificationListener = verificationListener != null ? verificationListener : VerificationListener.NOOP;
+            return this;
+        }
+
+        /**
+         * @param limits maximum sizes of the response bodies and of the status lists they carry.
+         * @return this builder
+         */
+        public Builder limits(final StatusListLimits limits) {
+            this.limits = limits != null ? limits : StatusListLimits.DEFAULT;
+            return this;
+        }
+
+        /**
+         * @param requestTimeout maximum time to get the complete response to a request, including the wait for a free slot of its
+         *                       host and the read of the body.
+         * @return this builder
+         */
+        public Builder requestTimeout(final Duration requestTimeout) {
+            this.requestTimeout = Objects.requireNonNull(requestTimeout);
+            return this;
+        }
+
+        /**
+         * @param maxConcurrentRequestsPerHost maximum number of requests in flight to a single host.
+         * @return this builder
+         */
+        public Builder maxConcurrentRequestsPerHost(final int maxConcurrentRequestsPerHost) {
+            if (maxConcurrentRequestsPerHost <= 0) {
+                throw new IllegalArgumentException("maxConcurrentRequestsPerHost must be greater than zero");
+            }
+            this.maxConcurrentRequestsPerHost = maxConcurrentRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * @param failureThreshold number of consecutive failures of a host opening its circuit.
+         * @param openDuration     time during which the requests to a host with an open circuit fail fast.
+         * @return this builder
+         */
+        public Builder circuitBreaker(final int failureThreshold, final Duration openDuration) {
+            if (failureThreshold <= 0) {
+                throw new IllegalArgumentException("failureThreshold must be greater than zero");
+            }
+            this.failureThreshold = failureThreshold;
+            this.openDuration = Objects.requireNonNull(openDuration);
+            return this;
+        }
+
+        /**
+         * @param failureCacheTtl time during which a URL that failed is not requested again, {@link Duration#ZERO} to disable.
+         * @return this builder
+         */
+        public Builder failureCacheTtl(final Duration failureCacheTtl) {
+            this.failureCacheTtl = Objects.requireNonNull(failureCacheTtl);
+            return this;
+        }
+
+        /**
+         * @param staleIfError time past its expiry during which a cached list, still within its validUntil, is served
+         *                     when it cannot be fetched again, {@link Duration#ZERO} to report the failure.
+         * @return this builder
+         */
+        public Builder staleIfError(final Duration staleIfError) {
+            this.staleIfError = Objects.requireNonNull(staleIfError);
+            return this;
+        }
+
+        /**
+         * @param proofVerification stage checking the proof of every newly fetched list before it is decoded, or null
+         *                          to trust the lists as fetched.
+         * @return this builder
+         */
+        public Builder proofVerification(final StatusListProofVerification proofVerification) {
+            this.proofVerification = proofVerification;
+            return this;
+        }
+
+        /**
+         * @return a new {@link StatusListClient}
+         */
+        public StatusListClient build() {
+            return new StatusListClient(this);
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package com.credenceid.vcstatus.client;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+
+import java.time.Duration;
+
+/**
+ * A record representing a BitstringStatusListCredential fetched from a statusListCredential WEB endpoint,
+ * together with the HTTP caching information returned by the endpoint.
+ *
+ * @param parsedCredential The status fields of the fetched BitstringStatusListCredential, or null if the endpoint
+ *                         answered 304 Not Modified.
+ * @param maxAge           The freshness lifetime announced through the HTTP Cache-Control header,
+ *                         {@link Duration#ZERO} if the response must not be cached, or null if none was announced.
+ * @param etag             The ETag validator returned by the endpoint, or null.
+ * @param lastModified     The Last-Modified validator returned by the endpoint, or null.
+ */
+public record StatusListResponse(ParsedStatusListCredential parsedCredential, Duration maxAge, String etag, String lastModified) {
+
+    /**
+     * @param credential   The fetched BitstringStatusListCredential.
+     * @param maxAge       The freshness lifetime announced through the HTTP Cache-Control header, or null.
+     * @param etag         The ETag validator returned by the endpoint, or null.
+     * @param lastModified The Last-Modified validator returned by the endpoint, or null.
+     */
+    public StatusListResponse(VerifiableCredential credential, Duration maxAge, String etag, String lastModified) {
+        this(credential != null ? ParsedStatusListCredential.of(credential) : null, maxAge, etag, lastModified);
+    }
+
+    /**
+     * @param credential The fetched BitstringStatusListCredential.
+     * @param maxAge     The freshness lifetime announced through the HTTP Cache-Control header, or null.
+     */
+    public StatusListResponse(VerifiableCredential credential, Duration maxAge) {
+        this(credential, maxAge, null, null);
+    }
+
+    /**
+     * @param maxAge The freshness lifetime announced with the 304 Not Modified response, or null.
+     * @param etag   The ETag validator returned with the 304 Not Modified response, or null.
+     * @return a response telling that the previously fetched BitstringStatusListCredential is still current.
+     */
+    public static StatusListResponse notModified(Duration maxAge, String etag) {
+        return new StatusListResponse((ParsedStatusListCredential) null, maxAge, etag, null);
+    }
+
+    /**
+     * Binds the complete BitstringStatusListCredential on first use, see {@link ParsedStatusListCredential#credential()}.
+     *
+     * @return the fetched BitstringStatusListCredential, or null if the endpoint answered 304 Not Modified.
+     * @throws CredentialStatusNetworkException If the response body cannot be bound to a {@link VerifiableCredential}.
+     */
+    public VerifiableCredential credential() throws CredentialStatusNetworkException {
+        return parsedCredential != null ? parsedCredential.credential() : null;
+    }
+
+    /**
+     * @return boolean whether the endpoint answered 304 Not Modified to a conditional request.
+     */
+    public boolean isNotModified() {
+        return parsedCredential == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.credenceid.vcstatus.dto;
+
+import java.util.List;
+
+/**
+ * A record representing the outcome of the status verification of one credential within a batch.
+ *
+ * @param sequence                  The position of the credential in the batch, starting at zero.
+ * @param statusVerificationResults The results of the credential's status entries, or null if the verification failed.
+ * @param error                     The CredentialStatusProcessingException or CredentialStatusNetworkException
+ *                                  that made the verification fail, or null if it succeeded.
+ */
+public record BatchVerificationResult(long sequence, List<StatusVerificationResult> statusVerificationResults, Exception error) {
+
+    /**
+     * @return boolean whether the status of the credential could be verified.
+     */
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
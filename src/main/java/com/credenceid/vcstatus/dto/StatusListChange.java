@@ -0,0 +1,12 @@
+package com.credenceid.vcstatus.dto;
+
+/**
+ * A record representing the statuses changed by a new version of a watched status list.
+ *
+ * @param statusListCredential The URL of the BitstringStatusListCredential.
+ * @param statusPurpose        The statusPurpose value of the credentialSubject of the new version.
+ * @param statusSize           The size of each status in bits, as given when subscribing.
+ * @param changedIndices       The statusListIndex of every status that changed, in ascending order.
+ */
+public record StatusListChange(String statusListCredential, String statusPurpose, int statusSize, int[] changedIndices) {
+}
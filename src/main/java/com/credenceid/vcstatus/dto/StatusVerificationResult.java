@@ -4,7 +4,17 @@ package com.credenceid.vcstatus.dto;
  * A record representing the result of a status verification.
  *
  * @param statusPurpose The purpose of the status verification.
- * @param status        The status result (true if valid, false otherwise).
+ * @param status        The status result (true if the status value is not zero, false otherwise).
+ * @param statusValue   The value of the status entry, between 0 and {@code 2^statusSize - 1}.
+ * @param statusMessage The message of the statusMessage array matching the status value, or null.
  */
-public record StatusVerificationResult(String statusPurpose, boolean status) {
+public record StatusVerificationResult(String statusPurpose, boolean status, int statusValue, String statusMessage) {
+
+    /**
+     * @param statusPurpose The purpose of the status verification.
+     * @param status        The status result of a single-bit status entry.
+     */
+    public StatusVerificationResult(String statusPurpose, boolean status) {
+        this(statusPurpose, status, status ? 1 : 0, null);
+    }
 }
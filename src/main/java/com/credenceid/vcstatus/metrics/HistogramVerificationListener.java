@@ -0,0 +1,164 @@
+package com.credenceid.vcstatus.metrics;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory {@link VerificationListener} keeping a {@link LatencyHistogram} per {@link VerificationStage}
+ * along with failure, byte and cache counters. Meant to be polled and exported by the application,
+ * or inspected when investigating latency.
+ */
+public class HistogramVerificationListener implements VerificationListener {
+    private final Map<VerificationStage, LatencyHistogram> histograms = new EnumMap<>(VerificationStage.class);
+    private final Map<VerificationStage, LongAdder> failures = new EnumMap<>(VerificationStage.class);
+    private final LongAdder fetchedBytes = new LongAdder();
+    private final LongAdder inflatedBytes = new LongAdder();
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder notModified = new LongAdder();
+    private final LongAdder modified = new LongAdder();
+    private final LongAdder cachedProofs = new LongAdder();
+
+    public HistogramVerificationListener() {
+        for (VerificationStage stage : VerificationStage.values()) {
+            histograms.put(stage, new LatencyHistogram());
+            failures.put(stage, new LongAdder());
+        }
+    }
+
+    @Override
+    public void onFetch(final String statusListCredential, final int statusCode, final long bytes, final long durationNanos, final boolean success) {
+        record(VerificationStage.FETCH, durationNanos, success);
+        if (bytes > 0) {
+            fetchedBytes.add(bytes);
+        }
+    }
+
+    @Override
+    public void onParse(final String statusListCredential, final long durationNanos, final boolean success) {
+        record(VerificationStage.PARSE, durationNanos, success);
+    }
+
+    @Override
+    public void onDecode(final String statusListCredential, final long durationNanos, final boolean success) {
+        record(VerificationStage.DECODE, durationNanos, success);
+    }
+
+    @Override
+    public void onInflate(final String statusListCredential, final long bytes, final long durationNanos, final boolean success) {
+        record(VerificationStage.INFLATE, durationNanos, success);
+        if (bytes > 0) {
+            inflatedBytes.add(bytes);
+        }
+    }
+
+    @Override
+    public void onLookup(final String statusListCredential, final int statusSize, final long durationNanos, final boolean success) {
+        record(VerificationStage.LOOKUP, durationNanos, success);
+    }
+
+    @Override
+    public void onProof(final String statusListCredential, final long durationNanos, final boolean cached, final boolean success) {
+        record(VerificationStage.PROOF, durationNanos, success);
+        if (cached) {
+            cachedProofs.increment();
+        }
+    }
+
+    @Override
+    public void onCacheHit(final String statusListCredential) {
+        cacheHits.increment();
+    }
+
+    @Override
+    public void onCacheMiss(final String statusListCredential) {
+        cacheMisses.increment();
+    }
+
+    @Override
+    public void onRevalidate(final String statusListCredential, final boolean notModified) {
+        (notModified ? this.notModified : modified).increment();
+    }
+
+    private void record(final VerificationStage stage, final long durationNanos, final boolean success) {
+        histograms.get(stage).record(durationNanos);
+        if (!success) {
+            failures.get(stage).increment();
+        }
+    }
+
+    /**
+     * @param stage the verification stage.
+     * @return the histogram of the durations of the stage, successful or not.
+     */
+    public LatencyHistogram histogram(final VerificationStage stage) {
+        return histograms.get(stage);
+    }
+
+    /**
+     * @param stage the verification stage.
+     * @return the number of failures of the stage.
+     */
+    public long failureCount(final VerificationStage stage) {
+        return failures.get(stage).sum();
+    }
+
+    /**
+     * @return the number of response body bytes received, before content decoding.
+     */
+    public long fetchedBytes() {
+        return fetchedBytes.sum();
+    }
+
+    /**
+     * @return the number of bitstring bytes decompressed.
+     */
+    public long inflatedBytes() {
+        return inflatedBytes.sum();
+    }
+
+    /**
+     * @return the number of status lists served from the cache.
+     */
+    public long cacheHitCount() {
+        return cacheHits.sum();
+    }
+
+    /**
+     * @return the number of status lists absent from the cache or expired.
+     */
+    public long cacheMissCount() {
+        return cacheMisses.sum();
+    }
+
+    /**
+     * @param notModified true for revalidations answered with {@code 304 Not Modified}, false for those returning a new list.
+     * @return the number of conditional revalidations with the given outcome.
+     */
+    public long revalidationCount(final boolean notModified) {
+        return notModified ? this.notModified.sum() : modified.sum();
+    }
+
+    /**
+     * @return the number of proofs whose result was reused from an earlier verification of the same list version.
+     */
+    public long cachedProofCount() {
+        return cachedProofs.sum();
+    }
+
+    /**
+     * Clears every histogram and counter.
+     */
+    public void reset() {
+        histograms.values().forEach(LatencyHistogram::reset);
+        failures.values().forEach(LongAdder::reset);
+        fetchedBytes.reset();
+        inflatedBytes.reset();
+        cacheHits.reset();
+        cacheMisses.reset();
+        notModified.reset();
+        modified.reset();
+        cachedProofs.reset();
+    }
+}
@@ -0,0 +1,94 @@
+package com.credenceid.vcstatus.metrics;
+
+/**
+ * Receives the timings and outcomes of each stage of a status verification.
+ * <p>
+ * A listener is registered on the {@link com.credenceid.vcstatus.client.StatusListClient} and covers every verifier
+ * using that client: fetch and parse of the BitstringStatusListCredential, Base64URL decode and GZIP inflate of the
+ * encodedList, lookup of each status, proof verification, and the cache events. All methods have empty default implementations, so an
+ * implementation only overrides the events it cares about. Durations are in nanoseconds.
+ * <p>
+ * Listeners are called synchronously on the verifying threads, possibly concurrently: they must be thread-safe,
+ * fast and must not throw. When no listener is registered, {@link #NOOP} is used and no timing is taken.
+ */
+public interface VerificationListener {
+
+    /**
+     * Listener ignoring every event.
+     */
+    VerificationListener NOOP = new VerificationListener() {
+    };
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param statusCode           HTTP status code of the response, or -1 if no response was received.
+     * @param bytes                number of bytes of the response body as received, before content decoding.
+     * @param durationNanos        time to send the request and read the response body.
+     * @param success              whether the response can be used.
+     */
+    default void onFetch(final String statusListCredential, final int statusCode, final long bytes, final long durationNanos, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param durationNanos        time to deserialize the BitstringStatusListCredential.
+     * @param success              whether the credential could be deserialized.
+     */
+    default void onParse(final String statusListCredential, final long durationNanos, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param durationNanos        time to validate and Base64URL-decode the encodedList.
+     * @param success              whether the encodedList could be decoded.
+     */
+    default void onDecode(final String statusListCredential, final long durationNanos, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param bytes                length of the decompressed bitstring, or -1 on failure.
+     * @param durationNanos        time to decompress the bitstring.
+     * @param success              whether the bitstring could be decompressed.
+     */
+    default void onInflate(final String statusListCredential, final long bytes, final long durationNanos, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param statusSize           size of the status in bits.
+     * @param durationNanos        time to extract the status from the decoded list.
+     * @param success              whether the index was within the list.
+     */
+    default void onLookup(final String statusListCredential, final int statusSize, final long durationNanos, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL.
+     * @param durationNanos        time to verify the proof of the BitstringStatusListCredential, or to find the result of
+     *                             an earlier verification of the same version.
+     * @param cached               whether the result of an earlier verification was reused.
+     * @param success              whether the proof is valid.
+     */
+    default void onProof(final String statusListCredential, final long durationNanos, final boolean cached, final boolean success) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL served from the cache.
+     */
+    default void onCacheHit(final String statusListCredential) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL absent from the cache or expired.
+     */
+    default void onCacheMiss(final String statusListCredential) {
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL revalidated with a conditional request.
+     * @param notModified          whether the endpoint answered {@code 304 Not Modified}.
+     */
+    default void onRevalidate(final String statusListCredential, final boolean notModified) {
+    }
+}
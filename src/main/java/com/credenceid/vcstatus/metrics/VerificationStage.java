@@ -0,0 +1,13 @@
+package com.credenceid.vcstatus.metrics;
+
+/**
+ * Timed stages of a status verification.
+ */
+public enum VerificationStage {
+    FETCH,
+    PARSE,
+    DECODE,
+    INFLATE,
+    LOOKUP,
+    PROOF
+}
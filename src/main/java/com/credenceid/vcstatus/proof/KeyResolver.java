@@ -0,0 +1,20 @@
+package com.credenceid.vcstatus.proof;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+
+import java.security.PublicKey;
+
+/**
+ * Resolves the verificationMethod of a proof into the public key checking its signature, for example by dereferencing
+ * a DID document or reading a local key store.
+ */
+@FunctionalInterface
+public interface KeyResolver {
+
+    /**
+     * @param verificationMethod the verificationMethod of the proof.
+     * @return the public key, or null if the verificationMethod is unknown, in which case a rejected proof is not cached.
+     * @throws CredentialStatusNetworkException If the key cannot be retrieved, in which case no result is cached.
+     */
+    PublicKey resolve(String verificationMethod) throws CredentialStatusNetworkException;
+}
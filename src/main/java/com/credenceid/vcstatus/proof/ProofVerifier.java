@@ -0,0 +1,22 @@
+package com.credenceid.vcstatus.proof;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+
+/**
+ * Checks the proof of a BitstringStatusListCredential, such as a Data Integrity proof.
+ * <p>
+ * Implementations hold the cryptography for the proof types they support and get the keys from the given
+ * {@link KeyResolver}. They are called at most once per version of a list by {@link StatusListProofVerification}.
+ */
+@FunctionalInterface
+public interface ProofVerifier {
+
+    /**
+     * @param credential  the BitstringStatusListCredential with its proof.
+     * @param keyResolver resolver of the verificationMethod of the proof.
+     * @return boolean whether the proof is present and valid.
+     * @throws CredentialStatusNetworkException If a key cannot be retrieved, in which case no result is cached.
+     */
+    boolean verify(VerifiableCredential credential, KeyResolver keyResolver) throws CredentialStatusNetworkException;
+}
@@ -0,0 +1,138 @@
+package com.credenceid.vcstatus.proof;
+
+import com.credenceid.vcstatus.client.ParsedStatusListCredential;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.security.PublicKey;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Proof verification stage of the fetched BitstringStatusListCredentials, registered on the
+ * {@link com.credenceid.vcstatus.client.StatusListClient}.
+ * <p>
+ * The proof is checked by a pluggable {@link ProofVerifier} with keys from a pluggable {@link KeyResolver}, and the
+ * outcome is remembered by the SHA-256 digest of the fetched credential: each version of a list is verified once,
+ * however many credentials reference it and however often it is fetched again unchanged. The results of the most
+ * recently verified versions are kept, up to a maximum number. Only definitive results are remembered: a failure to
+ * retrieve a key, or a rejection while a key could not be resolved, is checked again on the next fetch.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class StatusListProofVerification {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListProofVerification.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+    private final ProofVerifier proofVerifier;
+    private final KeyResolver keyResolver;
+    private final Map<String, Boolean> results;
+    private final LongAdder verificationCount = new LongAdder();
+    private final LongAdder cachedCount = new LongAdder();
+
+    /**
+     * Creates a stage remembering the results of up to {@link #DEFAULT_MAX_ENTRIES} list versions.
+     *
+     * @param proofVerifier verifier of the proofs.
+     * @param keyResolver   resolver of the keys of the proofs.
+     */
+    public StatusListProofVerification(final ProofVerifier proofVerifier, final KeyResolver keyResolver) {
+        this(proofVerifier, keyResolver, DEFAULT_MAX_ENTRIES);
+    }
+
+    /**
+     * @param proofVerifier verifier of the proofs.
+     * @param keyResolver   resolver of the keys of the proofs.
+     * @param maxEntries    maximum number of list versions whose result is remembered.
+     */
+    public StatusListProofVerification(final ProofVerifier proofVerifier, final KeyResolver keyResolver, final int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than zero");
+        }
+        this.proofVerifier = Objects.requireNonNull(proofVerifier);
+        this.keyResolver = Objects.requireNonNull(keyResolver);
+        this.results = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Checks the proof of a fetched credential, or reuses the result of an earlier check of the same content.
+     *
+     * @param statusListCredential statusListCredential URL the credential was fetched from.
+     * @param credential           the fetched BitstringStatusListCredential.
+     * @param verificationListener listener receiving the duration and outcome of the check.
+     * @throws CredentialStatusProcessingException If the proof is missing or invalid.
+     * @throws CredentialStatusNetworkException    If the credential cannot be bound or a key cannot be retrieved.
+     */
+    public void verify(final String statusListCredential, final ParsedStatusListCredential credential,
+                       final VerificationListener verificationListener) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        long startNanos = System.nanoTime();
+        String digest = HexFormat.of().formatHex(credential.contentDigest());
+        Boolean valid;
+        synchronized (results) {
+            valid = results.get(digest);
+        }
+        boolean cached = valid != null;
+        if (cached) {
+            cachedCount.increment();
+        } else {
+            AtomicBoolean unresolvedKey = new AtomicBoolean();
+            try {
+                valid = proofVerifier.verify(credential.credential(), verificationMethod -> {
+                    PublicKey publicKey = keyResolver.resolve(verificationMethod);
+                    if (publicKey == null) {
+                        unresolvedKey.set(true);
+                    }
+                    return publicKey;
+                });
+            } catch (CredentialStatusNetworkException e) {
+                verificationListener.onProof(statusListCredential, System.nanoTime() - startNanos, false, false);
+                throw e;
+            } catch (RuntimeException e) {
+                //an unexpected failure of the verifier may not happen again, so it is not remembered
+                logger.error("Proof verifier failed on status list {}: {}", statusListCredential, e.getMessage());
+                verificationListener.onProof(statusListCredential, System.nanoTime() - startNanos, false, false);
+                throw new CredentialStatusProcessingException(Constants.STATUS_LIST_PROOF_ERROR_TITLE, Constants.STATUS_LIST_PROOF_ERROR_DETAIL);
+            }
+            verificationCount.increment();
+            //a key the resolver could not find may be published later, so such a rejection is not definitive
+            if (valid || !unresolvedKey.get()) {
+                synchronized (results) {
+                    results.put(digest, valid);
+                }
+            }
+        }
+        verificationListener.onProof(statusListCredential, System.nanoTime() - startNanos, cached, valid);
+        if (!valid) {
+            logger.error("{} {}", Constants.STATUS_LIST_PROOF_ERROR_DETAIL, statusListCredential);
+            throw new CredentialStatusProcessingException(Constants.STATUS_LIST_PROOF_ERROR_TITLE, Constants.STATUS_LIST_PROOF_ERROR_DETAIL);
+        }
+    }
+
+    /**
+     * @return the number of proofs checked by the {@link ProofVerifier}.
+     */
+    public long verificationCount() {
+        return verificationCount.sum();
+    }
+
+    /**
+     * @return the number of checks answered with the result of an earlier verification of the same content.
+     */
+    public long cachedCount() {
+        return cachedCount.sum();
+    }
+}
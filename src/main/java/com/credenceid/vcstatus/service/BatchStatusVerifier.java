@@ -0,0 +1,178 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.dto.BatchVerificationResult;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Verifies the status of large batches of credentials.
+ * <p>
+ * Credentials are consumed in windows of {@code windowSize}. For each window the work is planned by
+ * statusListCredential: every status list not yet resolved in the batch is fetched and decoded once, in parallel,
+ * and the credentials of the window are then answered against the decoded lists across all cores.
+ * A failing credential or status list only fails the credentials it concerns. A decoded list is reused by the next
+ * windows until it expires, while a failed list is resolved again in the next window that needs it.
+ */
+class BatchStatusVerifier {
+    private static final Logger logger = LoggerFactory.getLogger(BatchStatusVerifier.class);
+
+    private final StatusListResolver statusListResolver;
+    private final Executor fetchExecutor;
+    private final int windowSize;
+
+    /**
+     * @param statusListResolver resolver of the decoded status lists.
+     * @param fetchExecutor      executor running the status list fetches.
+     * @param windowSize         number of credentials planned and answered together.
+     */
+    BatchStatusVerifier(final StatusListResolver statusListResolver, final Executor fetchExecutor, final int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be greater than zero");
+        }
+        this.statusListResolver = statusListResolver;
+        this.fetchExecutor = fetchExecutor;
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Verifies every credential of the iterator and hands the results to the consumer in the order of the credentials.
+     *
+     * @param credentials iterator over the lists of CredentialStatus of the credentials.
+     * @param consumer    receiver of one {@link BatchVerificationResult} per credential, called on the calling thread.
+     */
+    void verify(final Iterator<List<CredentialStatus>> credentials, final Consumer<BatchVerificationResult> consumer) {
+        Map<String, Resolution<CachedStatusList>> statusLists = new HashMap<>();
+        Map<String, Instant> reusableUntil = new HashMap<>();
+        long sequence = 0;
+        List<List<CredentialStatus>> window = new ArrayList<>(windowSize);
+        while (credentials.hasNext()) {
+            window.add(credentials.next());
+            if (window.size() == windowSize || !credentials.hasNext()) {
+                Instant now = statusListResolver.now();
+                //a failure may be transient and a list may have expired since it was resolved
+                statusLists.entrySet().removeIf(statusList -> statusList.getValue().error() != null
+                        || !now.isBefore(reusableUntil.getOrDefault(statusList.getKey(), Instant.MAX)));
+                reusableUntil.keySet().retainAll(statusLists.keySet());
+                verifyWindow(window, sequence, statusLists, reusableUntil, consumer);
+                sequence += window.size();
+                window.clear();
+            }
+        }
+        logger.debug("Verified {} credentials against {} status lists", sequence, statusLists.size());
+    }
+
+    private void verifyWindow(final List<List<CredentialStatus>> window, final long firstSequence, final Map<String, Resolution<CachedStatusList>> statusLists,
+                              final Map<String, Instant> reusableUntil, final Consumer<BatchVerificationResult> consumer) {
+        //plan: extract the entries of every credential and collect the status lists not resolved yet
+        @SuppressWarnings("unchecked")
+        Resolution<List<StatusEntry>>[] statusEntries = new Resolution[window.size()];
+        Map<String, CompletableFuture<CachedStatusList>> pendingStatusLists = new HashMap<>();
+        for (int i = 0; i < window.size(); i++) {
+            try {
+                List<StatusEntry> entries = StatusVerifierService.toStatusEntries(window.get(i));
+                statusEntries[i] = new Resolution<>(entries, null);
+                for (StatusEntry statusEntry : entries) {
+                    String statusListCredential = statusEntry.statusListCredential();
+                    if (!statusLists.containsKey(statusListCredential)) {
+                        pendingStatusLists.computeIfAbsent(statusListCredential, this::resolveAsync);
+                    }
+                }
+            } catch (CredentialStatusProcessingException | RuntimeException e) {
+                statusEntries[i] = new Resolution<>(null, e);
+            }
+        }
+        //fetch: every new status list once, failures are kept and reported per credential
+        Instant resolvedAt = statusListResolver.now();
+        pendingStatusLists.forEach((statusListCredential, pending) -> {
+            try {
+                CachedStatusList statusList = pending.join();
+                statusLists.put(statusListCredential, new Resolution<>(statusList, null));
+                Instant expiresAt = expiresAt(statusList, resolvedAt);
+                if (expiresAt != null) {
+                    reusableUntil.put(statusListCredential, expiresAt);
+                }
+            } catch (CompletionException e) {
+                statusLists.put(statusListCredential, new Resolution<>(null, toException(e.getCause())));
+            }
+        });
+        //answer: look up every credential against the decoded lists across all cores
+        BatchVerificationResult[] results = new BatchVerificationResult[window.size()];
+        IntStream.range(0, window.size()).parallel()
+                .forEach(i -> results[i] = answer(firstSequence + i, statusEntries[i], statusLists));
+        for (BatchVerificationResult result : results) {
+            consumer.accept(result);
+        }
+    }
+
+    private CompletableFuture<CachedStatusList> resolveAsync(final String statusListCredential) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return statusListResolver.resolve(statusListCredential);
+            } catch (CredentialStatusProcessingException | CredentialStatusNetworkException e) {
+                throw new CompletionException(e);
+            }
+        }, fetchExecutor);
+    }
+
+    private BatchVerificationResult answer(final long sequence, final Resolution<List<StatusEntry>> statusEntries, final Map<String, Resolution<CachedStatusList>> statusLists) {
+        if (statusEntries.error() != null) {
+            return new BatchVerificationResult(sequence, null, statusEntries.error());
+        }
+        List<StatusEntry> entries = statusEntries.value();
+        Map<String, CachedStatusList> credentialStatusLists = new HashMap<>();
+        for (StatusEntry statusEntry : entries) {
+            Resolution<CachedStatusList> statusList = statusLists.get(statusEntry.statusListCredential());
+            if (statusList.error() != null) {
+                return new BatchVerificationResult(sequence, null, statusList.error());
+            }
+            credentialStatusLists.put(statusEntry.statusListCredential(), statusList.value());
+        }
+        try {
+            return new BatchVerificationResult(sequence, StatusVerifierService.toResults(entries, credentialStatusLists, statusListResolver.verificationListener()), null);
+        } catch (CredentialStatusProcessingException | RuntimeException e) {
+            return new BatchVerificationResult(sequence, null, e);
+        }
+    }
+
+    /**
+     * @return the expiry of a cached list, or for a list resolved without a cache the earliest of its validUntil and
+     * ttl, null if it has neither.
+     */
+    private static Instant expiresAt(final CachedStatusList statusList, final Instant resolvedAt) {
+        if (statusList.expiresAt() != null) {
+            return statusList.expiresAt();
+        }
+        Instant expiresAt = statusList.validUntil();
+        if (statusList.ttl() != null) {
+            Instant ttlExpiry = resolvedAt.plus(statusList.ttl());
+            expiresAt = expiresAt == null || ttlExpiry.isBefore(expiresAt) ? ttlExpiry : expiresAt;
+        }
+        return expiresAt;
+    }
+
+    private static Exception toException(final Throwable throwable) {
+        return throwable instanceof Exception exception ? exception : new CompletionException(throwable);
+    }
+
+    /**
+     * Either the value planned or resolved for a credential or a status list, or the failure that prevented it.
+     */
+    private record Resolution<T>(T value, Exception error) {
+    }
+}
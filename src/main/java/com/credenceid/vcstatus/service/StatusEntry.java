@@ -0,0 +1,70 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A record representing the values of a bitstringStatusListEntry needed to check a status.
+ *
+ * @param statusPurpose        statusPurpose value of the credentialStatus.
+ * @param statusListIndex      statusListIndex value of the credentialStatus.
+ * @param statusListCredential statusListCredential URL of the credentialStatus.
+ * @param statusSize           size of the status entry in bits, 1 if absent.
+ * @param statusMessages       messages of the statusMessage array by status value, empty if absent.
+ */
+record StatusEntry(String statusPurpose, int statusListIndex, String statusListCredential, int statusSize,
+                   Map<Integer, String> statusMessages) {
+    private static final Logger logger = LoggerFactory.getLogger(StatusEntry.class);
+
+    /**
+     * @param credentialStatus CredentialStatus of the Verifiable Credential.
+     * @return the values of the bitstringStatusListEntry.
+     * @throws CredentialStatusProcessingException If the statusMessage array holds an invalid status.
+     */
+    static StatusEntry of(final CredentialStatus credentialStatus) throws CredentialStatusProcessingException {
+        Map<String, Object> credentialStatusMap = credentialStatus.getJsonObject();
+        String statusPurpose = (String) credentialStatusMap.get("statusPurpose");
+        int statusListIndex = Integer.parseInt(String.valueOf(credentialStatusMap.get("statusListIndex")));
+        String statusListCredential = (String) credentialStatusMap.get("statusListCredential");
+        int statusSize = credentialStatusMap.get("statusSize") != null ? Integer.parseInt(String.valueOf(credentialStatusMap.get("statusSize"))) : 1;  //indicates the size of the status entry in bits
+        return new StatusEntry(statusPurpose, statusListIndex, statusListCredential, statusSize,
+                statusMessages(credentialStatusMap.get("statusMessage")));
+    }
+
+    /**
+     * Maps the entries of a statusMessage array, such as {@code {"status": "0x2", "message": "pending_review"}},
+     * by their status value.
+     *
+     * @param statusMessage value of the statusMessage property, may be null.
+     * @return the messages by status value.
+     * @throws CredentialStatusProcessingException If the status of an entry is not an integer.
+     */
+    private static Map<Integer, String> statusMessages(final Object statusMessage) throws CredentialStatusProcessingException {
+        if (!(statusMessage instanceof List<?> statusMessageList) || statusMessageList.isEmpty()) {
+            return Map.of();
+        }
+        Map<Integer, String> statusMessages = new HashMap<>();
+        for (Object entry : statusMessageList) {
+            if (entry instanceof Map<?, ?> entryMap && entryMap.get("status") != null && entryMap.get("message") != null) {
+                String status = String.valueOf(entryMap.get("status"));
+                int statusValue;
+                try {
+                    statusValue = status.startsWith("0x") || status.startsWith("0X")
+                            ? Integer.parseUnsignedInt(status.substring(2), 16) : Integer.parseInt(status);
+                } catch (NumberFormatException e) {
+                    logger.error("{}: {}", Constants.STATUS_MESSAGE_ERROR_DETAIL, status);
+                    throw new CredentialStatusProcessingException(Constants.STATUS_MESSAGE_ERROR_TITLE, Constants.STATUS_MESSAGE_ERROR_DETAIL);
+                }
+                statusMessages.put(statusValue, String.valueOf(entryMap.get("message")));
+            }
+        }
+        return Map.copyOf(statusMessages);
+    }
+}
@@ -0,0 +1,168 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.dto.StatusListChange;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.credenceid.vcstatus.statuslist.StatusListDiff;
+import com.credenceid.vcstatus.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Publishes the statuses changed by every new version of the watched status lists.
+ * <p>
+ * Each time a watched list is fetched and its content is replaced, the new version is diffed against the previous one
+ * with {@link StatusListDiff} and the changed indices are handed to the subscribers of the list and purpose.
+ * A {@code 304 Not Modified} revalidation publishes nothing. The first version seen after subscribing, unless already
+ * cached, only becomes the baseline of later diffs.
+ * <p>
+ * The feed observes the fetches made by verifications; a {@link StatusListRefreshScheduler} keeps fetching watched
+ * lists, which never go cold. Subscribers are called on the fetching thread, one version at a time per list, and
+ * should hand the change off quickly.
+ */
+public class StatusListChangeFeed {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListChangeFeed.class);
+
+    private final StatusListCache statusListCache;
+    private final Map<String, WatchedStatusList> watchedStatusLists = new ConcurrentHashMap<>();
+
+    /**
+     * @param statusListCache cache providing the baseline of newly watched lists, or null.
+     */
+    StatusListChangeFeed(final StatusListCache statusListCache) {
+        this.statusListCache = statusListCache;
+    }
+
+    /**
+     * Subscribes to the changes of a status list.
+     *
+     * @param statusListCredential statusListCredential URL of the list to watch.
+     * @param statusPurpose        statusPurpose the list must have, compared ignoring case, or null for any purpose.
+     * @param statusSize           size of each status in bits, setting the granularity of the changed indices.
+     * @param subscriber           receiver of the changes.
+     * @return the subscription, to close to stop receiving changes.
+     * @throws CredentialStatusProcessingException If the statusSize is invalid.
+     */
+    public Subscription subscribe(final String statusListCredential, final String statusPurpose, final int statusSize,
+                                  final Consumer<StatusListChange> subscriber) throws CredentialStatusProcessingException {
+        Objects.requireNonNull(statusListCredential, "statusListCredential");
+        Objects.requireNonNull(subscriber, "subscriber");
+        if (statusSize <= 0 || statusSize > StatusList.MAX_STATUS_SIZE) {
+            logger.error(Constants.STATUS_SIZE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_SIZE_ERROR_TITLE, Constants.STATUS_SIZE_ERROR_DETAIL);
+        }
+        Subscription subscription = new Subscription(statusListCredential, statusPurpose, statusSize, subscriber);
+        watchedStatusLists.compute(statusListCredential, (url, watchedStatusList) -> {
+            if (watchedStatusList == null) {
+                CachedStatusList cachedStatusList = statusListCache != null ? statusListCache.peek(url) : null;
+                watchedStatusList = new WatchedStatusList(cachedStatusList != null ? cachedStatusList.statusList() : null);
+            }
+            watchedStatusList.subscriptions.add(subscription);
+            return watchedStatusList;
+        });
+        logger.debug("Watching status list {} for {} changes", statusListCredential, statusPurpose != null ? statusPurpose : "any");
+        return subscription;
+    }
+
+    /**
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return boolean whether the list has subscribers.
+     */
+    public boolean isWatched(final String statusListCredential) {
+        return watchedStatusLists.containsKey(statusListCredential);
+    }
+
+    /**
+     * Diffs a newly resolved version of a list against the previous one and notifies the subscribers of the changes.
+     *
+     * @param cachedStatusList the list just fetched or revalidated.
+     */
+    void publish(final CachedStatusList cachedStatusList) {
+        WatchedStatusList watchedStatusList = watchedStatusLists.get(cachedStatusList.statusListCredential());
+        if (watchedStatusList == null) {
+            return;
+        }
+        synchronized (watchedStatusList) {
+            StatusList previous = watchedStatusList.baseline;
+            StatusList current = cachedStatusList.statusList();
+            if (previous == current) {
+                return;
+            }
+            watchedStatusList.baseline = current;
+            if (previous == null) {
+                return;
+            }
+            StatusListDiff diff = StatusListDiff.between(previous, current);
+            if (diff.isEmpty()) {
+                return;
+            }
+            logger.debug("Status list {} changed in {} bits", cachedStatusList.statusListCredential(), diff.changedBitCount());
+            Map<Integer, int[]> changedIndices = new HashMap<>();
+            for (Subscription subscription : watchedStatusList.subscriptions) {
+                if (subscription.statusPurpose != null && !subscription.statusPurpose.equalsIgnoreCase(cachedStatusList.statusPurpose())) {
+                    continue;
+                }
+                try {
+                    int[] indices = changedIndices.get(subscription.statusSize);
+                    if (indices == null) {
+                        indices = diff.changedIndices(subscription.statusSize);
+                        changedIndices.put(subscription.statusSize, indices);
+                    }
+                    subscription.subscriber.accept(new StatusListChange(cachedStatusList.statusListCredential(),
+                            cachedStatusList.statusPurpose(), subscription.statusSize, indices.clone()));
+                } catch (CredentialStatusProcessingException | RuntimeException e) {
+                    logger.warn("Subscriber of status list {} failed: {}", cachedStatusList.statusListCredential(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static final class WatchedStatusList {
+        private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+        //guarded by the instance lock
+        private StatusList baseline;
+
+        private WatchedStatusList(final StatusList baseline) {
+            this.baseline = baseline;
+        }
+    }
+
+    /**
+     * A subscription to the changes of a status list, returned by {@link #subscribe(String, String, int, Consumer)}.
+     */
+    public final class Subscription implements AutoCloseable {
+        private final String statusListCredential;
+        private final String statusPurpose;
+        private final int statusSize;
+        private final Consumer<StatusListChange> subscriber;
+
+        private Subscription(final String statusListCredential, final String statusPurpose, final int statusSize,
+                             final Consumer<StatusListChange> subscriber) {
+            this.statusListCredential = statusListCredential;
+            this.statusPurpose = statusPurpose;
+            this.statusSize = statusSize;
+            this.subscriber = subscriber;
+        }
+
+        /**
+         * Stops the delivery of changes. The list is no longer watched once its last subscription is closed.
+         */
+        @Override
+        public void close() {
+            watchedStatusLists.computeIfPresent(statusListCredential, (url, watchedStatusList) -> {
+                watchedStatusList.subscriptions.remove(this);
+                return watchedStatusList.subscriptions.isEmpty() ? null : watchedStatusList;
+            });
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Refreshes hot status lists before they expire, so that verifications are answered from the cache in steady state.
+ * <p>
+ * Every list resolved by the {@link StatusVerifierService} is tracked as hot. Its refresh is scheduled once
+ * {@link #REFRESH_AHEAD_RATIO} of its freshness lifetime has elapsed, brought forward by a random jitter of up to
+ * {@link #JITTER_RATIO} of the lifetime so that lists fetched together are not refreshed together. Refreshes run on
+ * a bounded pool of workers and share the single-flight fetch and the conditional revalidation of the verifier.
+ * Lists watched through the {@link StatusListChangeFeed} are refreshed as long as they have subscribers.
+ * <p>
+ * An expired list, which is still within its {@code validUntil}, is served for at most the configured maximum
+ * staleness while its refresh is in flight. Lists that have not been resolved for the configured cold period, and are
+ * not watched, are no longer refreshed and left to expire.
+ * <p>
+ * Instances are created with {@link StatusVerifierService#refreshAhead()} and must be closed to stop the workers.
+ */
+public class StatusListRefreshScheduler implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListRefreshScheduler.class);
+
+    public static final double REFRESH_AHEAD_RATIO = 0.8;
+    public static final double JITTER_RATIO = 0.1;
+    public static final int DEFAULT_WORKERS = 2;
+    public static final Duration DEFAULT_COLD_AFTER = Duration.ofMinutes(10);
+    public static final Duration DEFAULT_MAX_STALE = Duration.ofMinutes(1);
+    private static final Duration MIN_REFRESH_DELAY = Duration.ofSeconds(1);
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private final StatusListResolver statusListResolver;
+    private final StatusListCache statusListCache;
+    private final Duration coldAfter;
+    private final Duration maxStale;
+    private final ScheduledThreadPoolExecutor executor;
+    private final Map<String, HotStatusList> hotStatusLists = new ConcurrentHashMap<>();
+    private final LongAdder refreshCount = new LongAdder();
+    private final LongAdder failureCount = new LongAdder();
+
+    private StatusListRefreshScheduler(final Builder builder) {
+        this.statusListResolver = builder.statusListResolver;
+        this.statusListCache = builder.statusListResolver.statusListCache();
+        this.coldAfter = builder.coldAfter;
+        this.maxStale = builder.maxStale;
+        this.executor = new ScheduledThreadPoolExecutor(builder.workers, runnable -> {
+            Thread thread = new Thread(runnable, "status-list-refresh-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.setRemoveOnCancelPolicy(true);
+        this.statusListResolver.attach(this);
+    }
+
+    /**
+     * Marks a list already scheduled for refresh as hot again, without looking the list up.
+     *
+     * @param statusListCredential statusListCredential URL of a list whose statuses were answered from a cache of results.
+     * @return whether the list is scheduled, false if it must be recorded with {@link #recordAccess(CachedStatusList)}.
+     */
+    boolean recordAccess(final String statusListCredential) {
+        HotStatusList hotStatusList = hotStatusLists.get(statusListCredential);
+        if (hotStatusList == null) {
+            return false;
+        }
+        hotStatusList.lastAccess = statusListCache.now();
+        return true;
+    }
+
+    /**
+     * Marks the given list as hot and schedules its refresh ahead of its expiry, unless already scheduled.
+     *
+     * @param cachedStatusList the list returned by a resolution.
+     */
+    void recordAccess(final CachedStatusList cachedStatusList) {
+        if (cachedStatusList.expiresAt() == null || executor.isShutdown()) {
+            return;
+        }
+        String statusListCredential = cachedStatusList.statusListCredential();
+        HotStatusList hotStatusList = hotStatusLists.computeIfAbsent(statusListCredential, url -> new HotStatusList());
+        hotStatusList.lastAccess = statusListCache.now();
+        synchronized (hotStatusList) {
+            if (!hotStatusList.refreshing && !Objects.equals(hotStatusList.scheduledExpiry, cachedStatusList.expiresAt())) {
+                hotStatusList.scheduledExpiry = cachedStatusList.expiresAt();
+                schedule(statusListCredential, hotStatusList, refreshDelay(cachedStatusList));
+            }
+        }
+    }
+
+    /**
+     * Decides whether an expired list may be served while it is being refreshed, and starts its refresh if so.
+     *
+     * @param cachedStatusList the list held by the cache, may be null.
+     * @return the expired list if it can be served, or null if the caller must wait for a fresh list.
+     */
+    CachedStatusList serveStale(final CachedStatusList cachedStatusList) {
+        if (cachedStatusList == null || executor.isShutdown()) {
+            return null;
+        }
+        Instant now = statusListCache.now();
+        if (!cachedStatusList.isExpired(now)
+                || !now.isBefore(cachedStatusList.expiresAt().plus(maxStale))
+                || (cachedStatusList.validUntil() != null && !now.isBefore(cachedStatusList.validUntil()))) {
+            return null;
+        }
+        String statusListCredential = cachedStatusList.statusListCredential();
+        HotStatusList hotStatusList = hotStatusLists.computeIfAbsent(statusListCredential, url -> new HotStatusList());
+        hotStatusList.lastAccess = now;
+        synchronized (hotStatusList) {
+            if (!hotStatusList.refreshing) {
+                logger.debug("Serving expired status list {} while refreshing it", statusListCredential);
+                hotStatusList.scheduledExpiry = cachedStatusList.expiresAt();
+                schedule(statusListCredential, hotStatusList, Duration.ZERO);
+            }
+        }
+        return cachedStatusList;
+    }
+
+    /**
+     * @return the number of lists currently tracked as hot.
+     */
+    public int hotCount() {
+        return hotStatusLists.size();
+    }
+
+    /**
+     * @return the number of successful background refreshes.
+     */
+    public long refreshCount() {
+        return refreshCount.sum();
+    }
+
+    /**
+     * @return the number of failed background refreshes.
+     */
+    public long failureCount() {
+        return failureCount.sum();
+    }
+
+    /**
+     * Stops the workers and detaches the scheduler from its verifier, which then resolves expired lists synchronously again.
+     */
+    @Override
+    public void close() {
+        statusListResolver.detach(this);
+        executor.shutdownNow();
+        hotStatusLists.clear();
+    }
+
+    /**
+     * Must be called while holding the lock of the hot list.
+     */
+    private void schedule(final String statusListCredential, final HotStatusList hotStatusList, final Duration delay) {
+        if (hotStatusList.future != null) {
+            hotStatusList.future.cancel(false);
+        }
+        try {
+            hotStatusList.future = executor.schedule(() -> refresh(statusListCredential, hotStatusList), delay.toMillis(), TimeUnit.MILLISECONDS);
+            hotStatusList.refreshing = delay.isZero();
+            logger.trace("Refresh of status list {} scheduled in {}", statusListCredential, delay);
+        } catch (RejectedExecutionException e) {
+            logger.trace("Not scheduling refresh of status list {}, the scheduler is closed", statusListCredential);
+        }
+    }
+
+    private void refresh(final String statusListCredential, final HotStatusList hotStatusList) {
+        synchronized (hotStatusList) {
+            hotStatusList.refreshing = true;
+        }
+        Instant lastAccess = hotStatusList.lastAccess;
+        if ((lastAccess == null || !statusListCache.now().isBefore(lastAccess.plus(coldAfter)))
+                && !statusListResolver.changeFeed().isWatched(statusListCredential)) {
+            logger.debug("Status list {} went cold, no longer refreshing it", statusListCredential);
+            hotStatusLists.remove(statusListCredential, hotStatusList);
+            return;
+        }
+        try {
+            CachedStatusList refreshed = statusListResolver.refresh(statusListCredential);
+            refreshCount.increment();
+            synchronized (hotStatusList) {
+                hotStatusList.refreshing = false;
+                hotStatusList.scheduledExpiry = refreshed.expiresAt();
+                if (refreshed.expiresAt() != null) {
+                    schedule(statusListCredential, hotStatusList, refreshDelay(refreshed));
+                }
+            }
+        } catch (Exception e) {
+            failureCount.increment();
+            logger.warn("Background refresh of status list {} failed: {}", statusListCredential, e.getMessage());
+            synchronized (hotStatusList) {
+                hotStatusList.refreshing = false;
+                schedule(statusListCredential, hotStatusList, jitter(RETRY_DELAY, RETRY_DELAY.toMillis()));
+            }
+        }
+    }
+
+    /**
+     * @return the delay until the refresh of the list, between 70% and 80% of its freshness lifetime.
+     */
+    private Duration refreshDelay(final CachedStatusList cachedStatusList) {
+        Instant now = statusListCache.now();
+        long lifetimeMillis = Math.max(0, Duration.between(cachedStatusList.fetchedAt(), cachedStatusList.expiresAt()).toMillis());
+        Instant refreshAt = cachedStatusList.fetchedAt().plusMillis((long) (lifetimeMillis * REFRESH_AHEAD_RATIO));
+        Duration delay = Duration.between(now, refreshAt);
+        return jitter(delay.compareTo(MIN_REFRESH_DELAY) < 0 ? MIN_REFRESH_DELAY : delay, (long) (lifetimeMillis * JITTER_RATIO));
+    }
+
+    private static Duration jitter(final Duration delay, final long maxJitterMillis) {
+        long jitterMillis = maxJitterMillis > 0 ? ThreadLocalRandom.current().nextLong(maxJitterMillis) : 0;
+        return delay.minusMillis(jitterMillis).compareTo(MIN_REFRESH_DELAY) < 0 ? MIN_REFRESH_DELAY : delay.minusMillis(jitterMillis);
+    }
+
+    private static final class HotStatusList {
+        private volatile Instant lastAccess;
+        //guarded by the instance lock
+        private Instant scheduledExpiry;
+        private ScheduledFuture<?> future;
+        private boolean refreshing;
+    }
+
+    /**
+     * Builder of {@link StatusListRefreshScheduler}, obtained from {@link StatusVerifierService#refreshAhead()}.
+     */
+    public static class Builder {
+        private final StatusListResolver statusListResolver;
+        private int workers = DEFAULT_WORKERS;
+        private Duration coldAfter = DEFAULT_COLD_AFTER;
+        private Duration maxStale = DEFAULT_MAX_STALE;
+
+        Builder(final StatusListResolver statusListResolver) {
+            this.statusListResolver = statusListResolver;
+        }
+
+        /**
+         * @param workers maximum number of lists refreshed concurrently.
+         * @return this builder
+         */
+        public Builder workers(final int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("workers must be greater than zero");
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * @param coldAfter period without resolution after which a list is no longer refreshed.
+         * @return this builder
+         */
+        public Builder coldAfter(final Duration coldAfter) {
+            this.coldAfter = Objects.requireNonNull(coldAfter);
+            return this;
+        }
+
+        /**
+         * @param maxStale maximum time past its expiry during which a list is served while being refreshed,
+         *                 {@link Duration#ZERO} to always wait for a fresh list.
+         * @return this builder
+         */
+        public Builder maxStale(final Duration maxStale) {
+            this.maxStale = Objects.requireNonNull(maxStale);
+            return this;
+        }
+
+        /**
+         * @return a started {@link StatusListRefreshScheduler}, taking over from any scheduler previously started for the same verifier.
+         */
+        public StatusListRefreshScheduler start() {
+            return new StatusListRefreshScheduler(this);
+        }
+    }
+}
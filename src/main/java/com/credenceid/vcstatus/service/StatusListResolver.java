@@ -0,0 +1,314 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.ParsedStatusListCredential;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.client.StatusListResponse;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.proof.StatusListProofVerification;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.credenceid.vcstatus.util.Constants;
+import com.credenceid.vcstatus.util.StatusListLimits;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static com.credenceid.vcstatus.util.Utils.decodeStatusList;
+
+/**
+ * Resolves statusListCredential URLs into decoded status lists.
+ * <p>
+ * A list is served from the {@link StatusListCache} when present and fresh. Otherwise it is revalidated, or fetched
+ * and decoded, and concurrent resolutions of the same URL are coalesced so that a single download and decode is
+ * shared by every waiting caller. When a {@link StatusListRefreshScheduler} is attached, resolutions mark lists as
+ * hot and an expired list may be served while the scheduler refreshes it. Every newly fetched version is published to
+ * the {@link StatusListChangeFeed}, once its proof has been verified when the client requires it. When the client allows
+ * it, an expired list is served if it cannot be fetched again.
+ */
+class StatusListResolver {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListResolver.class);
+
+    private final StatusListClient statusListClient;
+    private final StatusListCache statusListCache;
+    private final VerificationListener verificationListener;
+    private final StatusListLimits limits;
+    private final StatusListChangeFeed changeFeed;
+    private final Duration staleIfError;
+    private final StatusListProofVerification proofVerification;
+    private final Map<String, CompletableFuture<CachedStatusList>> inFlight = new ConcurrentHashMap<>();
+    private volatile StatusListRefreshScheduler refreshScheduler;
+
+    /**
+     * @param statusListClient client used to fetch the BitstringStatusListCredential.
+     * @param statusListCache  cache of decoded status lists, or null to fetch and decode the list on every resolution.
+     */
+    StatusListResolver(final StatusListClient statusListClient, final StatusListCache statusListCache) {
+        this.statusListClient = statusListClient;
+        this.statusListCache = statusListCache;
+        //a mocked or subclassed client may not provide a listener or limits
+        this.verificationListener = Objects.requireNonNullElse(statusListClient.verificationListener(), VerificationListener.NOOP);
+        this.limits = Objects.requireNonNullElse(statusListClient.limits(), StatusListLimits.DEFAULT);
+        this.changeFeed = new StatusListChangeFeed(statusListCache);
+        this.staleIfError = Objects.requireNonNullElse(statusListClient.staleIfError(), Duration.ZERO);
+        this.proofVerification = statusListClient.proofVerification();
+    }
+
+    /**
+     * Returns the decoded status list of the given URL from the cache, or fetches, decodes and caches it.
+     * If another thread is already fetching the same URL, waits for its result instead.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the decoded status list.
+     * @throws CredentialStatusProcessingException If the encodedList of the BitstringStatusListCredential is invalid.
+     * @throws CredentialStatusNetworkException    If an error occurs during HTTP call
+     */
+    CachedStatusList resolve(final String statusListCredential) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        StatusListRefreshScheduler scheduler = refreshScheduler;
+        CachedStatusList staleStatusList = null;
+        if (statusListCache != null) {
+            //an expired list is looked at before get, which would evict it when it cannot be revalidated
+            staleStatusList = scheduler != null || !staleIfError.isZero() ? statusListCache.peek(statusListCredential) : null;
+            CachedStatusList cachedStatusList = scheduler != null ? scheduler.serveStale(staleStatusList) : null;
+            if (cachedStatusList == null) {
+                cachedStatusList = statusListCache.get(statusListCredential);
+            }
+            if (cachedStatusList != null) {
+                logger.trace("Using cached status list {}", statusListCredential);
+                verificationListener.onCacheHit(statusListCredential);
+                if (scheduler != null) {
+                    scheduler.recordAccess(cachedStatusList);
+                }
+                return cachedStatusList;
+            }
+        }
+        if (statusListCache != null) {
+            verificationListener.onCacheMiss(statusListCredential);
+        }
+        CachedStatusList cachedStatusList;
+        try {
+            cachedStatusList = refresh(statusListCredential);
+        } catch (CredentialStatusNetworkException e) {
+            if (!canServeOnError(staleStatusList)) {
+                throw e;
+            }
+            logger.warn("Serving expired status list {} after a failed fetch: {}", statusListCredential, e.getTitle());
+            return staleStatusList;
+        }
+        if (scheduler != null) {
+            scheduler.recordAccess(cachedStatusList);
+        }
+        return cachedStatusList;
+    }
+
+    /**
+     * Fetches or revalidates the status list of the given URL whether or not the cached copy is still fresh.
+     * If another thread is already fetching the same URL, waits for its result instead.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the decoded status list.
+     * @throws CredentialStatusProcessingException If the encodedList of the BitstringStatusListCredential is invalid.
+     * @throws CredentialStatusNetworkException    If an error occurs during HTTP call
+     */
+    CachedStatusList refresh(final String statusListCredential) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        CompletableFuture<CachedStatusList> pending = new CompletableFuture<>();
+        CompletableFuture<CachedStatusList> leader = inFlight.putIfAbsent(statusListCredential, pending);
+        if (leader != null) {
+            logger.trace("Waiting for in-flight fetch of status list {}", statusListCredential);
+            return await(leader);
+        }
+        try {
+            CachedStatusList cachedStatusList = load(statusListCredential);
+            pending.complete(cachedStatusList);
+            return cachedStatusList;
+        } catch (CredentialStatusProcessingException | CredentialStatusNetworkException | RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(statusListCredential, pending);
+        }
+    }
+
+    /**
+     * @return the listener of the client, receiving the timings of the verification stages.
+     */
+    VerificationListener verificationListener() {
+        return verificationListener;
+    }
+
+    /**
+     * Records a list whose statuses were answered from the {@link StatusResultCache} as a cache hit and, when a
+     * {@link StatusListRefreshScheduler} is attached, as an access keeping the list hot.
+     *
+     * @param statusListCredential statusListCredential URL of the list.
+     */
+    void recordCachedResult(final String statusListCredential) {
+        verificationListener.onCacheHit(statusListCredential);
+        statusListCache.recordHit(statusListCredential);
+        StatusListRefreshScheduler scheduler = refreshScheduler;
+        if (scheduler != null && !scheduler.recordAccess(statusListCredential)) {
+            CachedStatusList cachedStatusList = statusListCache.peek(statusListCredential);
+            if (cachedStatusList != null) {
+                scheduler.recordAccess(cachedStatusList);
+            }
+        }
+    }
+
+    /**
+     * @return the current instant of the cache clock, or of the system clock without a cache.
+     */
+    Instant now() {
+        return statusListCache != null ? statusListCache.now() : Instant.now();
+    }
+
+    /**
+     * @return the feed publishing the changes of every new version of the watched lists.
+     */
+    StatusListChangeFeed changeFeed() {
+        return changeFeed;
+    }
+
+    /**
+     * @return the cache of decoded status lists, or null.
+     */
+    StatusListCache statusListCache() {
+        return statusListCache;
+    }
+
+    /**
+     * @param refreshScheduler scheduler notified of every resolution and allowed to serve stale lists.
+     */
+    synchronized void attach(final StatusListRefreshScheduler refreshScheduler) {
+        this.refreshScheduler = refreshScheduler;
+    }
+
+    /**
+     * @param refreshScheduler scheduler to detach, ignored if another one has been attached since.
+     */
+    synchronized void detach(final StatusListRefreshScheduler refreshScheduler) {
+        if (this.refreshScheduler == refreshScheduler) {
+            this.refreshScheduler = null;
+        }
+    }
+
+    /**
+     * Fetches and decodes the status list of the given URL and stores it in the cache.
+     * When the cache still holds an expired copy with HTTP validators, the list is revalidated with a conditional
+     * request instead, and a {@code 304 Not Modified} answer renews the copy without downloading or decoding it. A copy
+     * past its {@code validUntil} is never renewed.
+     *
+     * @param statusListCredential statusListCredential URL from credentialStatus.
+     * @return the decoded status list.
+     * @throws CredentialStatusProcessingException If the encodedList of the BitstringStatusListCredential is invalid.
+     * @throws CredentialStatusNetworkException    If an error occurs during HTTP call
+     */
+    private CachedStatusList load(final String statusListCredential) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        CachedStatusList staleStatusList = statusListCache != null ? statusListCache.peek(statusListCredential) : null;
+        //a copy past its validUntil cannot be renewed, whatever the server answers: the list is downloaded again
+        if (staleStatusList != null && staleStatusList.validUntil() != null && !statusListCache.now().isBefore(staleStatusList.validUntil())) {
+            logger.debug("Status list {} is past its validUntil {}, fetching it again", statusListCredential, staleStatusList.validUntil());
+            staleStatusList = null;
+        }
+        StatusListResponse statusListResponse;
+        if (staleStatusList != null && staleStatusList.hasValidators()) {
+            logger.trace("Revalidating status list {}", statusListCredential);
+            statusListResponse = statusListClient.fetch(statusListCredential, staleStatusList.etag(), staleStatusList.lastModified());
+            verificationListener.onRevalidate(statusListCredential, statusListResponse.isNotModified());
+        } else {
+            statusListResponse = statusListClient.fetch(statusListCredential);
+        }
+        if (statusListResponse.isNotModified()) {
+            if (staleStatusList == null) {
+                logger.error("Status list {} reported as not modified without a previous copy", statusListCredential);
+                throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+            }
+            Instant revalidatedAt = statusListCache.now();
+            CachedStatusList renewedStatusList = staleStatusList.renew(revalidatedAt,
+                    statusListCache.computeExpiry(staleStatusList.validUntil(), staleStatusList.ttl(), statusListResponse.maxAge(), revalidatedAt),
+                    statusListResponse.etag());
+            statusListCache.put(renewedStatusList);
+            return renewedStatusList;
+        }
+        ParsedStatusListCredential bitStringStatusListCredential = statusListResponse.parsedCredential();
+        if (proofVerification != null) {
+            proofVerification.verify(statusListCredential, bitStringStatusListCredential, verificationListener);
+        }
+        String statusPurpose = bitStringStatusListCredential.statusPurpose();
+        //encodedList
+        StatusList statusList = StatusList.wrap(decodeStatusList(bitStringStatusListCredential.encodedList(), statusListCredential, verificationListener, limits));
+        Instant validUntil = bitStringStatusListCredential.validUntil();
+        Duration ttl = bitStringStatusListCredential.ttl();
+        if (statusListCache == null) {
+            CachedStatusList uncachedStatusList = new CachedStatusList(statusListCredential, statusPurpose, statusList, null, null, validUntil, ttl, null, null);
+            changeFeed.publish(uncachedStatusList);
+            return uncachedStatusList;
+        }
+        Instant fetchedAt = statusListCache.now();
+        //the cache may hold the list in off-heap memory
+        CachedStatusList cachedStatusList = statusListCache.put(new CachedStatusList(statusListCredential, statusPurpose, statusList,
+                fetchedAt, statusListCache.computeExpiry(validUntil, ttl, statusListResponse.maxAge(), fetchedAt), validUntil, ttl,
+                statusListResponse.etag(), statusListResponse.lastModified()));
+        changeFeed.publish(cachedStatusList);
+        return cachedStatusList;
+    }
+
+    /**
+     * @param staleStatusList the expired list held by the cache before the failed fetch, may be null.
+     * @return boolean whether the list is within the staleIfError period of the client and its validUntil.
+     */
+    private boolean canServeOnError(final CachedStatusList staleStatusList) {
+        if (staleStatusList == null || staleIfError.isZero() || staleStatusList.expiresAt() == null) {
+            return false;
+        }
+        Instant now = statusListCache.now();
+        return now.isBefore(staleStatusList.expiresAt().plus(staleIfError))
+                && (staleStatusList.validUntil() == null || now.isBefore(staleStatusList.validUntil()));
+    }
+
+    /**
+     * Waits for the fetch started by another thread and rethrows its failure unchanged.
+     */
+    private static CachedStatusList await(final CompletableFuture<CachedStatusList> leader) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.error(e.getMessage());
+            throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+        } catch (ExecutionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    /**
+     * Rethrows the checked exceptions of the verification pipeline and unchecked exceptions as they are.
+     *
+     * @param cause the failure of an asynchronous fetch.
+     * @return never returns normally, declared so that callers can write {@code throw rethrow(cause)}.
+     */
+    static CredentialStatusNetworkException rethrow(final Throwable cause) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        if (cause instanceof CredentialStatusProcessingException processingException) {
+            throw processingException;
+        }
+        if (cause instanceof CredentialStatusNetworkException networkException) {
+            throw networkException;
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        logger.error(cause.getMessage());
+        return new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+    }
+}
@@ -0,0 +1,146 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.StatusListCache;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache of the status values found for {@code (statusListCredential, statusListIndex, statusSize, statusPurpose)}
+ * tuples, answering credentials verified over and over without resolving their status list.
+ * <p>
+ * The cache is a fixed array of slots addressed by a 64-bit hash of the tuple, read and written without locks: a tuple
+ * replaces whatever occupied its slot, so the most recently verified tuples win. Each result remembers the
+ * {@link StatusListCache#version(String)} of its list when it was found and is only reused while that version is
+ * unchanged, the list has not expired and the time to live of the result has not elapsed.
+ * <p>
+ * Instances are thread-safe and registered with
+ * {@link StatusVerifierService#StatusVerifierService(com.credenceid.vcstatus.client.StatusListClient, StatusListCache, StatusResultCache)}.
+ */
+public final class StatusResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 16 * 1024;
+    public static final Duration DEFAULT_TTL = Duration.ofSeconds(30);
+
+    private final AtomicReferenceArray<Result> slots;
+    private final int mask;
+    private final Duration ttl;
+    private final long ttlNanos;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a cache of {@link #DEFAULT_MAX_ENTRIES} results kept for at most {@link #DEFAULT_TTL}.
+     */
+    public StatusResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    /**
+     * @param maxEntries number of results held, rounded up to a power of two.
+     * @param ttl        maximum time a result is reused, even if its list has not changed.
+     */
+    public StatusResultCache(final int maxEntries, final Duration ttl) {
+        if (maxEntries <= 0 || maxEntries > 1 << 30) {
+            throw new IllegalArgumentException("maxEntries must be between 1 and 2^30");
+        }
+        if (ttl == null || ttl.isNegative()) {
+            throw new IllegalArgumentException("ttl must not be null or negative");
+        }
+        int capacity = maxEntries == 1 ? 1 : Integer.highestOneBit(maxEntries - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.ttl = ttl;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * @param statusEntry entry of the Verifiable Credential.
+     * @param version     current version of the status list of the entry.
+     * @param nowNanos    current {@link System#nanoTime()}.
+     * @return the status value found earlier for the entry, or -1 if there is no usable result.
+     */
+    int get(final StatusEntry statusEntry, final long version, final long nowNanos) {
+        long key = key(statusEntry);
+        Result result = slots.get(slot(key));
+        if (result != null && result.key == key && result.version == version && nowNanos - result.expiresAtNanos < 0
+                && result.matches(statusEntry)) {
+            hitCount.increment();
+            return result.statusValue;
+        }
+        missCount.increment();
+        return -1;
+    }
+
+    /**
+     * @param statusEntry   entry of the Verifiable Credential.
+     * @param version       version of the status list the value was read from.
+     * @param statusValue   status value found for the entry.
+     * @param listRemaining time until the status list expires.
+     * @param nowNanos      current {@link System#nanoTime()}.
+     */
+    void put(final StatusEntry statusEntry, final long version, final int statusValue, final Duration listRemaining, final long nowNanos) {
+        long lifetimeNanos = listRemaining.compareTo(ttl) < 0 ? listRemaining.toNanos() : ttlNanos;
+        if (lifetimeNanos <= 0) {
+            return;
+        }
+        long key = key(statusEntry);
+        slots.set(slot(key), new Result(key, statusEntry.statusListCredential(), statusEntry.statusListIndex(), statusEntry.statusSize(),
+                statusEntry.statusPurpose(), version, statusValue, nowNanos + lifetimeNanos));
+    }
+
+    /**
+     * Removes every result.
+     */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+
+    /**
+     * @return the number of results the cache can hold.
+     */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * @return the number of entries answered from the cache.
+     */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * @return the number of entries without a usable result.
+     */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    private static long key(final StatusEntry statusEntry) {
+        long key = (long) statusEntry.statusListCredential().hashCode() << 32 ^ statusEntry.statusListIndex();
+        key = key * 0x9E3779B97F4A7C15L + statusEntry.statusSize();
+        key = key * 0x9E3779B97F4A7C15L + (statusEntry.statusPurpose() != null ? statusEntry.statusPurpose().hashCode() : 0);
+        //murmur3 finalizer
+        key = (key ^ key >>> 33) * 0xff51afd7ed558ccdL;
+        key = (key ^ key >>> 33) * 0xc4ceb9fe1a85ec53L;
+        return key ^ key >>> 33;
+    }
+
+    private int slot(final long key) {
+        return (int) key & mask;
+    }
+
+    private record Result(long key, String statusListCredential, int statusListIndex, int statusSize, String statusPurpose,
+                          long version, int statusValue, long expiresAtNanos) {
+
+        private boolean matches(final StatusEntry statusEntry) {
+            return statusListIndex == statusEntry.statusListIndex() && statusSize == statusEntry.statusSize()
+                    && statusListCredential.equals(statusEntry.statusListCredential())
+                    && Objects.equals(statusPurpose, statusEntry.statusPurpose());
+        }
+    }
+}
@@ -1,27 +1,83 @@
 package com.credenceid.vcstatus.service;
 
 
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
 import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.dto.BatchVerificationResult;
 import com.credenceid.vcstatus.dto.StatusVerificationResult;
 import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
 import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.VerificationListener;
 import com.credenceid.vcstatus.util.Constants;
-import com.danubetech.verifiablecredentials.VerifiableCredential;
 import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-
-import static com.credenceid.vcstatus.util.Utils.decodeStatusList;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 
+/**
+ * This class resolves the bitstringStatusListEntry values of a Verifiable Credential.
+ * <p>
+ * Instances created with a {@link StatusListCache} keep the decoded status lists in memory so that
+ * subsequent verifications against the same statusListCredential skip the HTTP call and the decoding.
+ * Concurrent verifications referencing the same statusListCredential share a single download and decode.
+ * The static {@link #verifyStatus(List)} entry point does not cache and uses the default {@link StatusListClient}.
+ */
 public class StatusVerifierService {
     private static final Logger logger = LoggerFactory.getLogger(StatusVerifierService.class);
+    public static final int DEFAULT_BATCH_WINDOW_SIZE = 10_000;
+
+    private static final StatusVerifierService UNCACHED = new StatusVerifierService(null);
+
+    final StatusListResolver statusListResolver;
+    private final StatusResultCache statusResultCache;
+
+    /**
+     * @param statusListCache cache of decoded status lists, or null to fetch and decode the list on every verification.
+     */
+    public StatusVerifierService(final StatusListCache statusListCache) {
+        this(StatusListClient.getDefault(), statusListCache);
+    }
 
-    private StatusVerifierService() {
+    /**
+     * @param statusListClient client used to fetch the BitstringStatusListCredential.
+     * @param statusListCache  cache of decoded status lists, or null to fetch and decode the list on every verification.
+     */
+    public StatusVerifierService(final StatusListClient statusListClient, final StatusListCache statusListCache) {
+        this(statusListClient, statusListCache, null);
+    }
+
+    /**
+     * @param statusListClient  client used to fetch the BitstringStatusListCredential.
+     * @param statusListCache   cache of decoded status lists, or null to fetch and decode the list on every verification.
+     * @param statusResultCache cache of the statuses of individual entries, or null to look every entry up in its list.
+     * @throws IllegalArgumentException If a {@link StatusResultCache} is given without a {@link StatusListCache}.
+     */
+    public StatusVerifierService(final StatusListClient statusListClient, final StatusListCache statusListCache,
+                                 final StatusResultCache statusResultCache) {
+        if (statusResultCache != null && statusListCache == null) {
+            throw new IllegalArgumentException("A StatusResultCache requires a StatusListCache");
+        }
+        this.statusListResolver = new StatusListResolver(Objects.requireNonNull(statusListClient, "statusListClient"), statusListCache);
+        this.statusResultCache = statusResultCache;
     }
 
     /**
@@ -50,30 +106,328 @@ public class StatusVerifierService {
      * @throws CredentialStatusNetworkException    If an error occurs during HTTP call
      */
     public static List<StatusVerificationResult> verifyStatus(final List<CredentialStatus> listOfCredentialStatus) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
-        List<StatusVerificationResult> statusVerificationResults = new ArrayList<>();
+        return UNCACHED.verify(listOfCredentialStatus);
+    }
+
+    /**
+     * Resolves bitstringStatusListEntry to return a List of {@link StatusVerificationResult},
+     * reusing the cached status lists of this instance when available.
+     * <p>
+     * Entries are grouped by statusListCredential so that each distinct status list is fetched and decoded once,
+     * and the results are returned in the order of the received entries.
+     *
+     * @param listOfCredentialStatus list of CredentialStatus of the Verifiable Credential.
+     * @return A List of {@link StatusVerificationResult}.
+     * @throws CredentialStatusProcessingException If an error occurs during statusListIndex or statusPurpose verification.
+     * @throws CredentialStatusNetworkException    If an error occurs during HTTP call
+     */
+    public List<StatusVerificationResult> verify(final List<CredentialStatus> listOfCredentialStatus) throws CredentialStatusProcessingException, CredentialStatusNetworkException {
+        List<StatusEntry> statusEntries = toStatusEntries(listOfCredentialStatus);
+        List<StatusVerificationResult> cachedResults = cachedResults(statusEntries);
+        if (cachedResults != null) {
+            return cachedResults;
+        }
+        //fetch and decode every distinct BitstringStatusListCredential once, or reuse the cached one.
+        Map<String, CachedStatusList> statusLists = new HashMap<>();
+        for (StatusEntry statusEntry : statusEntries) {
+            if (!statusLists.containsKey(statusEntry.statusListCredential())) {
+                statusLists.put(statusEntry.statusListCredential(), statusListResolver.resolve(statusEntry.statusListCredential()));
+            }
+        }
+        List<StatusVerificationResult> statusVerificationResults = toResults(statusEntries, statusLists, statusListResolver.verificationListener());
+        cacheResults(statusEntries, statusVerificationResults, statusLists);
+        return statusVerificationResults;
+    }
+
+    /**
+     * Asynchronously resolves bitstringStatusListEntry to return a List of {@link StatusVerificationResult},
+     * fetching the distinct status lists in parallel on virtual threads and without a deadline.
+     *
+     * @param listOfCredentialStatus list of CredentialStatus of the Verifiable Credential.
+     * @return A future completed with the List of {@link StatusVerificationResult} in the order of the received entries.
+     * @see #verifyStatusAsync(List, Executor, Duration)
+     */
+    public CompletableFuture<List<StatusVerificationResult>> verifyStatusAsync(final List<CredentialStatus> listOfCredentialStatus) {
+        return verifyStatusAsync(listOfCredentialStatus, VirtualThreadExecutorHolder.INSTANCE, null);
+    }
+
+    /**
+     * Asynchronously resolves bitstringStatusListEntry to return a List of {@link StatusVerificationResult}.
+     * Each distinct status list is fetched and decoded in its own task on the given executor, so a credential
+     * referencing lists on several hosts pays the slowest latency instead of their sum.
+     * <p>
+     * The future completes exceptionally with a {@link CredentialStatusProcessingException} or a
+     * {@link CredentialStatusNetworkException} on the first failure, and with a {@link CredentialStatusNetworkException}
+     * titled {@link Constants#STATUS_LIST_TIMEOUT_ERROR_TITLE} if the deadline elapses first. Fetches not started by then
+     * are cancelled; fetches already running complete and fill the cache.
+     *
+     * @param listOfCredentialStatus list of CredentialStatus of the Verifiable Credential.
+     * @param executor               executor running the fetches, a virtual thread per task executor is a good fit.
+     * @param timeout                deadline of the whole verification, or null for none.
+     * @return A future completed with the List of {@link StatusVerificationResult} in the order of the received entries.
+     */
+    public CompletableFuture<List<StatusVerificationResult>> verifyStatusAsync(final List<CredentialStatus> listOfCredentialStatus, final Executor executor, final Duration timeout) {
+        List<StatusEntry> statusEntries;
+        try {
+            statusEntries = toStatusEntries(listOfCredentialStatus);
+        } catch (CredentialStatusProcessingException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        List<StatusVerificationResult> cachedResults = cachedResults(statusEntries);
+        if (cachedResults != null) {
+            return CompletableFuture.completedFuture(cachedResults);
+        }
+        CompletableFuture<List<StatusVerificationResult>> result = new CompletableFuture<>();
+        Map<String, CompletableFuture<CachedStatusList>> pendingStatusLists = new HashMap<>();
+        for (StatusEntry statusEntry : statusEntries) {
+            pendingStatusLists.computeIfAbsent(statusEntry.statusListCredential(), statusListCredential -> {
+                CompletableFuture<CachedStatusList> pending = CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return statusListResolver.resolve(statusListCredential);
+                    } catch (CredentialStatusProcessingException | CredentialStatusNetworkException e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor);
+                //fail fast on the first failing status list
+                pending.whenComplete((statusList, throwable) -> {
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable instanceof CompletionException ? throwable.getCause() : throwable);
+                    }
+                });
+                return pending;
+            });
+        }
+        CompletableFuture.allOf(pendingStatusLists.values().toArray(CompletableFuture[]::new)).thenRun(() -> {
+            Map<String, CachedStatusList> statusLists = new HashMap<>();
+            pendingStatusLists.forEach((statusListCredential, pending) -> statusLists.put(statusListCredential, pending.join()));
+            try {
+                List<StatusVerificationResult> statusVerificationResults = toResults(statusEntries, statusLists, statusListResolver.verificationListener());
+                cacheResults(statusEntries, statusVerificationResults, statusLists);
+                result.complete(statusVerificationResults);
+            } catch (CredentialStatusProcessingException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        //fetches not started yet are skipped once the outcome is known, running ones still fill the cache
+        result.whenComplete((statusVerificationResults, throwable) -> {
+            if (throwable != null) {
+                pendingStatusLists.values().forEach(pending -> pending.cancel(false));
+            }
+        });
+        if (timeout == null) {
+            return result;
+        }
+        //the deadline task is dropped as soon as the result completes
+        return result.orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS).exceptionallyCompose(throwable -> {
+            if (throwable instanceof TimeoutException) {
+                logger.error(Constants.STATUS_LIST_TIMEOUT_ERROR_DETAIL);
+                return CompletableFuture.failedFuture(new CredentialStatusNetworkException(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, Constants.STATUS_LIST_TIMEOUT_ERROR_DETAIL));
+            }
+            return CompletableFuture.failedFuture(throwable);
+        });
+    }
+
+    /**
+     * Returns a builder of a {@link StatusListRefreshScheduler} refreshing the hot status lists of this verifier
+     * ahead of their expiry, so that verifications rarely wait for the network.
+     *
+     * @return a {@link StatusListRefreshScheduler.Builder} bound to this verifier.
+     * @throws IllegalStateException If this verifier has no {@link StatusListCache}.
+     */
+    public StatusListRefreshScheduler.Builder refreshAhead() {
+        if (statusListResolver.statusListCache() == null) {
+            throw new IllegalStateException("Refreshing status lists ahead of their expiry requires a StatusListCache");
+        }
+        return new StatusListRefreshScheduler.Builder(statusListResolver);
+    }
+
+    /**
+     * Returns the feed of the statuses changed by every new version of the watched status lists, to react to
+     * revocations and suspensions without polling each credential. Combined with {@link #refreshAhead()}, watched lists
+     * are kept refreshed once resolved.
+     *
+     * @return the {@link StatusListChangeFeed} of this verifier.
+     */
+    public StatusListChangeFeed changeFeed() {
+        return statusListResolver.changeFeed();
+    }
+
+    /**
+     * Verifies the status of a large number of credentials, handing one {@link BatchVerificationResult} per credential
+     * to the consumer in the order of the stream. The stream is consumed lazily in windows of
+     * {@link #DEFAULT_BATCH_WINDOW_SIZE} credentials; each status list is fetched and decoded once per batch.
+     * Failures are reported per credential and never abort the batch.
+     *
+     * @param credentials stream of the lists of CredentialStatus of the credentials.
+     * @param consumer    receiver of the results, called on the calling thread.
+     */
+    public void verifyBatch(final Stream<List<CredentialStatus>> credentials, final Consumer<BatchVerificationResult> consumer) {
+        verifyBatch(credentials, consumer, VirtualThreadExecutorHolder.INSTANCE, DEFAULT_BATCH_WINDOW_SIZE);
+    }
+
+    /**
+     * Verifies the status of a large number of credentials, handing one {@link BatchVerificationResult} per credential
+     * to the consumer in the order of the stream.
+     *
+     * @param credentials   stream of the lists of CredentialStatus of the credentials.
+     * @param consumer      receiver of the results, called on the calling thread.
+     * @param fetchExecutor executor running the status list fetches.
+     * @param windowSize    number of credentials planned and answered together, bounding the memory held for results.
+     */
+    public void verifyBatch(final Stream<List<CredentialStatus>> credentials, final Consumer<BatchVerificationResult> consumer,
+                            final Executor fetchExecutor, final int windowSize) {
+        new BatchStatusVerifier(statusListResolver, fetchExecutor, windowSize).verify(credentials.iterator(), consumer);
+    }
+
+    /**
+     * Verifies the status of a collection of credentials.
+     *
+     * @param credentials the lists of CredentialStatus of the credentials.
+     * @return one {@link BatchVerificationResult} per credential in the order of the collection.
+     */
+    public List<BatchVerificationResult> verifyBatch(final Collection<List<CredentialStatus>> credentials) {
+        List<BatchVerificationResult> batchVerificationResults = new ArrayList<>(credentials.size());
+        verifyBatch(credentials.stream(), batchVerificationResults::add);
+        return batchVerificationResults;
+    }
+
+    /**
+     * @param statusEntries entries of the Verifiable Credential.
+     * @return the results of every entry from the {@link StatusResultCache}, or null if any of them is missing. The
+     * lists answered this way are recorded as cache hits and accesses, as if they had been resolved.
+     */
+    private List<StatusVerificationResult> cachedResults(final List<StatusEntry> statusEntries) {
+        if (statusResultCache == null) {
+            return null;
+        }
+        StatusListCache statusListCache = statusListResolver.statusListCache();
+        long nowNanos = System.nanoTime();
+        List<StatusVerificationResult> statusVerificationResults = new ArrayList<>(statusEntries.size());
+        for (StatusEntry statusEntry : statusEntries) {
+            int statusValue = statusResultCache.get(statusEntry, statusListCache.version(statusEntry.statusListCredential()), nowNanos);
+            if (statusValue < 0) {
+                return null;
+            }
+            statusVerificationResults.add(new StatusVerificationResult(statusEntry.statusPurpose(), statusValue != 0,
+                    statusValue, statusEntry.statusMessages().get(statusValue)));
+        }
+        //each distinct list is recorded once, as it would have been resolved once
+        for (int i = 0; i < statusEntries.size(); i++) {
+            String statusListCredential = statusEntries.get(i).statusListCredential();
+            if (!sharesStatusList(statusEntries, i, statusListCredential)) {
+                statusListResolver.recordCachedResult(statusListCredential);
+            }
+        }
+        return statusVerificationResults;
+    }
+
+    /**
+     * @return whether one of the entries before the given index is on the given list.
+     */
+    private static boolean sharesStatusList(final List<StatusEntry> statusEntries, final int index, final String statusListCredential) {
+        for (int i = 0; i < index; i++) {
+            if (statusEntries.get(i).statusListCredential().equals(statusListCredential)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the results in the {@link StatusResultCache}, for no longer than their status list stays fresh.
+     * A result is recorded with the version of its list only if that list is still the one held by the
+     * {@link StatusListCache}, so that a list replaced meanwhile never leaves results that could be reused.
+     */
+    private void cacheResults(final List<StatusEntry> statusEntries, final List<StatusVerificationResult> statusVerificationResults,
+                              final Map<String, CachedStatusList> statusLists) {
+        if (statusResultCache == null) {
+            return;
+        }
+        StatusListCache statusListCache = statusListResolver.statusListCache();
+        Instant now = statusListCache.now();
+        long nowNanos = System.nanoTime();
+        Map<String, Long> versions = new HashMap<>();
+        for (int i = 0; i < statusEntries.size(); i++) {
+            StatusEntry statusEntry = statusEntries.get(i);
+            CachedStatusList statusList = statusLists.get(statusEntry.statusListCredential());
+            //expired lists served on error or while being refreshed are not remembered
+            if (statusList.isExpired(now)) {
+                continue;
+            }
+            long version = versions.computeIfAbsent(statusEntry.statusListCredential(), statusListCredential -> {
+                long before = statusListCache.version(statusListCredential);
+                CachedStatusList held = statusListCache.peek(statusListCredential);
+                //every replacement of a list changes its version, so an unchanged version proves the list was held at that version
+                return held != null && held.statusList() == statusList.statusList() && statusListCache.version(statusListCredential) == before
+                        ? before : -1L;
+            });
+            if (version >= 0) {
+                statusResultCache.put(statusEntry, version, statusVerificationResults.get(i).statusValue(),
+                        Duration.between(now, statusList.expiresAt()), nowNanos);
+            }
+        }
+    }
+
+    /**
+     * Extracts and validates the bitstringStatusListEntry values of every CredentialStatus.
+     *
+     * @param listOfCredentialStatus list of CredentialStatus of the Verifiable Credential.
+     * @return the entries in the order of the received list.
+     * @throws CredentialStatusProcessingException If a statusListIndex is invalid.
+     */
+    static List<StatusEntry> toStatusEntries(final List<CredentialStatus> listOfCredentialStatus) throws CredentialStatusProcessingException {
+        List<StatusEntry> statusEntries = new ArrayList<>(listOfCredentialStatus.size());
         for (CredentialStatus credentialStatus : listOfCredentialStatus) {
-            Map<String, Object> credentialStatusMap = credentialStatus.getJsonObject();
-            VerifiableCredential bitStringStatusListCredential;
-            String statusPurpose = (String) credentialStatusMap.get("statusPurpose");
-            int statusListIndex = Integer.parseInt((String) credentialStatusMap.get("statusListIndex"));
-            String statusListCredential = (String) credentialStatusMap.get("statusListCredential");
-            int statusSize = credentialStatusMap.get("statusSize") != null ? Integer.parseInt((String) credentialStatusMap.get("statusSize")) : 1;  //indicates the size of the status entry in bits
-            if (validateStatusListIndex(statusListIndex)) {
+            StatusEntry statusEntry = StatusEntry.of(credentialStatus);
+            if (validateStatusListIndex(statusEntry.statusListIndex())) {
                 logger.error(Constants.STATUS_LIST_INDEX_ERROR_DETAIL);
                 throw new CredentialStatusProcessingException(Constants.STATUS_LIST_INDEX_ERROR_TITLE, Constants.STATUS_LIST_INDEX_ERROR_DETAIL);
             }
-            //fetch BitstringStatusListCredential.
-            bitStringStatusListCredential = StatusListClient.fetchStatusListCredential(statusListCredential);
+            statusEntries.add(statusEntry);
+        }
+        return statusEntries;
+    }
+
+    /**
+     * Checks every entry against its decoded status list.
+     *
+     * @param statusEntries        entries of the Verifiable Credential.
+     * @param statusLists          decoded status lists keyed by statusListCredential.
+     * @param verificationListener listener receiving the lookup timings.
+     * @return A List of {@link StatusVerificationResult} in the order of the entries.
+     * @throws CredentialStatusProcessingException If an error occurs during statusPurpose verification or index lookup.
+     */
+    static List<StatusVerificationResult> toResults(final List<StatusEntry> statusEntries, final Map<String, CachedStatusList> statusLists,
+                                                    final VerificationListener verificationListener) throws CredentialStatusProcessingException {
+        boolean timed = verificationListener != VerificationListener.NOOP;
+        List<StatusVerificationResult> statusVerificationResults = new ArrayList<>(statusEntries.size());
+        for (StatusEntry statusEntry : statusEntries) {
+            CachedStatusList statusList = statusLists.get(statusEntry.statusListCredential());
             //validation of statusPurpose of credentialStatus and credentialSubject
-            if (!validateStatusPurpose(statusPurpose, (String) bitStringStatusListCredential.getCredentialSubject().getJsonObject().get("statusPurpose"))) {
+            if (!validateStatusPurpose(statusEntry.statusPurpose(), statusList.statusPurpose())) {
                 logger.error(Constants.STATUS_PURPOSE_COMPARISON_ERROR_TITLE);
                 throw new CredentialStatusProcessingException(Constants.STATUS_PURPOSE_COMPARISON_ERROR_TITLE, Constants.STATUS_PURPOSE_COMPARISON_ERROR_DETAIL);
             }
-            //encodedList
-            String encodedList = (String) bitStringStatusListCredential.getCredentialSubject().getJsonObject().get("encodedList");
-            boolean decodedIndexValue = decodeStatusList(encodedList, statusListIndex, statusSize);
-            statusVerificationResults.add(new StatusVerificationResult(statusPurpose, decodedIndexValue));
+            long startNanos = timed ? System.nanoTime() : 0;
+            int statusValue;
+            try {
+                statusValue = statusList.statusList().getStatus(statusEntry.statusListIndex(), statusEntry.statusSize());
+            } catch (CredentialStatusProcessingException e) {
+                if (timed) {
+                    verificationListener.onLookup(statusEntry.statusListCredential(), statusEntry.statusSize(), System.nanoTime() - startNanos, false);
+                }
+                throw e;
+            }
+            if (timed) {
+                verificationListener.onLookup(statusEntry.statusListCredential(), statusEntry.statusSize(), System.nanoTime() - startNanos, true);
+            }
+            statusVerificationResults.add(new StatusVerificationResult(statusEntry.statusPurpose(), statusValue != 0,
+                    statusValue, statusEntry.statusMessages().get(statusValue)));
         }
         return statusVerificationResults;
     }
+
+    private static final class VirtualThreadExecutorHolder {
+        private static final ExecutorService INSTANCE = Executors.newVirtualThreadPerTaskExecutor();
+    }
 }
@@ -0,0 +1,375 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import com.credenceid.vcstatus.util.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Mutable Bitstring Status List for issuers, producing the {@code encodedList} of a BitstringStatusListCredential.
+ * <p>
+ * The bitstring is held in 64-bit words using the layout of {@link StatusList}: index 0 is the most significant bit of
+ * the first word. Setting a status rewrites at most two words, so single and bulk updates are O(1) per index.
+ * Indices are handed out at random with {@link #allocate()}, as recommended for herd privacy, and tracked in a second
+ * bitstring so that no index is handed out twice.
+ * <p>
+ * {@link #encode()} serializes the words into a reused buffer and compresses them with a pooled
+ * {@link java.util.zip.Deflater}; the result is kept until the next change, so republishing an unchanged list is free.
+ * The encoding round-trips exactly through {@link Utils#decodeStatusList(String)}.
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class MutableStatusList {
+    private static final Logger logger = LoggerFactory.getLogger(MutableStatusList.class);
+
+    /**
+     * Minimum length of a bitstring in bytes, 131,072 bits, as required by the Bitstring Status List specification.
+     */
+    public static final int MIN_BYTE_LENGTH = 16 * 1024;
+
+    private static final VarHandle BIG_ENDIAN_LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+    //random probes before allocate() falls back to scanning for a free index
+    private static final int ALLOCATION_PROBES = 32;
+
+    private final int statusSize;
+    private final int byteLength;
+    private final int entryCount;
+    private final long[] words;
+    private final long[] allocatedEntries;
+    private final Random random;
+    //guarded by the instance lock
+    private int allocatedCount;
+    private byte[] serialized;
+    private String encodedList;
+
+    private MutableStatusList(final int statusSize, final int byteLength, final Random random) {
+        this.statusSize = statusSize;
+        this.byteLength = byteLength;
+        this.entryCount = (int) Math.min((long) byteLength * Byte.SIZE / statusSize, Integer.MAX_VALUE);
+        this.words = new long[(byteLength + Long.BYTES - 1) / Long.BYTES];
+        this.allocatedEntries = new long[(entryCount + Long.SIZE - 1) / Long.SIZE];
+        //the bits past the last entry are never free
+        if (entryCount % Long.SIZE != 0) {
+            allocatedEntries[allocatedEntries.length - 1] = -1L >>> entryCount % Long.SIZE;
+        }
+        this.random = random;
+    }
+
+    /**
+     * Creates an empty list of at least the given number of entries, padded to {@link #MIN_BYTE_LENGTH}.
+     *
+     * @param entryCount the minimum number of entries.
+     * @param statusSize the size of each status in bits, between 1 and {@link StatusList#MAX_STATUS_SIZE}.
+     * @return the empty list, allocating indices with a {@link SecureRandom}.
+     * @throws CredentialStatusProcessingException If the status size is invalid or the list would exceed 2 GiB.
+     */
+    public static MutableStatusList create(final int entryCount, final int statusSize) throws CredentialStatusProcessingException {
+        return create(entryCount, statusSize, new SecureRandom());
+    }
+
+    /**
+     * Creates an empty list of at least the given number of entries, padded to {@link #MIN_BYTE_LENGTH}.
+     *
+     * @param entryCount the minimum number of entries.
+     * @param statusSize the size of each status in bits, between 1 and {@link StatusList#MAX_STATUS_SIZE}.
+     * @param random     source of the indices handed out by {@link #allocate()}.
+     * @return the empty list.
+     * @throws CredentialStatusProcessingException If the status size is invalid or the list would exceed 2 GiB.
+     */
+    public static MutableStatusList create(final int entryCount, final int statusSize, final Random random) throws CredentialStatusProcessingException {
+        checkStatusSize(statusSize);
+        long byteLength = Math.max(MIN_BYTE_LENGTH, ((long) Math.max(entryCount, 0) * statusSize + Byte.SIZE - 1) / Byte.SIZE);
+        if (byteLength > Integer.MAX_VALUE - Long.BYTES) {
+            logger.error(Constants.RANGE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.RANGE_ERROR_TITLE, Constants.RANGE_ERROR_DETAIL);
+        }
+        return new MutableStatusList(statusSize, (int) byteLength, random);
+    }
+
+    /**
+     * Creates a list holding the statuses of a published list, to update and publish it again. Every entry is
+     * considered allocated, since the list does not tell which indices were handed out to credentials still at status
+     * zero: {@link #allocate()} hands out no index of the copy.
+     *
+     * @param statusList the published list.
+     * @param statusSize the size of each status in bits, between 1 and {@link StatusList#MAX_STATUS_SIZE}.
+     * @return the list, allocating indices with a {@link SecureRandom}.
+     * @throws CredentialStatusProcessingException If the status size is invalid.
+     * @see #copyOf(StatusList, int, int[]) to keep allocating the indices never handed out.
+     */
+    public static MutableStatusList copyOf(final StatusList statusList, final int statusSize) throws CredentialStatusProcessingException {
+        MutableStatusList mutableStatusList = copyOf(statusList, statusSize, new int[0]);
+        Arrays.fill(mutableStatusList.allocatedEntries, -1L);
+        mutableStatusList.allocatedCount = mutableStatusList.entryCount;
+        return mutableStatusList;
+    }
+
+    /**
+     * Creates a list holding the statuses of a published list, to update and publish it again. The given indices and
+     * the entries whose status is not zero are considered allocated; {@link #allocate()} hands out the others.
+     *
+     * @param statusList    the published list.
+     * @param statusSize    the size of each status in bits, between 1 and {@link StatusList#MAX_STATUS_SIZE}.
+     * @param issuedIndices every index handed out to a credential, whatever its status.
+     * @return the list, allocating indices with a {@link SecureRandom}.
+     * @throws CredentialStatusProcessingException If the status size is invalid or an index is outside of the list.
+     */
+    public static MutableStatusList copyOf(final StatusList statusList, final int statusSize, final int[] issuedIndices) throws CredentialStatusProcessingException {
+        checkStatusSize(statusSize);
+        MutableStatusList mutableStatusList = new MutableStatusList(statusSize, statusList.byteLength(), new SecureRandom());
+        ByteBuffer bitstring = statusList.asByteBuffer().order(ByteOrder.BIG_ENDIAN);
+        for (int word = 0; word < mutableStatusList.words.length; word++) {
+            int offset = word * Long.BYTES;
+            if (offset + Long.BYTES <= mutableStatusList.byteLength) {
+                mutableStatusList.words[word] = bitstring.getLong(offset);
+            } else {
+                long value = 0;
+                for (int i = 0; i < Long.BYTES; i++) {
+                    value = value << Byte.SIZE | (offset + i < mutableStatusList.byteLength ? bitstring.get(offset + i) & 0xff : 0);
+                }
+                mutableStatusList.words[word] = value;
+            }
+        }
+        for (int issuedIndex : issuedIndices) {
+            mutableStatusList.checkIndex(issuedIndex);
+            mutableStatusList.reserveEntry(issuedIndex);
+        }
+        //a status was set, so the index was handed out even if it is missing from issuedIndices
+        for (int index = 0; index < mutableStatusList.entryCount; index++) {
+            if (mutableStatusList.extract(index) != 0) {
+                mutableStatusList.reserveEntry(index);
+            }
+        }
+        return mutableStatusList;
+    }
+
+    /**
+     * @return the size of each status in bits.
+     */
+    public int statusSize() {
+        return statusSize;
+    }
+
+    /**
+     * @return the number of entries held by the list.
+     */
+    public int entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * @return the length of the bitstring in bytes.
+     */
+    public int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * @param statusListIndex the index of the credential.
+     * @return the status value at the given index.
+     * @throws CredentialStatusProcessingException If the index is outside of the list.
+     */
+    public synchronized int get(final int statusListIndex) throws CredentialStatusProcessingException {
+        checkIndex(statusListIndex);
+        return extract(statusListIndex);
+    }
+
+    /**
+     * @param statusListIndex the index of the credential.
+     * @param value           the status value, between 0 and {@code 2^statusSize - 1}.
+     * @throws CredentialStatusProcessingException If the index is outside of the list or the value does not fit the status size.
+     */
+    public synchronized void set(final int statusListIndex, final int value) throws CredentialStatusProcessingException {
+        checkIndex(statusListIndex);
+        checkValue(value);
+        store(statusListIndex, value);
+    }
+
+    /**
+     * Sets the same status value at many indices. Every index is checked before any status is changed.
+     *
+     * @param statusListIndices the indices of the credentials.
+     * @param value             the status value, between 0 and {@code 2^statusSize - 1}.
+     * @throws CredentialStatusProcessingException If an index is outside of the list or the value does not fit the status size.
+     */
+    public synchronized void set(final int[] statusListIndices, final int value) throws CredentialStatusProcessingException {
+        checkValue(value);
+        for (int statusListIndex : statusListIndices) {
+            checkIndex(statusListIndex);
+        }
+        for (int statusListIndex : statusListIndices) {
+            store(statusListIndex, value);
+        }
+    }
+
+    /**
+     * Sets the status at the given index to zero.
+     *
+     * @param statusListIndex the index of the credential.
+     * @throws CredentialStatusProcessingException If the index is outside of the list.
+     */
+    public void clear(final int statusListIndex) throws CredentialStatusProcessingException {
+        set(statusListIndex, 0);
+    }
+
+    /**
+     * Hands out a random index that has not been allocated or reserved yet.
+     *
+     * @return the allocated index.
+     * @throws CredentialStatusProcessingException If every index has been allocated.
+     */
+    public synchronized int allocate() throws CredentialStatusProcessingException {
+        if (allocatedCount == entryCount) {
+            logger.error(Constants.STATUS_LIST_FULL_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_LIST_FULL_ERROR_TITLE, Constants.STATUS_LIST_FULL_ERROR_DETAIL);
+        }
+        for (int probe = 0; probe < ALLOCATION_PROBES; probe++) {
+            int candidate = random.nextInt(entryCount);
+            if (reserveEntry(candidate)) {
+                return candidate;
+            }
+        }
+        //mostly allocated list: take the first free index after a random word
+        int start = random.nextInt(allocatedEntries.length);
+        for (int i = 0; i < allocatedEntries.length; i++) {
+            int word = (start + i) % allocatedEntries.length;
+            long free = ~allocatedEntries[word];
+            if (free != 0) {
+                int candidate = word * Long.SIZE + Long.numberOfLeadingZeros(free);
+                reserveEntry(candidate);
+                return candidate;
+            }
+        }
+        throw new IllegalStateException("No free index although " + allocatedCount + " of " + entryCount + " are allocated");
+    }
+
+    /**
+     * Marks an index as allocated, such as one handed out before the list was created by {@link #copyOf(StatusList, int, int[])}.
+     *
+     * @param statusListIndex the index of the credential.
+     * @return boolean whether the index was free.
+     * @throws CredentialStatusProcessingException If the index is outside of the list.
+     */
+    public synchronized boolean reserve(final int statusListIndex) throws CredentialStatusProcessingException {
+        checkIndex(statusListIndex);
+        return reserveEntry(statusListIndex);
+    }
+
+    /**
+     * @return the number of indices allocated or reserved.
+     */
+    public synchronized int allocatedCount() {
+        return allocatedCount;
+    }
+
+    /**
+     * @return an immutable copy of the current statuses.
+     */
+    public synchronized StatusList toStatusList() {
+        return StatusList.wrap(Arrays.copyOf(serialize(), byteLength));
+    }
+
+    /**
+     * GZIP-compresses and Base64URL-encodes the current statuses. The result is reused until a status changes.
+     *
+     * @return the encodedList of the BitstringStatusListCredential, prefixed with 'u'.
+     */
+    public synchronized String encode() {
+        if (encodedList == null) {
+            encodedList = Utils.encodeStatusList(serialize(), byteLength);
+            logger.debug("Encoded a status list of {} bytes into {} characters", byteLength, encodedList.length());
+        }
+        return encodedList;
+    }
+
+    /**
+     * Must be called while holding the instance lock.
+     *
+     * @return the big-endian bytes of the words, in a buffer reused by every call and padded to whole words.
+     */
+    private byte[] serialize() {
+        if (serialized == null) {
+            serialized = new byte[words.length * Long.BYTES];
+        }
+        for (int word = 0; word < words.length; word++) {
+            BIG_ENDIAN_LONGS.set(serialized, word * Long.BYTES, words[word]);
+        }
+        return serialized;
+    }
+
+    private int extract(final int statusListIndex) {
+        long bitOffset = (long) statusListIndex * statusSize;
+        int word = (int) (bitOffset >>> 6);
+        int shift = Long.SIZE - (int) (bitOffset & 63) - statusSize;
+        long mask = (1L << statusSize) - 1;
+        if (shift >= 0) {
+            return (int) (words[word] >>> shift & mask);
+        }
+        //the status continues in the next word
+        return (int) ((words[word] << -shift | words[word + 1] >>> Long.SIZE + shift) & mask);
+    }
+
+    private void store(final int statusListIndex, final int value) {
+        long bitOffset = (long) statusListIndex * statusSize;
+        int word = (int) (bitOffset >>> 6);
+        int shift = Long.SIZE - (int) (bitOffset & 63) - statusSize;
+        long previous = words[word];
+        if (shift >= 0) {
+            long mask = ((1L << statusSize) - 1) << shift;
+            words[word] = previous & ~mask | (long) value << shift;
+        } else {
+            int lowBits = -shift;
+            long highMask = (1L << statusSize - lowBits) - 1;
+            words[word] = previous & ~highMask | (long) value >>> lowBits;
+            long nextPrevious = words[word + 1];
+            words[word + 1] = nextPrevious & -1L >>> lowBits | (long) value << Long.SIZE - lowBits;
+            if (words[word + 1] != nextPrevious) {
+                encodedList = null;
+            }
+        }
+        if (words[word] != previous) {
+            encodedList = null;
+        }
+    }
+
+    private boolean reserveEntry(final int statusListIndex) {
+        long bit = Long.MIN_VALUE >>> (statusListIndex & 63);
+        long entries = allocatedEntries[statusListIndex >>> 6];
+        if ((entries & bit) != 0) {
+            return false;
+        }
+        allocatedEntries[statusListIndex >>> 6] = entries | bit;
+        allocatedCount++;
+        return true;
+    }
+
+    private void checkIndex(final int statusListIndex) throws CredentialStatusProcessingException {
+        if (statusListIndex < 0 || statusListIndex >= entryCount) {
+            logger.error(Constants.RANGE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.RANGE_ERROR_TITLE, Constants.RANGE_ERROR_DETAIL);
+        }
+    }
+
+    private void checkValue(final int value) throws CredentialStatusProcessingException {
+        if (value < 0 || value >>> statusSize != 0) {
+            logger.error(Constants.STATUS_VALUE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_VALUE_ERROR_TITLE, Constants.STATUS_VALUE_ERROR_DETAIL);
+        }
+    }
+
+    private static void checkStatusSize(final int statusSize) throws CredentialStatusProcessingException {
+        if (statusSize <= 0 || statusSize > StatusList.MAX_STATUS_SIZE) {
+            logger.error(Constants.STATUS_SIZE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_SIZE_ERROR_TITLE, Constants.STATUS_SIZE_ERROR_DETAIL);
+        }
+    }
+}
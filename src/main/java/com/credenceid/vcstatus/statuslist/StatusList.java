@@ -0,0 +1,153 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Immutable, decoded Bitstring Status List.
+ * <p>
+ * The bitstring is read left to right: index 0 is the most significant bit of the first byte, and the status of
+ * the credential at {@code statusListIndex} occupies the {@code statusSize} bits starting at bit
+ * {@code statusListIndex * statusSize}. A status value is extracted with a single 64-bit big-endian read of the
+ * word holding its first bit, so every lookup is O(1) whatever the size of the list.
+ * <p>
+ * The list is backed by a read-only {@link ByteBuffer}, which may live on the heap, off-heap or in a memory-mapped file.
+ */
+public final class StatusList {
+    private static final Logger logger = LoggerFactory.getLogger(StatusList.class);
+
+    public static final int MAX_STATUS_SIZE = 31;
+
+    private final ByteBuffer bitstring;
+    private final int byteLength;
+
+    private StatusList(final ByteBuffer bitstring) {
+        this.bitstring = bitstring.slice().asReadOnlyBuffer().order(ByteOrder.BIG_ENDIAN);
+        this.byteLength = this.bitstring.capacity();
+    }
+
+    /**
+     * Wraps a decompressed bitstring without copying it. The array must not be modified afterwards.
+     *
+     * @param bitstring the decompressed bitstring.
+     * @return the status list.
+     */
+    public static StatusList wrap(final byte[] bitstring) {
+        return new StatusList(ByteBuffer.wrap(bitstring));
+    }
+
+    /**
+     * Wraps the remaining bytes of a buffer holding a decompressed bitstring without copying them.
+     * The content of the buffer must not be modified afterwards.
+     *
+     * @param bitstring the buffer holding the decompressed bitstring between its position and its limit.
+     * @return the status list.
+     */
+    public static StatusList wrap(final ByteBuffer bitstring) {
+        return new StatusList(bitstring);
+    }
+
+    /**
+     * @return the length of the bitstring in bytes.
+     */
+    public int byteLength() {
+        return byteLength;
+    }
+
+    /**
+     * @return the length of the bitstring in bits.
+     */
+    public long bitLength() {
+        return (long) byteLength * Byte.SIZE;
+    }
+
+    /**
+     * @param statusSize the size of each status in bits.
+     * @return the number of status entries held by the list.
+     */
+    public long entryCount(final int statusSize) {
+        return bitLength() / statusSize;
+    }
+
+    /**
+     * @return a read-only view of the bitstring.
+     */
+    public ByteBuffer asByteBuffer() {
+        return bitstring.duplicate();
+    }
+
+    /**
+     * @param statusListIndex the index of the credential.
+     * @return boolean whether the single-bit status at the given index is set.
+     * @throws CredentialStatusProcessingException If the index is outside of the list.
+     */
+    public boolean isSet(final int statusListIndex) throws CredentialStatusProcessingException {
+        return getStatus(statusListIndex, 1) != 0;
+    }
+
+    /**
+     * Extracts the status value of the credential at the given index.
+     *
+     * @param statusListIndex the index of the credential.
+     * @param statusSize      the size of each status in bits, between 1 and {@link #MAX_STATUS_SIZE}.
+     * @return the status value, between 0 and {@code 2^statusSize - 1}.
+     * @throws CredentialStatusProcessingException If the status size is invalid or the index is outside of the list.
+     */
+    public int getStatus(final int statusListIndex, final int statusSize) throws CredentialStatusProcessingException {
+        checkStatusSize(statusSize);
+        return extract(statusListIndex, statusSize);
+    }
+
+    /**
+     * Extracts the status values of the credentials at the given indices.
+     *
+     * @param statusListIndices the indices of the credentials.
+     * @param statusSize        the size of each status in bits, between 1 and {@link #MAX_STATUS_SIZE}.
+     * @return the status values in the order of the indices.
+     * @throws CredentialStatusProcessingException If the status size is invalid or an index is outside of the list.
+     */
+    public int[] getStatuses(final int[] statusListIndices, final int statusSize) throws CredentialStatusProcessingException {
+        checkStatusSize(statusSize);
+        int[] statuses = new int[statusListIndices.length];
+        for (int i = 0; i < statusListIndices.length; i++) {
+            statuses[i] = extract(statusListIndices[i], statusSize);
+        }
+        return statuses;
+    }
+
+    private int extract(final int statusListIndex, final int statusSize) throws CredentialStatusProcessingException {
+        long bitOffset = (long) statusListIndex * statusSize;
+        if (statusListIndex < 0 || bitOffset + statusSize > bitLength()) {
+            logger.error(Constants.RANGE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.RANGE_ERROR_TITLE, Constants.RANGE_ERROR_DETAIL);
+        }
+        int byteOffset = (int) (bitOffset >>> 3);
+        int bitInByte = (int) (bitOffset & 7);
+        long word;
+        if (byteOffset + Long.BYTES <= byteLength) {
+            word = bitstring.getLong(byteOffset);
+        } else {
+            //fewer than 8 bytes left: assemble the tail of the list into the high bytes of the word
+            word = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                word <<= Byte.SIZE;
+                if (byteOffset + i < byteLength) {
+                    word |= bitstring.get(byteOffset + i) & 0xffL;
+                }
+            }
+        }
+        return (int) ((word << bitInByte) >>> (Long.SIZE - statusSize));
+    }
+
+    private static void checkStatusSize(final int statusSize) throws CredentialStatusProcessingException {
+        if (statusSize < 1 || statusSize > MAX_STATUS_SIZE) {
+            logger.error(Constants.STATUS_SIZE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_SIZE_ERROR_TITLE, Constants.STATUS_SIZE_ERROR_DETAIL);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * The bits that differ between two versions of a status list.
+ * <p>
+ * The versions are compared 64 bits at a time with an XOR of big-endian words, and only the words that differ are kept,
+ * so a diff costs one pass over the lists and memory proportional to the number of changes. Bits past the end of the
+ * shorter version are compared against zero. The changed bits are then mapped to the indices of the changed statuses
+ * for any status size.
+ */
+public final class StatusListDiff {
+    private static final Logger logger = LoggerFactory.getLogger(StatusListDiff.class);
+
+    //index of every differing word in ascending order, and the XOR of the two versions of that word
+    private final int[] wordIndices;
+    private final long[] xorWords;
+
+    private StatusListDiff(final int[] wordIndices, final long[] xorWords) {
+        this.wordIndices = wordIndices;
+        this.xorWords = xorWords;
+    }
+
+    /**
+     * @param previous the previous version of the list.
+     * @param current  the current version of the list.
+     * @return the bits that differ between the two versions.
+     */
+    public static StatusListDiff between(final StatusList previous, final StatusList current) {
+        ByteBuffer previousBits = previous.asByteBuffer().order(ByteOrder.BIG_ENDIAN);
+        ByteBuffer currentBits = current.asByteBuffer().order(ByteOrder.BIG_ENDIAN);
+        int byteLength = Math.max(previous.byteLength(), current.byteLength());
+        int wordCount = (byteLength + Long.BYTES - 1) / Long.BYTES;
+        int[] wordIndices = new int[8];
+        long[] xorWords = new long[8];
+        int changedWords = 0;
+        for (int word = 0; word < wordCount; word++) {
+            long xor = word(previousBits, word) ^ word(currentBits, word);
+            if (xor != 0) {
+                if (changedWords == wordIndices.length) {
+                    wordIndices = Arrays.copyOf(wordIndices, changedWords * 2);
+                    xorWords = Arrays.copyOf(xorWords, changedWords * 2);
+                }
+                wordIndices[changedWords] = word;
+                xorWords[changedWords++] = xor;
+            }
+        }
+        return new StatusListDiff(Arrays.copyOf(wordIndices, changedWords), Arrays.copyOf(xorWords, changedWords));
+    }
+
+    /**
+     * @return boolean whether the two versions hold the same bits.
+     */
+    public boolean isEmpty() {
+        return wordIndices.length == 0;
+    }
+
+    /**
+     * @return the number of bits that differ between the two versions.
+     */
+    public long changedBitCount() {
+        long count = 0;
+        for (long xorWord : xorWords) {
+            count += Long.bitCount(xorWord);
+        }
+        return count;
+    }
+
+    /**
+     * @param statusSize the size of each status in bits.
+     * @return the indices of the statuses having at least one differing bit, in ascending order.
+     * @throws CredentialStatusProcessingException If the statusSize is invalid.
+     */
+    public int[] changedIndices(final int statusSize) throws CredentialStatusProcessingException {
+        if (statusSize <= 0 || statusSize > StatusList.MAX_STATUS_SIZE) {
+            logger.error(Constants.STATUS_SIZE_ERROR_DETAIL);
+            throw new CredentialStatusProcessingException(Constants.STATUS_SIZE_ERROR_TITLE, Constants.STATUS_SIZE_ERROR_DETAIL);
+        }
+        int[] indices = new int[Math.max(8, wordIndices.length)];
+        int count = 0;
+        long lastIndex = -1;
+        for (int i = 0; i < wordIndices.length; i++) {
+            long firstBit = (long) wordIndices[i] * Long.SIZE;
+            long xor = xorWords[i];
+            while (xor != 0) {
+                //bits are numbered from the most significant one
+                int leadingZeros = Long.numberOfLeadingZeros(xor);
+                long index = (firstBit + leadingZeros) / statusSize;
+                if (index != lastIndex && index <= Integer.MAX_VALUE) {
+                    if (count == indices.length) {
+                        indices = Arrays.copyOf(indices, count * 2);
+                    }
+                    indices[count++] = (int) index;
+                    lastIndex = index;
+                }
+                xor &= ~(Long.MIN_VALUE >>> leadingZeros);
+            }
+        }
+        return Arrays.copyOf(indices, count);
+    }
+
+    private static long word(final ByteBuffer bits, final int word) {
+        int offset = word * Long.BYTES;
+        int remaining = bits.limit() - offset;
+        if (remaining >= Long.BYTES) {
+            return bits.getLong(offset);
+        }
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = value << Byte.SIZE | (i < remaining ? bits.get(offset + i) & 0xff : 0);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,111 @@
+package com.credenceid.vcstatus.util;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass Base64 decoder validating the characters while decoding them.
+ * <p>
+ * Characters are read once from the source string through a lookup table and decoded bytes are written straight into
+ * the caller's buffer: no intermediate copy of the string is made and no regular expression is involved.
+ * Unpadded input is expected; the lenient alphabet also accepts the standard {@code +} and {@code /} characters and
+ * trailing {@code =} padding.
+ */
+final class Base64UrlDecoder {
+    private static final byte[] URL_SAFE = new byte[128];
+    private static final byte[] LENIENT = new byte[128];
+
+    static {
+        Arrays.fill(URL_SAFE, (byte) -1);
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_";
+        for (int i = 0; i < alphabet.length(); i++) {
+            URL_SAFE[alphabet.charAt(i)] = (byte) i;
+        }
+        System.arraycopy(URL_SAFE, 0, LENIENT, 0, URL_SAFE.length);
+        LENIENT['+'] = 62;
+        LENIENT['/'] = 63;
+    }
+
+    private Base64UrlDecoder() {
+    }
+
+    /**
+     * @param source  the encoded characters.
+     * @param from    index of the first encoded character.
+     * @param lenient whether the standard alphabet and padding are accepted.
+     * @return the number of bytes the characters decode to, or -1 if their count cannot be Base64.
+     */
+    static int decodedLength(final String source, final int from, final boolean lenient) {
+        int length = encodedEnd(source, from, lenient) - from;
+        int remainder = length % 4;
+        if (length <= 0 || remainder == 1) {
+            return -1;
+        }
+        return length / 4 * 3 + (remainder == 0 ? 0 : remainder - 1);
+    }
+
+    /**
+     * Decodes the characters of {@code source} from index {@code from} into {@code destination}.
+     *
+     * @param source      the encoded characters.
+     * @param from        index of the first encoded character.
+     * @param destination buffer of at least {@link #decodedLength(String, int, boolean)} bytes receiving the bytes from offset zero.
+     * @param lenient     whether the standard alphabet and padding are accepted.
+     * @return the number of decoded bytes, or -1 if a character is outside of the alphabet.
+     */
+    static int decode(final String source, final int from, final byte[] destination, final boolean lenient) {
+        byte[] table = lenient ? LENIENT : URL_SAFE;
+        int end = encodedEnd(source, from, lenient);
+        int fullEnd = from + (end - from) / 4 * 4;
+        int position = 0;
+        for (int i = from; i < fullEnd; i += 4) {
+            char c0 = source.charAt(i);
+            char c1 = source.charAt(i + 1);
+            char c2 = source.charAt(i + 2);
+            char c3 = source.charAt(i + 3);
+            if ((c0 | c1 | c2 | c3) >= 128) {
+                return -1;
+            }
+            //an invalid character maps to -1, which makes the whole group negative
+            int bits = table[c0] << 18 | table[c1] << 12 | table[c2] << 6 | table[c3];
+            if (bits < 0) {
+                return -1;
+            }
+            destination[position++] = (byte) (bits >> 16);
+            destination[position++] = (byte) (bits >> 8);
+            destination[position++] = (byte) bits;
+        }
+        int remainder = end - fullEnd;
+        if (remainder == 1) {
+            return -1;
+        }
+        if (remainder > 1) {
+            int bits = 0;
+            for (int i = fullEnd; i < end; i++) {
+                char c = source.charAt(i);
+                if (c >= 128 || table[c] < 0) {
+                    return -1;
+                }
+                bits = bits << 6 | table[c];
+            }
+            bits <<= 6 * (4 - remainder);
+            destination[position++] = (byte) (bits >> 16);
+            if (remainder == 3) {
+                destination[position++] = (byte) (bits >> 8);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * @return the index after the last encoded character, excluding trailing padding when lenient.
+     */
+    private static int encodedEnd(final String source, final int from, final boolean lenient) {
+        int end = source.length();
+        if (lenient) {
+            while (end > from && end > source.length() - 2 && source.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,49 @@
+package com.credenceid.vcstatus.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Unpadded Base64URL encoder producing the {@code u}-prefixed multibase string of a status list in a single pass.
+ * <p>
+ * Characters are written as bytes into one array sized for the prefix and the encoding, from which the string is
+ * created without any further copy of the encoded bytes than the one made by the {@link String} constructor.
+ */
+final class Base64UrlEncoder {
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_"
+            .getBytes(StandardCharsets.US_ASCII);
+
+    private Base64UrlEncoder() {
+    }
+
+    /**
+     * @param prefix the character written before the encoding.
+     * @param source the buffer holding the bytes to encode from offset zero.
+     * @param length the number of bytes to encode.
+     * @return the prefix followed by the unpadded Base64URL encoding of the bytes.
+     */
+    static String encode(final char prefix, final byte[] source, final int length) {
+        int remainder = length % 3;
+        byte[] encoded = new byte[1 + length / 3 * 4 + (remainder == 0 ? 0 : remainder + 1)];
+        encoded[0] = (byte) prefix;
+        int position = 1;
+        int fullEnd = length - remainder;
+        for (int i = 0; i < fullEnd; i += 3) {
+            int bits = (source[i] & 0xff) << 16 | (source[i + 1] & 0xff) << 8 | source[i + 2] & 0xff;
+            encoded[position++] = ALPHABET[bits >>> 18];
+            encoded[position++] = ALPHABET[bits >>> 12 & 0x3f];
+            encoded[position++] = ALPHABET[bits >>> 6 & 0x3f];
+            encoded[position++] = ALPHABET[bits & 0x3f];
+        }
+        if (remainder == 1) {
+            int bits = source[fullEnd] & 0xff;
+            encoded[position++] = ALPHABET[bits >>> 2];
+            encoded[position] = ALPHABET[bits << 4 & 0x3f];
+        } else if (remainder == 2) {
+            int bits = (source[fullEnd] & 0xff) << 8 | source[fullEnd + 1] & 0xff;
+            encoded[position++] = ALPHABET[bits >>> 10];
+            encoded[position++] = ALPHABET[bits >>> 4 & 0x3f];
+            encoded[position] = ALPHABET[bits << 2 & 0x3f];
+        }
+        return new String(encoded, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -13,6 +13,15 @@ public class Constants {
     public static final String STATUS_LIST_NETWORK_ERROR_TITLE = "STATUS_LIST_NETWORK_ERROR";
     public static final String STATUS_LIST_NETWORK_ERROR_DETAIL =
             "Error occurred during http call to statusListCredential endpoint";
+    public static final String STATUS_LIST_TIMEOUT_ERROR_TITLE = "STATUS_LIST_TIMEOUT_ERROR";
+    public static final String STATUS_LIST_TIMEOUT_ERROR_DETAIL =
+            "Status verification did not complete before its deadline";
+    public static final String STATUS_LIST_UNAVAILABLE_ERROR_TITLE = "STATUS_LIST_UNAVAILABLE_ERROR";
+    public static final String STATUS_LIST_UNAVAILABLE_ERROR_DETAIL =
+            "The statusListCredential endpoint failed recently and is not requested again yet";
+    public static final String STATUS_LIST_PROOF_ERROR_TITLE = "STATUS_LIST_PROOF_ERROR";
+    public static final String STATUS_LIST_PROOF_ERROR_DETAIL =
+            "The proof of the BitstringStatusListCredential could not be verified";
     public static final String STATUS_PURPOSE_COMPARISON_ERROR_TITLE =
             "STATUS_PURPOSE_COMPARISON_ERROR";
     public static final String STATUS_PURPOSE_COMPARISON_ERROR_DETAIL =
@@ -21,9 +30,28 @@ public class Constants {
             "STATUS_LIST_INDEX_ERROR";
     public static final String STATUS_LIST_INDEX_ERROR_DETAIL =
             "statusListIndex must be greater than or equal to zero";
+    public static final String STATUS_SIZE_ERROR_TITLE = "STATUS_SIZE_ERROR";
+    public static final String STATUS_SIZE_ERROR_DETAIL =
+            "statusSize must be greater than zero and at most 31";
     public static final String RANGE_ERROR_TITLE = "RANGE ERROR";
     public static final String RANGE_ERROR_DETAIL =
             "A provided value is outside of the expected range of an associated value, such as a given index value for an array being larger than the current size of the array.";
+    public static final String STATUS_VALUE_ERROR_TITLE = "STATUS_VALUE_ERROR";
+    public static final String STATUS_VALUE_ERROR_DETAIL =
+            "status value must be between zero and 2^statusSize - 1";
+    public static final String STATUS_MESSAGE_ERROR_TITLE = "STATUS_MESSAGE_ERROR";
+    public static final String STATUS_MESSAGE_ERROR_DETAIL =
+            "status of a statusMessage entry must be a decimal or 0x-prefixed hexadecimal integer";
+    public static final String STATUS_LIST_FULL_ERROR_TITLE = "STATUS_LIST_FULL_ERROR";
+    public static final String STATUS_LIST_FULL_ERROR_DETAIL =
+            "Every index of the status list has already been allocated";
+    public static final String STATUS_LIST_SIZE_LIMIT_ERROR_TITLE = "STATUS_LIST_SIZE_LIMIT_ERROR";
+    public static final String STATUS_LIST_RESPONSE_SIZE_LIMIT_ERROR_DETAIL =
+            "The statusListCredential response exceeds the maximum allowed size";
+    public static final String STATUS_LIST_COMPRESSED_SIZE_LIMIT_ERROR_DETAIL =
+            "The compressed encodedList exceeds the maximum allowed size";
+    public static final String STATUS_LIST_INFLATED_SIZE_LIMIT_ERROR_DETAIL =
+            "The decompressed encodedList exceeds the maximum allowed size";
     public static final String ENCODED_LIST_IS_EMPTY_OR_NULL_ERROR_DETAIL = "Encoded string cannot be null or empty";
     public static final String ENCODED_LIST_ERROR_TITLE = "ENCODED_LIST_ERROR";
     public static final String ENCODED_LIST_STARTS_WITH_U_ERROR_DETAIL = "The received encoded list doesn't start with 'u'. the encoded list must start with the letter 'u'";
@@ -0,0 +1,92 @@
+package com.credenceid.vcstatus.util;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Pool of raw {@link Deflater} instances used to write GZIP members without a {@link java.util.zip.GZIPOutputStream}.
+ * <p>
+ * Compressing through the pool writes the header, the deflate payload and the trailer straight into the caller's
+ * buffer, and reuses the native deflater state instead of allocating and freeing it for every encoded status list.
+ */
+final class DeflaterPool {
+    private static final int MAX_POOLED_DEFLATERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final ConcurrentLinkedQueue<Deflater> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+
+    //magic, deflate method, no flags, no modification time, no extra flags, unknown operating system
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int TRAILER_LENGTH = 8;
+
+    private DeflaterPool() {
+    }
+
+    /**
+     * @param length the number of bytes to compress.
+     * @return the maximum length of the GZIP member holding them, as bounded by zlib for the default settings.
+     */
+    static int gzipBound(final int length) {
+        long bound = (long) length + (length >> 12) + (length >> 14) + (length >> 25) + 13 + HEADER.length + TRAILER_LENGTH;
+        return (int) Math.min(bound, Integer.MAX_VALUE - 8);
+    }
+
+    /**
+     * Compresses bytes into a single GZIP member.
+     *
+     * @param data   the buffer holding the bytes to compress from offset zero.
+     * @param length the number of bytes to compress.
+     * @param buffer the buffer of at least {@link #gzipBound(int)} bytes receiving the GZIP member from offset zero.
+     * @return the length of the GZIP member.
+     */
+    static int gzip(final byte[] data, final int length, final byte[] buffer) {
+        System.arraycopy(HEADER, 0, buffer, 0, HEADER.length);
+        int position = HEADER.length;
+        Deflater deflater = acquire();
+        try {
+            deflater.setInput(data, 0, length);
+            deflater.finish();
+            while (!deflater.finished()) {
+                int deflated = deflater.deflate(buffer, position, buffer.length - TRAILER_LENGTH - position);
+                if (deflated == 0 && position == buffer.length - TRAILER_LENGTH) {
+                    throw new IllegalArgumentException("GZIP buffer is smaller than the compressed data");
+                }
+                position += deflated;
+            }
+        } finally {
+            release(deflater);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, length);
+        position = writeIntLE(buffer, position, (int) crc.getValue());
+        return writeIntLE(buffer, position, length);
+    }
+
+    private static int writeIntLE(final byte[] buffer, final int position, final int value) {
+        buffer[position] = (byte) value;
+        buffer[position + 1] = (byte) (value >>> 8);
+        buffer[position + 2] = (byte) (value >>> 16);
+        buffer[position + 3] = (byte) (value >>> 24);
+        return position + 4;
+    }
+
+    private static Deflater acquire() {
+        Deflater deflater = POOL.poll();
+        if (deflater == null) {
+            return new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        }
+        POOL_SIZE.decrementAndGet();
+        return deflater;
+    }
+
+    private static void release(final Deflater deflater) {
+        deflater.reset();
+        if (POOL_SIZE.incrementAndGet() <= MAX_POOLED_DEFLATERS) {
+            POOL.offer(deflater);
+        } else {
+            POOL_SIZE.decrementAndGet();
+            deflater.end();
+        }
+    }
+}
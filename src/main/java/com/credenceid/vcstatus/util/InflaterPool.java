@@ -0,0 +1,140 @@
+package com.credenceid.vcstatus.util;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Pool of raw {@link Inflater} instances used to inflate GZIP members without a {@link java.util.zip.GZIPInputStream}.
+ * <p>
+ * Inflating through the pool lets a caller stop as soon as the bytes it needs have been produced, and reuses the
+ * native inflater state instead of allocating and freeing it for every decoded status list.
+ */
+final class InflaterPool {
+    private static final Logger logger = LoggerFactory.getLogger(InflaterPool.class);
+
+    private static final int MAX_POOLED_INFLATERS = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+    private static final ConcurrentLinkedQueue<Inflater> POOL = new ConcurrentLinkedQueue<>();
+    private static final AtomicInteger POOL_SIZE = new AtomicInteger();
+    private static final int INFLATE_CHUNK = 8 * 1024;
+
+    //GZIP header flags (RFC 1952)
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+
+    private InflaterPool() {
+    }
+
+    /**
+     * Inflates the deflate payload of a GZIP member until {@code length} bytes have been produced or the payload ends,
+     * whichever comes first. The GZIP trailer is not checked.
+     * <p>
+     * The output grows in chunks as bytes are actually produced, so a large {@code length} costs memory only if the
+     * payload really inflates that far.
+     *
+     * @param gzipData   the buffer holding the GZIP-compressed bytes from offset zero.
+     * @param gzipLength the number of GZIP-compressed bytes in {@code gzipData}.
+     * @param length     the number of bytes wanted.
+     * @return the bytes produced, fewer than {@code length} only if the payload is shorter.
+     * @throws CredentialStatusProcessingException If the data is not a valid GZIP member.
+     */
+    static ByteBuffer inflatePrefix(final byte[] gzipData, final int gzipLength, final int length) throws CredentialStatusProcessingException {
+        int payloadOffset = skipHeader(gzipData, gzipLength);
+        Inflater inflater = acquire();
+        try {
+            inflater.setInput(gzipData, payloadOffset, gzipLength - payloadOffset);
+            byte[] buffer = new byte[Math.min(length, INFLATE_CHUNK)];
+            int produced = 0;
+            while (produced < length && !inflater.finished()) {
+                if (produced == buffer.length) {
+                    buffer = Arrays.copyOf(buffer, (int) Math.min(length, Math.max(INFLATE_CHUNK, 2L * produced)));
+                }
+                int inflated = inflater.inflate(buffer, produced, buffer.length - produced);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    logger.error("GZIP payload is truncated");
+                    throw new CredentialStatusProcessingException("IO_EXCEPTION", "Unexpected end of ZLIB input stream");
+                }
+                produced += inflated;
+            }
+            return ByteBuffer.wrap(buffer, 0, produced);
+        } catch (DataFormatException e) {
+            logger.error(e.getMessage());
+            throw new CredentialStatusProcessingException("IO_EXCEPTION", e.getMessage());
+        } finally {
+            release(inflater);
+        }
+    }
+
+    /**
+     * @param gzipData   the buffer holding the GZIP-compressed bytes from offset zero.
+     * @param gzipLength the number of GZIP-compressed bytes in {@code gzipData}.
+     * @return the offset of the deflate payload.
+     * @throws CredentialStatusProcessingException If the header is missing or malformed.
+     */
+    private static int skipHeader(final byte[] gzipData, final int gzipLength) throws CredentialStatusProcessingException {
+        if (gzipLength < 10 || (gzipData[0] & 0xff) != 0x1f || (gzipData[1] & 0xff) != 0x8b || gzipData[2] != 8) {
+            logger.error("Not in GZIP format");
+            throw new CredentialStatusProcessingException("IO_EXCEPTION", "Not in GZIP format");
+        }
+        int flags = gzipData[3] & 0xff;
+        //magic, method, flags, mtime, extra flags and operating system
+        int offset = 10;
+        if ((flags & FEXTRA) != 0) {
+            offset = checkedOffset(gzipLength, offset + 2) + ((gzipData[offset] & 0xff) | (gzipData[offset + 1] & 0xff) << 8);
+        }
+        if ((flags & FNAME) != 0) {
+            offset = skipZeroTerminated(gzipData, gzipLength, offset);
+        }
+        if ((flags & FCOMMENT) != 0) {
+            offset = skipZeroTerminated(gzipData, gzipLength, offset);
+        }
+        if ((flags & FHCRC) != 0) {
+            offset += 2;
+        }
+        return checkedOffset(gzipLength, offset);
+    }
+
+    private static int skipZeroTerminated(final byte[] gzipData, final int gzipLength, final int offset) throws CredentialStatusProcessingException {
+        int position = offset;
+        while (position < gzipLength && gzipData[position] != 0) {
+            position++;
+        }
+        return checkedOffset(gzipLength, position + 1);
+    }
+
+    private static int checkedOffset(final int gzipLength, final int offset) throws CredentialStatusProcessingException {
+        if (offset > gzipLength) {
+            logger.error("GZIP header is truncated");
+            throw new CredentialStatusProcessingException("IO_EXCEPTION", "Unexpected end of GZIP header");
+        }
+        return offset;
+    }
+
+    private static Inflater acquire() {
+        Inflater inflater = POOL.poll();
+        if (inflater == null) {
+            return new Inflater(true);
+        }
+        POOL_SIZE.decrementAndGet();
+        return inflater;
+    }
+
+    private static void release(final Inflater inflater) {
+        inflater.reset();
+        if (POOL_SIZE.incrementAndGet() <= MAX_POOLED_INFLATERS) {
+            POOL.offer(inflater);
+        } else {
+            POOL_SIZE.decrementAndGet();
+            inflater.end();
+        }
+    }
+}
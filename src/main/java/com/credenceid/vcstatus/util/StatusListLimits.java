@@ -0,0 +1,22 @@
+package com.credenceid.vcstatus.util;
+
+/**
+ * Upper bounds on the sizes of a status list, protecting the verifier against oversized responses and
+ * decompression bombs. Each limit is enforced while the data is streamed, so data past a limit is never held in memory.
+ *
+ * @param maxResponseBytes   maximum size of a statusListCredential response body, after HTTP content decoding.
+ * @param maxCompressedBytes maximum size of the GZIP-compressed bitstring carried by the encodedList.
+ * @param maxInflatedBytes   maximum size of the decompressed bitstring.
+ */
+public record StatusListLimits(int maxResponseBytes, int maxCompressedBytes, int maxInflatedBytes) {
+    /**
+     * 32 MiB of response, 24 MiB of compressed bitstring and 128 MiB of bitstring, about a billion 1-bit statuses.
+     */
+    public static final StatusListLimits DEFAULT = new StatusListLimits(32 * 1024 * 1024, 24 * 1024 * 1024, 128 * 1024 * 1024);
+
+    public StatusListLimits {
+        if (maxResponseBytes <= 0 || maxCompressedBytes <= 0 || maxInflatedBytes <= 0) {
+            throw new IllegalArgumentException("limits must be greater than zero");
+        }
+    }
+}
@@ -1,13 +1,16 @@
 package com.credenceid.vcstatus.util;
 
 import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
-import org.apache.commons.codec.binary.Base64;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.statuslist.StatusList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
 import java.util.zip.GZIPInputStream;
 
 
@@ -20,6 +23,13 @@ import java.util.zip.GZIPInputStream;
  */
 public class Utils {
     private static final Logger logger = LoggerFactory.getLogger(Utils.class);
+    //header and trailer of a GZIP member
+    private static final int GZIP_MIN_LENGTH = 18;
+    private static final int INFLATE_CHUNK = 8 * 1024;
+    private static final int MAX_DEFLATE_RATIO = 1032;
+    //larger buffers are allocated per call so that a thread never pins more than this
+    private static final int MAX_RETAINED_BUFFER_BYTES = 64 * 1024;
+    private static final ThreadLocal<byte[]> DECODE_BUFFER = ThreadLocal.withInitial(() -> new byte[4 * 1024]);
 
     // Private constructor to prevent instantiation
     private Utils() {
@@ -37,30 +47,119 @@ public class Utils {
      * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted.
      */
     public static boolean decodeStatusList(String encodedListStr, int index, int statusSize) throws CredentialStatusProcessingException {
-        if (encodedListStr == null || encodedListStr.isEmpty()) {
-            logger.error("Encoded list is null or empty");
-            throw new CredentialStatusProcessingException(Constants.ENCODED_LIST_ERROR_TITLE, Constants.ENCODED_LIST_IS_EMPTY_OR_NULL_ERROR_DETAIL);
-        }
+        ByteBuffer compressed = decodeEncodedList(encodedListStr, StatusListLimits.DEFAULT);
+        return getBitsAtIndices(compressed.array(), compressed.limit(), new int[]{index}, statusSize)[0];
+    }
 
-        if (!encodedListStr.startsWith("u")) {
-            logger.error("Encoded list does not start with 'u': {}", encodedListStr);
-            throw new CredentialStatusProcessingException(Constants.ENCODED_LIST_ERROR_TITLE, Constants.ENCODED_LIST_STARTS_WITH_U_ERROR_DETAIL);
-        }
-        String encodedList = encodedListStr.substring(1);
+    /**
+     * Decodes a Base64URL-encoded and GZIP-compressed string after validating it.
+     * The returned bitstring can be kept and queried many times with {@link #getBitAtIndex(byte[], int, int)}.
+     *
+     * @param encodedListStr The Base64URL-encoded and compressed string prefixed with 'u'.
+     *                       The 'u' prefix is removed before processing.
+     * @return A byte array containing the decompressed bitstring.
+     * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted.
+     */
+    public static byte[] decodeStatusList(String encodedListStr) throws CredentialStatusProcessingException {
+        return decodeStatusList(encodedListStr, StatusListLimits.DEFAULT);
+    }
 
-        // Validate if the string is Base64URL
-        if (!isValidBase64Url(encodedList)) {
-            logger.error("The provided string is not a valid Base64URL-encoded string: {}", encodedList);
-            throw new CredentialStatusProcessingException(Constants.BASE64URL_ERROR_TITLE, Constants.BASE64_URL_ERROR_DETAIL);
+    /**
+     * Decodes a Base64URL-encoded and GZIP-compressed string after validating it, within the given size limits.
+     *
+     * @param encodedListStr The Base64URL-encoded and compressed string prefixed with 'u'.
+     * @param limits         The maximum compressed and decompressed sizes of the bitstring.
+     * @return A byte array containing the decompressed bitstring.
+     * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted,
+     *                                             or if the bitstring exceeds a limit.
+     */
+    public static byte[] decodeStatusList(String encodedListStr, StatusListLimits limits) throws CredentialStatusProcessingException {
+        ByteBuffer compressed = decodeEncodedList(encodedListStr, limits);
+        return decompressGzip(compressed.array(), compressed.limit(), limits.maxInflatedBytes());
+    }
+
+    /**
+     * Decodes a Base64URL-encoded and GZIP-compressed string after validating it, reporting the duration of the
+     * decode and inflate steps to the given listener.
+     *
+     * @param encodedListStr       The Base64URL-encoded and compressed string prefixed with 'u'.
+     * @param statusListCredential The URL of the status list, passed to the listener.
+     * @param verificationListener The listener receiving the timings.
+     * @return A byte array containing the decompressed bitstring.
+     * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted.
+     */
+    public static byte[] decodeStatusList(String encodedListStr, String statusListCredential, VerificationListener verificationListener) throws CredentialStatusProcessingException {
+        return decodeStatusList(encodedListStr, statusListCredential, verificationListener, StatusListLimits.DEFAULT);
+    }
+
+    /**
+     * Decodes a Base64URL-encoded and GZIP-compressed string after validating it, within the given size limits,
+     * reporting the duration of the decode and inflate steps to the given listener.
+     *
+     * @param encodedListStr       The Base64URL-encoded and compressed string prefixed with 'u'.
+     * @param statusListCredential The URL of the status list, passed to the listener.
+     * @param verificationListener The listener receiving the timings.
+     * @param limits               The maximum compressed and decompressed sizes of the bitstring.
+     * @return A byte array containing the decompressed bitstring.
+     * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted,
+     *                                             or if the bitstring exceeds a limit.
+     */
+    public static byte[] decodeStatusList(String encodedListStr, String statusListCredential, VerificationListener verificationListener,
+                                          StatusListLimits limits) throws CredentialStatusProcessingException {
+        if (verificationListener == VerificationListener.NOOP) {
+            return decodeStatusList(encodedListStr, limits);
+        }
+        long startNanos = System.nanoTime();
+        ByteBuffer compressed;
+        try {
+            compressed = decodeEncodedList(encodedListStr, limits);
+        } catch (CredentialStatusProcessingException | RuntimeException e) {
+            verificationListener.onDecode(statusListCredential, System.nanoTime() - startNanos, false);
+            throw e;
         }
+        long inflateStartNanos = System.nanoTime();
+        verificationListener.onDecode(statusListCredential, inflateStartNanos - startNanos, true);
+        try {
+            byte[] bitstring = decompressGzip(compressed.array(), compressed.limit(), limits.maxInflatedBytes());
+            verificationListener.onInflate(statusListCredential, bitstring.length, System.nanoTime() - inflateStartNanos, true);
+            return bitstring;
+        } catch (CredentialStatusProcessingException | RuntimeException e) {
+            verificationListener.onInflate(statusListCredential, -1, System.nanoTime() - inflateStartNanos, false);
+            throw e;
+        }
+    }
 
-        return getBitAtIndex(encodedList, index, statusSize);
+    /**
+     * GZIP-compresses and Base64URL-encodes a bitstring into an encodedList, the inverse of
+     * {@link #decodeStatusList(String)}.
+     *
+     * @param bitstring The uncompressed bitstring.
+     * @return The Base64URL-encoded and compressed string prefixed with 'u'.
+     */
+    public static String encodeStatusList(byte[] bitstring) {
+        return encodeStatusList(bitstring, bitstring.length);
+    }
+
+    /**
+     * GZIP-compresses and Base64URL-encodes the first bytes of a buffer into an encodedList. The compressed bytes of
+     * small lists are written to the buffer of the calling thread, so only the returned string is allocated.
+     *
+     * @param bitstring The buffer holding the uncompressed bitstring from offset zero.
+     * @param length    The length of the bitstring in bytes.
+     * @return The Base64URL-encoded and compressed string prefixed with 'u'.
+     */
+    public static String encodeStatusList(byte[] bitstring, int length) {
+        byte[] compressed = decodeBuffer(DeflaterPool.gzipBound(length));
+        int compressedLength = DeflaterPool.gzip(bitstring, length, compressed);
+        return Base64UrlEncoder.encode('u', compressed, compressedLength);
     }
 
 
     /**
      * Extracts a specific bit from a Base64URL-encoded and GZIP-compressed string at a given index.
-     * This method decodes the string, decompresses it, and returns whether the bit at the specified index is set (true) or not (false).
+     * This method decodes the string and returns whether the bit at the specified index is set (true) or not (false).
+     * Only the beginning of the bitstring needed to answer is inflated, with a pooled {@link java.util.zip.Inflater},
+     * into a buffer growing with the bytes actually inflated.
      *
      * @param encodedString   The Base64URL-encoded and compressed string.
      * @param credentialIndex The index of the credential to retrieve the bit for.
@@ -69,23 +168,64 @@ public class Utils {
      * @throws CredentialStatusProcessingException If the index is out of bounds of the decompressed data.
      */
     public static boolean getBitAtIndex(String encodedString, int credentialIndex, int statusSize) throws CredentialStatusProcessingException {
+        return getBitsAtIndices(encodedString, new int[]{credentialIndex}, statusSize)[0];
+    }
+
+    /**
+     * Extracts the bits of many indices from a Base64URL-encoded and GZIP-compressed string.
+     * The string is decoded once and the bitstring is inflated once, only up to the furthest requested index.
+     *
+     * @param encodedString     The Base64URL-encoded and compressed string.
+     * @param credentialIndices The indices of the credentials to retrieve the bits for.
+     * @param statusSize        The size of each status in bits.
+     * @return for every index, in the same order, whether its bit is set (true) or not (false).
+     * @throws CredentialStatusProcessingException If an index is out of bounds of the decompressed data.
+     */
+    public static boolean[] getBitsAtIndices(String encodedString, int[] credentialIndices, int statusSize) throws CredentialStatusProcessingException {
         //Decode the base64url encoded string
-        byte[] decodedBytes = decodeBase64Url(encodedString);
-        //Decompress the decodedBytes[]
-        byte[] decompressedBytes = decompressGzip(decodedBytes);
-        int index = credentialIndex * statusSize;
-        if (index >= decompressedBytes.length) {
+        int decodedLength = Base64UrlDecoder.decodedLength(encodedString, 0, true);
+        checkCompressedLength(decodedLength, StatusListLimits.DEFAULT);
+        byte[] decodedBytes = decodeBuffer(Math.max(decodedLength, 0));
+        if (decodedLength < 0 || Base64UrlDecoder.decode(encodedString, 0, decodedBytes, true) < 0) {
+            logger.error("The provided string is not a valid Base64URL-encoded string");
+            throw new CredentialStatusProcessingException(Constants.BASE64URL_ERROR_TITLE, Constants.BASE64_URL_ERROR_DETAIL);
+        }
+        return getBitsAtIndices(decodedBytes, decodedLength, credentialIndices, statusSize);
+    }
+
+    private static boolean[] getBitsAtIndices(byte[] decodedBytes, int decodedLength, int[] credentialIndices, int statusSize) throws CredentialStatusProcessingException {
+        // Bytes needed to hold the last bit of the furthest status entry
+        long required = 0;
+        for (int credentialIndex : credentialIndices) {
+            required = Math.max(required, ((long) credentialIndex * statusSize + statusSize + 7) / 8);
+        }
+        //no list within the size limits holds such an index
+        if (required > StatusListLimits.DEFAULT.maxInflatedBytes()) {
             logger.error(Constants.RANGE_ERROR_DETAIL);
             throw new CredentialStatusProcessingException(Constants.RANGE_ERROR_TITLE, Constants.RANGE_ERROR_DETAIL);
         }
-        // Step 3: Access the bit at the specified index
-        int byteIndex = index / 8;          // Find the byte index
-        int bitPosition = index % 8;        // Find the bit within the byte
-        byte byteValue = decompressedBytes[byteIndex];
-        // Calculate the mask for the bit we are interested in
-        int bitMask = 1 << (7 - bitPosition);  // Left-to-right indexing (MSB is 0th bit)
-        // Check if the bit is set (non-zero value)
-        return (byteValue & bitMask) != 0;
+        //Decompress the decodedBytes[] up to the furthest index, a shorter list leaves that index out of range
+        ByteBuffer inflated = InflaterPool.inflatePrefix(decodedBytes, decodedLength, (int) required);
+        int[] statuses = StatusList.wrap(inflated).getStatuses(credentialIndices, statusSize);
+        boolean[] bits = new boolean[credentialIndices.length];
+        for (int i = 0; i < credentialIndices.length; i++) {
+            bits[i] = statuses[i] != 0;
+        }
+        return bits;
+    }
+
+    /**
+     * Extracts a specific status from an already decoded and decompressed bitstring at a given index.
+     *
+     * @param decompressedBytes The decompressed bitstring.
+     * @param credentialIndex   The index of the credential to retrieve the status for.
+     * @param statusSize        The size of each status in bits.
+     * @return boolean indicating whether the status at the specified index is set (true) or not (false).
+     * @throws CredentialStatusProcessingException If the index is out of bounds of the decompressed data.
+     * @see StatusList#getStatus(int, int) to read the value of multi-bit statuses.
+     */
+    public static boolean getBitAtIndex(byte[] decompressedBytes, int credentialIndex, int statusSize) throws CredentialStatusProcessingException {
+        return StatusList.wrap(decompressedBytes).getStatus(credentialIndex, statusSize) != 0;
     }
 
     /**
@@ -96,28 +236,69 @@ public class Utils {
      * @throws IllegalArgumentException If the provided string is not a valid Base64URL string.
      */
     public static byte[] decodeBase64Url(String base64Url) {
-        String standardBase64 = base64Url.replace('-', '+').replace('_', '/');
-        Base64 decoder = new Base64(true);
-        return decoder.decode(standardBase64);
+        int decodedLength = Base64UrlDecoder.decodedLength(base64Url, 0, true);
+        byte[] decoded = new byte[Math.max(decodedLength, 0)];
+        if (decodedLength < 0 || Base64UrlDecoder.decode(base64Url, 0, decoded, true) < 0) {
+            throw new IllegalArgumentException("Invalid Base64URL string");
+        }
+        return decoded;
     }
 
     /**
-     * Decompresses a GZIP-compressed byte array.
+     * Decompresses a GZIP-compressed byte array, of at most {@link StatusListLimits#DEFAULT} decompressed bytes.
      *
      * @param compressedData The GZIP-compressed byte array.
      * @return A byte array containing the decompressed data.
+     * @throws CredentialStatusProcessingException If the data is not valid GZIP or decompresses past the limit.
      */
     public static byte[] decompressGzip(byte[] compressedData) throws CredentialStatusProcessingException {
-        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(compressedData);
+        return decompressGzip(compressedData, compressedData.length, StatusListLimits.DEFAULT.maxInflatedBytes());
+    }
+
+    /**
+     * Decompresses GZIP data into an array that grows as bytes are actually inflated.
+     * The length declared by the GZIP trailer is controlled by the sender, so it only caps the first chunk and each
+     * growth step, saving the final copy when it is right; the decompression stops as soon as more than
+     * {@code maxInflatedBytes} would be produced.
+     */
+    private static byte[] decompressGzip(byte[] compressedData, int length, int maxInflatedBytes) throws CredentialStatusProcessingException {
+        //ISIZE, the last four bytes of the member, is the decompressed length modulo 2^32
+        long declaredLength = length >= GZIP_MIN_LENGTH
+                ? ByteBuffer.wrap(compressedData, length - 4, 4).order(ByteOrder.LITTLE_ENDIAN).getInt() & 0xffffffffL
+                : -1;
+        if (declaredLength > maxInflatedBytes) {
+            throw inflatedSizeLimitExceeded(maxInflatedBytes);
+        }
+        //deflate cannot expand data more than MAX_DEFLATE_RATIO times, whatever the trailer claims
+        long initialLength = Math.min(Math.min(INFLATE_CHUNK, maxInflatedBytes), (long) length * MAX_DEFLATE_RATIO);
+        byte[] bitstring = new byte[(int) (declaredLength >= 0 ? Math.min(declaredLength, initialLength) : initialLength)];
+        try (ByteArrayInputStream byteArrayInputStream = new ByteArrayInputStream(compressedData, 0, length);
              GZIPInputStream gzipInputStream = new GZIPInputStream(byteArrayInputStream)) {
-            byte[] buffer = new byte[1024];
-            int bytesRead;
-            try (ByteArrayOutputStream decompressedStream = new ByteArrayOutputStream()) {
-                while ((bytesRead = gzipInputStream.read(buffer)) != -1) {
-                    decompressedStream.write(buffer, 0, bytesRead);
+            int size = 0;
+            while (true) {
+                if (size == bitstring.length) {
+                    //the output is full, which is expected at the end of the data when the declared length was right
+                    int next = gzipInputStream.read();
+                    if (next < 0) {
+                        break;
+                    }
+                    if (size >= maxInflatedBytes) {
+                        throw inflatedSizeLimitExceeded(maxInflatedBytes);
+                    }
+                    long grownLength = Math.min(maxInflatedBytes, Math.max(INFLATE_CHUNK, 2L * size));
+                    if (declaredLength > size) {
+                        grownLength = Math.min(grownLength, declaredLength);
+                    }
+                    bitstring = Arrays.copyOf(bitstring, (int) grownLength);
+                    bitstring[size++] = (byte) next;
                 }
-                return decompressedStream.toByteArray();
+                int read = gzipInputStream.read(bitstring, size, bitstring.length - size);
+                if (read < 0) {
+                    break;
+                }
+                size += read;
             }
+            return size == bitstring.length ? bitstring : Arrays.copyOf(bitstring, size);
         } catch (IOException e) {
             logger.error(e.getMessage());
             throw new CredentialStatusProcessingException("IO_EXCEPTION", e.getMessage());
@@ -126,16 +307,62 @@ public class Utils {
 
 
     /**
-     * Validates if the given string is a valid Base64URL-encoded string.
-     * Base64URL encoding uses a URL-safe alphabet where '+' and '/' are replaced with '-' and '_', respectively,
-     * and padding ('=') is not used.
+     * @param length the minimum size of the buffer.
+     * @return a buffer of at least the given size, reused by the calling thread up to
+     * {@link #MAX_RETAINED_BUFFER_BYTES} and allocated for this call only above.
+     */
+    private static byte[] decodeBuffer(int length) {
+        if (length > MAX_RETAINED_BUFFER_BYTES) {
+            return new byte[length];
+        }
+        byte[] buffer = DECODE_BUFFER.get();
+        if (buffer.length < length) {
+            buffer = new byte[Math.min(MAX_RETAINED_BUFFER_BYTES, Math.max(length, buffer.length * 2))];
+            DECODE_BUFFER.set(buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Validates that the encoded list is present, prefixed with 'u' and Base64URL-encoded, and decodes it in the same
+     * pass into a buffer from {@link #decodeBuffer(int)}.
      *
-     * @param str The string to validate.
-     * @return true if the string matches the Base64URL pattern, false otherwise.
+     * @param encodedListStr The Base64URL-encoded and compressed string prefixed with 'u'.
+     * @param limits         The maximum compressed size of the bitstring, checked before decoding.
+     * @return The GZIP-compressed bytes, from offset zero of the backing array up to the limit.
+     * @throws CredentialStatusProcessingException If the encoded string is null or empty and is improperly formatted.
      */
-    private static boolean isValidBase64Url(String str) {
-        // Base64URL strings should not have padding '=' and use '-' and '_' instead of '+' and '/'
-        String base64UrlPattern = "^[A-Za-z0-9_-]+$";
-        return str.matches(base64UrlPattern);
+    private static ByteBuffer decodeEncodedList(String encodedListStr, StatusListLimits limits) throws CredentialStatusProcessingException {
+        if (encodedListStr == null || encodedListStr.isEmpty()) {
+            logger.error("Encoded list is null or empty");
+            throw new CredentialStatusProcessingException(Constants.ENCODED_LIST_ERROR_TITLE, Constants.ENCODED_LIST_IS_EMPTY_OR_NULL_ERROR_DETAIL);
+        }
+
+        if (encodedListStr.charAt(0) != 'u') {
+            logger.error("Encoded list does not start with 'u'");
+            throw new CredentialStatusProcessingException(Constants.ENCODED_LIST_ERROR_TITLE, Constants.ENCODED_LIST_STARTS_WITH_U_ERROR_DETAIL);
+        }
+
+        // Validate if the string is Base64URL while decoding it: no padding, '-' and '_' instead of '+' and '/'
+        int decodedLength = Base64UrlDecoder.decodedLength(encodedListStr, 1, false);
+        checkCompressedLength(decodedLength, limits);
+        byte[] buffer = decodeBuffer(Math.max(decodedLength, 0));
+        if (decodedLength < 0 || Base64UrlDecoder.decode(encodedListStr, 1, buffer, false) < 0) {
+            logger.error("The provided string is not a valid Base64URL-encoded string");
+            throw new CredentialStatusProcessingException(Constants.BASE64URL_ERROR_TITLE, Constants.BASE64_URL_ERROR_DETAIL);
+        }
+        return ByteBuffer.wrap(buffer, 0, decodedLength);
+    }
+
+    private static void checkCompressedLength(int compressedLength, StatusListLimits limits) throws CredentialStatusProcessingException {
+        if (compressedLength > limits.maxCompressedBytes()) {
+            logger.error("Compressed status list of {} bytes exceeds the limit of {} bytes", compressedLength, limits.maxCompressedBytes());
+            throw new CredentialStatusProcessingException(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, Constants.STATUS_LIST_COMPRESSED_SIZE_LIMIT_ERROR_DETAIL);
+        }
+    }
+
+    private static CredentialStatusProcessingException inflatedSizeLimitExceeded(int maxInflatedBytes) {
+        logger.error("Decompressed status list exceeds the limit of {} bytes", maxInflatedBytes);
+        return new CredentialStatusProcessingException(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, Constants.STATUS_LIST_INFLATED_SIZE_LIMIT_ERROR_DETAIL);
     }
 }
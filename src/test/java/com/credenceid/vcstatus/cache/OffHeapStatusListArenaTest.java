@@ -0,0 +1,112 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.statuslist.StatusList;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStatusListArenaTest {
+
+    private static final int SLAB_BYTES = 4 * OffHeapStatusListArena.MIN_CHUNK_BYTES;
+
+    private static StatusList heapList(int length, int setBit) {
+        byte[] bitstring = new byte[length];
+        bitstring[setBit / 8] |= (byte) (0x80 >>> setBit % 8);
+        return StatusList.wrap(bitstring);
+    }
+
+    @Test
+    void testCopyOf_readsFromNativeMemory() throws Exception {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(SLAB_BYTES, SLAB_BYTES, Duration.ZERO);
+        StatusList statusList = heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES, 12345);
+
+        StatusList offHeap = arena.copyOf(statusList);
+
+        assertTrue(offHeap.asByteBuffer().isDirect());
+        assertEquals(statusList.byteLength(), offHeap.byteLength());
+        assertTrue(offHeap.isSet(12345));
+        assertFalse(offHeap.isSet(12344));
+        assertEquals(SLAB_BYTES, arena.reservedBytes());
+        assertEquals(OffHeapStatusListArena.MIN_CHUNK_BYTES, arena.usedBytes());
+    }
+
+    @Test
+    void testCopyOf_roundsUpToSizeClass() {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(SLAB_BYTES, SLAB_BYTES, Duration.ZERO);
+
+        StatusList offHeap = arena.copyOf(heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES + 1, 0));
+
+        assertEquals(OffHeapStatusListArena.MIN_CHUNK_BYTES + 1, offHeap.byteLength());
+        assertEquals(2L * OffHeapStatusListArena.MIN_CHUNK_BYTES, arena.usedBytes());
+    }
+
+    @Test
+    void testCopyOf_keepsListOnHeapWhenFull() {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(SLAB_BYTES, SLAB_BYTES, Duration.ZERO);
+        StatusList tooLarge = heapList(SLAB_BYTES + 1, 0);
+
+        assertSame(tooLarge, arena.copyOf(tooLarge));
+        assertEquals(0, arena.reservedBytes());
+    }
+
+    @Test
+    void testCopyOf_givesLargeListsDedicatedBuffers() throws Exception {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(4L * SLAB_BYTES, SLAB_BYTES, Duration.ZERO);
+
+        StatusList offHeap = arena.copyOf(heapList(2 * SLAB_BYTES, 7));
+
+        assertTrue(offHeap.isSet(7));
+        assertEquals(2L * SLAB_BYTES, arena.reservedBytes());
+    }
+
+    @Test
+    void testRelease_quarantinesWhileListIsReferenced() {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(OffHeapStatusListArena.MIN_CHUNK_BYTES,
+                OffHeapStatusListArena.MIN_CHUNK_BYTES, Duration.ZERO);
+        StatusList offHeap = arena.copyOf(heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES, 0));
+        arena.release(offHeap);
+
+        assertFalse(arena.contains(offHeap));
+        assertEquals(0, arena.usedBytes());
+        assertEquals(1, arena.quarantinedCount());
+        //the released list is still referenced, so its memory is not handed out again
+        StatusList other = heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES, 1);
+        assertSame(other, arena.copyOf(other));
+        assertEquals(1, arena.quarantinedCount());
+    }
+
+    @Test
+    void testRelease_reusesMemoryOnceUnreferenced() throws Exception {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(OffHeapStatusListArena.MIN_CHUNK_BYTES,
+                OffHeapStatusListArena.MIN_CHUNK_BYTES, Duration.ZERO);
+        arena.release(arena.copyOf(heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES, 0)));
+
+        StatusList reused = null;
+        for (int attempt = 0; attempt < 50 && (reused == null || !reused.asByteBuffer().isDirect()); attempt++) {
+            System.gc();
+            Thread.sleep(10);
+            reused = arena.copyOf(heapList(OffHeapStatusListArena.MIN_CHUNK_BYTES, 1));
+        }
+
+        assertTrue(reused.asByteBuffer().isDirect());
+        assertTrue(reused.isSet(1));
+        assertFalse(reused.isSet(0));
+        assertEquals(0, arena.quarantinedCount());
+        assertEquals(OffHeapStatusListArena.MIN_CHUNK_BYTES, arena.reservedBytes());
+    }
+
+    @Test
+    void testRelease_ignoresForeignLists() {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(SLAB_BYTES);
+        arena.release(heapList(16, 0));
+        assertEquals(0, arena.quarantinedCount());
+    }
+
+    @Test
+    void testConstructor_rejectsInvalidSlabSize() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapStatusListArena(SLAB_BYTES, 3 * OffHeapStatusListArena.MIN_CHUNK_BYTES, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapStatusListArena(0));
+    }
+}
@@ -0,0 +1,139 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.client.ParsedStatusListCredential;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-10-01T00:00:00Z");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MutableClock clock = new MutableClock(NOW);
+
+    private static CachedStatusList statusList(String url, Instant expiresAt) {
+        return new CachedStatusList(url, "revocation", StatusList.wrap(new byte[16]), NOW, expiresAt, null, null, null, null);
+    }
+
+    @Test
+    void testGet_countsHitsAndMisses() {
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), clock);
+        assertNull(cache.get("https://example.com/status/1"));
+        cache.put(statusList("https://example.com/status/1", NOW.plusSeconds(60)));
+        assertNotNull(cache.get("https://example.com/status/1"));
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    void testPut_evictsLeastRecentlyUsed() {
+        StatusListCache cache = new StatusListCache(2, Duration.ofMinutes(5), clock);
+        cache.put(statusList("https://example.com/status/1", NOW.plusSeconds(60)));
+        cache.put(statusList("https://example.com/status/2", NOW.plusSeconds(60)));
+        cache.get("https://example.com/status/1");
+        cache.put(statusList("https://example.com/status/3", NOW.plusSeconds(60)));
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        assertNotNull(cache.get("https://example.com/status/1"));
+        assertNull(cache.get("https://example.com/status/2"));
+        assertNotNull(cache.get("https://example.com/status/3"));
+    }
+
+    @Test
+    void testPut_copiesListsToArenaAndReleasesEvictedOnes() throws Exception {
+        OffHeapStatusListArena arena = new OffHeapStatusListArena(1 << 20, OffHeapStatusListArena.MIN_CHUNK_BYTES, Duration.ZERO);
+        StatusListCache cache = new StatusListCache(1, Duration.ofMinutes(5), clock, null, arena);
+        byte[] bitstring = new byte[16];
+        bitstring[0] = (byte) 0x80;
+        CachedStatusList stored = cache.put(new CachedStatusList("https://example.com/status/1", "revocation", StatusList.wrap(bitstring),
+                NOW, NOW.plusSeconds(60), null, null, null, null));
+
+        assertTrue(stored.statusList().asByteBuffer().isDirect());
+        assertTrue(arena.contains(stored.statusList()));
+        assertTrue(stored.statusList().isSet(0));
+        assertSame(stored, cache.get("https://example.com/status/1"));
+
+        cache.put(statusList("https://example.com/status/2", NOW.plusSeconds(60)));
+        assertFalse(arena.contains(stored.statusList()));
+        assertEquals(1, arena.quarantinedCount());
+    }
+
+    @Test
+    void testGet_evictsExpiredEntry() {
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), clock);
+        cache.put(statusList("https://example.com/status/1", NOW.plusSeconds(60)));
+        clock.instant = NOW.plusSeconds(60);
+        assertNull(cache.get("https://example.com/status/1"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void testVersion_changesWhenListIsReplacedOrInvalidated() {
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), clock);
+        long initial = cache.version("https://example.com/status/1");
+        CachedStatusList stored = cache.put(statusList("https://example.com/status/1", NOW.plusSeconds(60)));
+        long afterPut = cache.version("https://example.com/status/1");
+        assertNotEquals(initial, afterPut);
+
+        cache.put(stored.renew(NOW, NOW.plusSeconds(120), null));
+        assertEquals(afterPut, cache.version("https://example.com/status/1"));
+
+        cache.invalidate("https://example.com/status/1");
+        assertNotEquals(afterPut, cache.version("https://example.com/status/1"));
+    }
+
+    @Test
+    void testComputeExpiry_usesEarliestOfTtlValidUntilAndMaxAge() throws IOException {
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), clock);
+        ParsedStatusListCredential credential = ParsedStatusListCredential.of(objectMapper.readValue("""
+                {"validUntil": "2024-10-01T00:10:00Z", "credentialSubject": {"ttl": 300000}}""", VerifiableCredential.class));
+
+        assertEquals(NOW.plusSeconds(300), cache.computeExpiry(credential.validUntil(), credential.ttl(), null, NOW));
+        assertEquals(NOW.plusSeconds(30), cache.computeExpiry(credential.validUntil(), credential.ttl(), Duration.ofSeconds(30), NOW));
+        assertEquals(Instant.parse("2024-10-01T00:10:00Z"), cache.computeExpiry(credential.validUntil(), credential.ttl(), null, NOW.plusSeconds(500)));
+    }
+
+    @Test
+    void testComputeExpiry_fallsBackToDefaultTtl() throws IOException {
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), clock);
+        ParsedStatusListCredential credential = ParsedStatusListCredential.of(objectMapper.readValue("""
+                {"credentialSubject": {"statusPurpose": "revocation"}}""", VerifiableCredential.class));
+
+        assertEquals(NOW.plus(Duration.ofMinutes(5)), cache.computeExpiry(credential.validUntil(), credential.ttl(), null, NOW));
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
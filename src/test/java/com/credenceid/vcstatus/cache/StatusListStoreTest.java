@@ -0,0 +1,106 @@
+package com.credenceid.vcstatus.cache;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-10-01T00:00:00Z");
+    private static final String URL = "https://example.com/status/1";
+
+    @TempDir
+    Path directory;
+
+    private static CachedStatusList statusList(String url, byte[] bitstring, Instant expiresAt, String etag) {
+        return new CachedStatusList(url, "revocation", StatusList.wrap(bitstring), NOW, expiresAt,
+                Instant.parse("2025-01-01T00:00:00Z"), Duration.ofMinutes(10), etag, null);
+    }
+
+    @Test
+    void testSaveAndLoad_roundTripsListAndMetadata() throws IOException, CredentialStatusProcessingException {
+        byte[] bitstring = new byte[16 * 1024];
+        new Random(3).nextBytes(bitstring);
+        StatusListStore store = new StatusListStore(directory);
+        store.save(statusList(URL, bitstring, NOW.plusSeconds(60), "\"v1\""));
+
+        CachedStatusList loaded = new StatusListStore(directory).load(URL);
+        assertNotNull(loaded);
+        assertEquals(URL, loaded.statusListCredential());
+        assertEquals("revocation", loaded.statusPurpose());
+        assertEquals(NOW, loaded.fetchedAt());
+        assertEquals(NOW.plusSeconds(60), loaded.expiresAt());
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), loaded.validUntil());
+        assertEquals(Duration.ofMinutes(10), loaded.ttl());
+        assertEquals("\"v1\"", loaded.etag());
+        assertNull(loaded.lastModified());
+        assertEquals(bitstring.length, loaded.statusList().byteLength());
+        assertEquals(StatusList.wrap(bitstring).getStatus(4242, 3), loaded.statusList().getStatus(4242, 3));
+        assertEquals(ByteBuffer.wrap(bitstring), loaded.statusList().asByteBuffer());
+    }
+
+    @Test
+    void testSave_replacesPreviousVersionAndLeavesNoTemporaryFile() throws IOException {
+        StatusListStore store = new StatusListStore(directory);
+        store.save(statusList(URL, new byte[]{1}, NOW.plusSeconds(60), "\"v1\""));
+        store.save(statusList(URL, new byte[]{2, 3}, NOW.plusSeconds(60), "\"v2\""));
+
+        assertEquals("\"v2\"", store.load(URL).etag());
+        assertEquals(2, store.load(URL).statusList().byteLength());
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void testLoadAll_discardsCorruptedFiles() throws IOException {
+        StatusListStore store = new StatusListStore(directory);
+        store.save(statusList(URL, new byte[64], NOW.plusSeconds(60), "\"v1\""));
+        store.save(statusList("https://example.com/status/2", new byte[64], NOW.plusSeconds(60), "\"v1\""));
+        Path corrupted;
+        try (Stream<Path> files = Files.list(directory)) {
+            corrupted = files.findFirst().orElseThrow();
+        }
+        byte[] content = Files.readAllBytes(corrupted);
+        content[content.length - 1] ^= 1;
+        Files.write(corrupted, content, StandardOpenOption.TRUNCATE_EXISTING);
+
+        List<CachedStatusList> loaded = store.loadAll();
+        assertEquals(1, loaded.size());
+        assertFalse(Files.exists(corrupted));
+    }
+
+    @Test
+    void testCache_startsWithStoredLists() throws IOException {
+        StatusListStore store = new StatusListStore(directory);
+        StatusListCache cache = new StatusListCache(10, Duration.ofMinutes(5), store);
+        cache.put(statusList(URL, new byte[16], Instant.now().plusSeconds(60), null));
+        cache.put(statusList("https://example.com/status/2", new byte[16], NOW, null));
+
+        StatusListCache restarted = new StatusListCache(10, Duration.ofMinutes(5), new StatusListStore(directory));
+        assertNotNull(restarted.get(URL));
+        assertNull(restarted.get("https://example.com/status/2"));
+
+        restarted.invalidate(URL);
+        assertNull(store.load(URL));
+    }
+
+    @Test
+    void testLoad_missing() throws IOException {
+        assertNull(new StatusListStore(directory).load(URL));
+    }
+}
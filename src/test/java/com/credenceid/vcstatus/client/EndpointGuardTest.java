@@ -0,0 +1,118 @@
+package com.credenceid.vcstatus.client;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EndpointGuardTest {
+
+    private static final String HOST = "issuer.example.com";
+    private static final String URL = "https://issuer.example.com/status/1";
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-10-01T00:00:00Z"));
+
+    @Test
+    void testEnter_circuitOpensAfterConsecutiveFailuresAndClosesAfterTrial() throws Exception {
+        EndpointGuard endpointGuard = new EndpointGuard(4, 2, Duration.ofMillis(200), Duration.ZERO, clock);
+        for (int i = 0; i < 2; i++) {
+            endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), false, false);
+        }
+        CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class,
+                () -> endpointGuard.enter(URL + "0", HOST, Duration.ZERO));
+        assertEquals(Constants.STATUS_LIST_UNAVAILABLE_ERROR_TITLE, exception.getTitle());
+        //other hosts are not affected
+        endpointGuard.exit(URL, endpointGuard.enter(URL, "other.example.com", Duration.ZERO), true, true);
+
+        clock.advance(Duration.ofMillis(200));
+        EndpointGuard.Permit trial = endpointGuard.enter(URL, HOST, Duration.ZERO);
+        assertThrows(CredentialStatusNetworkException.class, () -> endpointGuard.enter(URL, HOST, Duration.ZERO));
+        endpointGuard.exit(URL, trial, true, true);
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), true, true);
+    }
+
+    @Test
+    void testEnter_failedTrialReopensCircuit() throws Exception {
+        EndpointGuard endpointGuard = new EndpointGuard(4, 1, Duration.ofMillis(100), Duration.ZERO, clock);
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), false, false);
+        clock.advance(Duration.ofMillis(100));
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), false, false);
+
+        assertThrows(CredentialStatusNetworkException.class, () -> endpointGuard.enter(URL, HOST, Duration.ZERO));
+        clock.advance(Duration.ofMillis(99));
+        assertThrows(CredentialStatusNetworkException.class, () -> endpointGuard.enter(URL, HOST, Duration.ZERO));
+    }
+
+    @Test
+    void testExit_requestAdmittedBeforeOpeningDoesNotEndTrial() throws Exception {
+        EndpointGuard endpointGuard = new EndpointGuard(4, 1, Duration.ofMillis(100), Duration.ZERO, clock);
+        EndpointGuard.Permit stale = endpointGuard.enter(URL, HOST, Duration.ZERO);
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), false, false);
+        clock.advance(Duration.ofMillis(100));
+        EndpointGuard.Permit trial = endpointGuard.enter(URL, HOST, Duration.ZERO);
+
+        endpointGuard.exit(URL, stale, false, false);
+        //the trial is still outstanding, so no second one is let through
+        assertThrows(CredentialStatusNetworkException.class, () -> endpointGuard.enter(URL, HOST, Duration.ZERO));
+        endpointGuard.exit(URL, trial, true, true);
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), true, true);
+    }
+
+    @Test
+    void testEnter_failedUrlIsNotRequestedAgainUntilExpiry() throws Exception {
+        EndpointGuard endpointGuard = new EndpointGuard(4, 100, Duration.ofSeconds(1), Duration.ofMillis(100), clock);
+        //the host answered, so only the URL is remembered
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), false, true);
+
+        assertThrows(CredentialStatusNetworkException.class, () -> endpointGuard.enter(URL, HOST, Duration.ZERO));
+        endpointGuard.exit(URL + "2", endpointGuard.enter(URL + "2", HOST, Duration.ZERO), true, true);
+        clock.advance(Duration.ofMillis(100));
+        endpointGuard.exit(URL, endpointGuard.enter(URL, HOST, Duration.ZERO), true, true);
+    }
+
+    @Test
+    void testEnter_bulkheadTimesOutWhenHostIsSaturated() throws Exception {
+        EndpointGuard endpointGuard = new EndpointGuard(1, 100, Duration.ofSeconds(1), Duration.ZERO, clock);
+        EndpointGuard.Permit inFlight = endpointGuard.enter(URL, HOST, Duration.ZERO);
+
+        CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class,
+                () -> endpointGuard.enter(URL + "2", HOST, Duration.ofMillis(50)));
+        assertEquals(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, exception.getTitle());
+        endpointGuard.exit(URL, inFlight, true, true);
+        endpointGuard.exit(URL + "2", endpointGuard.enter(URL + "2", HOST, Duration.ZERO), true, true);
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
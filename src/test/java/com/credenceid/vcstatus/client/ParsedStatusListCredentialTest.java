@@ -0,0 +1,100 @@
+package com.credenceid.vcstatus.client;
+
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParsedStatusListCredentialTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ParsedStatusListCredential parse(String json) throws IOException {
+        return ParsedStatusListCredential.parse(json.getBytes(StandardCharsets.UTF_8), objectMapper.getFactory(),
+                objectMapper.readerFor(VerifiableCredential.class));
+    }
+
+    @Test
+    void testParse_extractsStatusFieldsLikeBinding() throws Exception {
+        byte[] content;
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test_data/BitstringStatusListCredential.json"))) {
+            content = inputStream.readAllBytes();
+        }
+        ParsedStatusListCredential parsed = ParsedStatusListCredential.parse(content, objectMapper.getFactory(),
+                objectMapper.readerFor(VerifiableCredential.class));
+        ParsedStatusListCredential bound = ParsedStatusListCredential.of(objectMapper.readValue(content, VerifiableCredential.class));
+
+        assertEquals("revocation", parsed.statusPurpose());
+        assertEquals(bound.statusPurpose(), parsed.statusPurpose());
+        assertEquals(bound.encodedList(), parsed.encodedList());
+        assertNull(parsed.validUntil());
+        assertNull(parsed.ttl());
+        assertEquals("revocation", parsed.credential().getCredentialSubject().getJsonObject().get("statusPurpose"));
+        assertSame(parsed.credential(), parsed.credential());
+    }
+
+    @Test
+    void testParse_readsFirstObjectOfCredentialSubjectArray() throws IOException {
+        ParsedStatusListCredential parsed = parse("""
+                {"credentialSubject": ["did:example:1", {"statusPurpose": "revocation", "encodedList": "uAAAA", "ttl": 1000},
+                                       {"statusPurpose": "suspension", "encodedList": "uBBBB"}]}
+                """);
+
+        assertEquals("revocation", parsed.statusPurpose());
+        assertEquals("uAAAA", parsed.encodedList());
+        assertEquals(Duration.ofSeconds(1), parsed.ttl());
+    }
+
+    @Test
+    void testParse_skipsUnrelatedValuesAndReadsValidityAndTtl() throws IOException {
+        ParsedStatusListCredential parsed = parse("""
+                {"proof": {"encodedList": "uWrong", "nested": [{"statusPurpose": "x"}]},
+                 "validFrom": "2024-01-01T00:00:00Z", "validUntil": "2025-01-01T00:00:00Z",
+                 "credentialSubject": {"extra": {"ttl": 1}, "statusPurpose": "suspension", "encodedList": "uAAAA", "ttl": 300000}}
+                """);
+
+        assertEquals("suspension", parsed.statusPurpose());
+        assertEquals("uAAAA", parsed.encodedList());
+        assertEquals(Instant.parse("2024-01-01T00:00:00Z"), parsed.validFrom());
+        assertEquals(Instant.parse("2025-01-01T00:00:00Z"), parsed.validUntil());
+        assertEquals(Duration.ofMinutes(5), parsed.ttl());
+    }
+
+    @Test
+    void testParse_ignoresInvalidValues() throws IOException {
+        ParsedStatusListCredential parsed = parse("""
+                {"validUntil": "tomorrow", "credentialSubject": {"encodedList": 12, "ttl": "soon"}}
+                """);
+
+        assertNull(parsed.validUntil());
+        assertNull(parsed.encodedList());
+        assertNull(parsed.ttl());
+    }
+
+    @Test
+    void testParse_rejectsMalformedJson() {
+        assertThrows(IOException.class, () -> parse("[]"));
+        assertThrows(IOException.class, () -> parse("{\"credentialSubject\": {\"encodedList\": \"u\""));
+        assertThrows(IOException.class, () -> parse("{} {}"));
+    }
+
+    @Test
+    void testContentDigest_identifiesTheExactContent() throws IOException {
+        ParsedStatusListCredential first = parse("{\"credentialSubject\": {\"encodedList\": \"uAAAA\"}}");
+        ParsedStatusListCredential same = parse("{\"credentialSubject\": {\"encodedList\": \"uAAAA\"}}");
+        ParsedStatusListCredential other = parse("{\"credentialSubject\": {\"encodedList\": \"uAAAB\"}}");
+
+        assertEquals(32, first.contentDigest().length);
+        assertArrayEquals(first.contentDigest(), same.contentDigest());
+        assertFalse(Arrays.equals(first.contentDigest(), other.contentDigest()));
+    }
+}
@@ -0,0 +1,206 @@
+package com.credenceid.vcstatus.client;
+
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.metrics.HistogramVerificationListener;
+import com.credenceid.vcstatus.metrics.VerificationStage;
+import com.credenceid.vcstatus.util.Constants;
+import com.credenceid.vcstatus.util.StatusListLimits;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListClientTest {
+
+    private static final String ETAG = "\"v1\"";
+
+    private final AtomicInteger missingRequests = new AtomicInteger();
+    private HttpServer server;
+    private String statusListUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        byte[] credential;
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test_data/BitstringStatusListCredential.json"))) {
+            credential = gzip(inputStream.readAllBytes());
+        }
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/status/3", exchange -> {
+            exchange.getResponseHeaders().add("Cache-Control", "max-age=60");
+            exchange.getResponseHeaders().add("ETag", ETAG);
+            if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+                exchange.sendResponseHeaders(200, credential.length);
+                try (OutputStream outputStream = exchange.getResponseBody()) {
+                    outputStream.write(credential);
+                }
+            }
+            exchange.close();
+        });
+        server.createContext("/missing", exchange -> {
+            missingRequests.incrementAndGet();
+            exchange.sendResponseHeaders(404, -1);
+            exchange.close();
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(2000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+        });
+        server.createContext("/stalled", exchange -> {
+            //sends the headers and the start of the body, then stalls
+            exchange.sendResponseHeaders(200, credential.length);
+            OutputStream outputStream = exchange.getResponseBody();
+            outputStream.write(credential, 0, 16);
+            outputStream.flush();
+            try {
+                Thread.sleep(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.close();
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        statusListUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/status/3";
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+            gzipOutputStream.write(data);
+        }
+        return byteArrayOutputStream.toByteArray();
+    }
+
+    @Test
+    void testParseMaxAge() {
+        assertEquals(Duration.ofSeconds(300), StatusListClient.parseMaxAge("public, max-age=300"));
+        assertEquals(Duration.ZERO, StatusListClient.parseMaxAge("no-store"));
+        assertNull(StatusListClient.parseMaxAge("public"));
+        assertNull(StatusListClient.parseMaxAge("max-age=abc"));
+        assertNull(StatusListClient.parseMaxAge(null));
+    }
+
+    @Test
+    void testFetch_gzipEncodedResponse() throws CredentialStatusNetworkException {
+        try (StatusListClient statusListClient = new StatusListClient()) {
+            StatusListResponse statusListResponse = statusListClient.fetch(statusListUrl);
+            assertFalse(statusListResponse.isNotModified());
+            assertEquals("revocation", statusListResponse.credential().getCredentialSubject().getJsonObject().get("statusPurpose"));
+            assertEquals(ETAG, statusListResponse.etag());
+            assertEquals(Duration.ofSeconds(60), statusListResponse.maxAge());
+        }
+    }
+
+    @Test
+    void testFetch_reportsFetchAndParseToListener() throws CredentialStatusNetworkException {
+        HistogramVerificationListener verificationListener = new HistogramVerificationListener();
+        try (StatusListClient statusListClient = StatusListClient.builder().verificationListener(verificationListener).build()) {
+            statusListClient.fetch(statusListUrl);
+            assertThrows(CredentialStatusNetworkException.class, () -> statusListClient.fetch(statusListUrl.replace("/status/3", "/missing")));
+        }
+        assertEquals(2, verificationListener.histogram(VerificationStage.FETCH).count());
+        assertEquals(1, verificationListener.failureCount(VerificationStage.FETCH));
+        assertEquals(1, verificationListener.histogram(VerificationStage.PARSE).count());
+        assertEquals(0, verificationListener.failureCount(VerificationStage.PARSE));
+        assertTrue(verificationListener.fetchedBytes() > 0);
+    }
+
+    @Test
+    void testFetch_notModified() throws CredentialStatusNetworkException {
+        try (StatusListClient statusListClient = new StatusListClient()) {
+            StatusListResponse statusListResponse = statusListClient.fetch(statusListUrl, ETAG, null);
+            assertTrue(statusListResponse.isNotModified());
+            assertNull(statusListResponse.credential());
+        }
+    }
+
+    @Test
+    void testFetch_unexpectedStatus() {
+        try (StatusListClient statusListClient = new StatusListClient()) {
+            CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class, () ->
+                    statusListClient.fetch(statusListUrl.replace("/status/3", "/status/404")));
+            assertEquals(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, exception.getTitle());
+        }
+    }
+
+    @Test
+    void testFetch_invalidUrl() {
+        try (StatusListClient statusListClient = StatusListClient.builder().connectTimeout(Duration.ofSeconds(1)).build()) {
+            CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class, () ->
+                    statusListClient.fetch("not a url"));
+            assertEquals(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, exception.getTitle());
+        }
+    }
+
+    @Test
+    void testFetch_responseSizeLimit() {
+        //the gzip-encoded body is small, the limit applies to the decoded credential
+        StatusListLimits limits = new StatusListLimits(256, 1024, 1024);
+        try (StatusListClient statusListClient = StatusListClient.builder().limits(limits).build()) {
+            CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class, () -> statusListClient.fetch(statusListUrl));
+            assertEquals(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, exception.getTitle());
+            assertEquals(Constants.STATUS_LIST_RESPONSE_SIZE_LIMIT_ERROR_DETAIL, exception.getDetail());
+        }
+    }
+
+    @Test
+    void testFetch_requestTimeout() {
+        try (StatusListClient statusListClient = StatusListClient.builder().requestTimeout(Duration.ofMillis(200)).build()) {
+            CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class,
+                    () -> statusListClient.fetch(statusListUrl.replace("/status/3", "/slow")));
+            assertEquals(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, exception.getTitle());
+        }
+    }
+
+    @Test
+    void testFetch_requestTimeoutCoversStalledBody() {
+        try (StatusListClient statusListClient = StatusListClient.builder().requestTimeout(Duration.ofMillis(300)).build()) {
+            long startNanos = System.nanoTime();
+            CredentialStatusNetworkException exception = assertThrows(CredentialStatusNetworkException.class,
+                    () -> statusListClient.fetch(statusListUrl.replace("/status/3", "/stalled")));
+            assertEquals(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, exception.getTitle());
+            assertTrue(System.nanoTime() - startNanos < Duration.ofSeconds(3).toNanos());
+        }
+    }
+
+    @Test
+    void testFetch_failedUrlFailsFastWithoutRequest() {
+        String missingUrl = statusListUrl.replace("/status/3", "/missing");
+        try (StatusListClient statusListClient = StatusListClient.builder().failureCacheTtl(Duration.ofMinutes(1)).build()) {
+            CredentialStatusNetworkException first = assertThrows(CredentialStatusNetworkException.class, () -> statusListClient.fetch(missingUrl));
+            CredentialStatusNetworkException second = assertThrows(CredentialStatusNetworkException.class, () -> statusListClient.fetch(missingUrl));
+
+            assertEquals(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, first.getTitle());
+            assertEquals(Constants.STATUS_LIST_UNAVAILABLE_ERROR_TITLE, second.getTitle());
+            assertEquals(1, missingRequests.get());
+            //the host answered, so other lists of the same host are still requested
+            assertDoesNotThrow(() -> statusListClient.fetch(statusListUrl));
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.credenceid.vcstatus.proof;
+
+import com.credenceid.vcstatus.client.ParsedStatusListCredential;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.HistogramVerificationListener;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.metrics.VerificationStage;
+import com.credenceid.vcstatus.util.Constants;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListProofVerificationTest {
+
+    private static final String VERIFICATION_METHOD = "did:example:issuer#key-1";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KeyPair keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    private final AtomicInteger verifyCount = new AtomicInteger();
+
+    /**
+     * Local stand-in for a Data Integrity verifier: the proofValue signs the encodedList of the credentialSubject.
+     */
+    private final ProofVerifier proofVerifier = (credential, keyResolver) -> {
+        verifyCount.incrementAndGet();
+        if (!(credential.getJsonObject().get("proof") instanceof Map<?, ?> proof)) {
+            return false;
+        }
+        PublicKey publicKey = keyResolver.resolve((String) proof.get("verificationMethod"));
+        if (publicKey == null) {
+            return false;
+        }
+        try {
+            Signature signature = Signature.getInstance("Ed25519");
+            signature.initVerify(publicKey);
+            signature.update(((String) credential.getCredentialSubject().getJsonObject().get("encodedList")).getBytes(StandardCharsets.UTF_8));
+            return signature.verify(Base64.getUrlDecoder().decode((String) proof.get("proofValue")));
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            return false;
+        }
+    };
+    private final KeyResolver keyResolver = verificationMethod -> VERIFICATION_METHOD.equals(verificationMethod) ? keyPair.getPublic() : null;
+
+    StatusListProofVerificationTest() throws GeneralSecurityException {
+    }
+
+    private ParsedStatusListCredential credential(String encodedList, String signedList) throws Exception {
+        Signature signature = Signature.getInstance("Ed25519");
+        signature.initSign(keyPair.getPrivate());
+        signature.update(signedList.getBytes(StandardCharsets.UTF_8));
+        String json = objectMapper.writeValueAsString(Map.of(
+                "credentialSubject", Map.of("statusPurpose", "revocation", "encodedList", encodedList),
+                "proof", Map.of("verificationMethod", VERIFICATION_METHOD,
+                        "proofValue", Base64.getUrlEncoder().withoutPadding().encodeToString(signature.sign()))));
+        return ParsedStatusListCredential.parse(json.getBytes(StandardCharsets.UTF_8), objectMapper.getFactory(),
+                objectMapper.readerFor(VerifiableCredential.class));
+    }
+
+    @Test
+    void testVerify_checksEachVersionOnce() throws Exception {
+        StatusListProofVerification proofVerification = new StatusListProofVerification(proofVerifier, keyResolver);
+        HistogramVerificationListener listener = new HistogramVerificationListener();
+
+        proofVerification.verify("https://example.com/status/1", credential("uAAAA", "uAAAA"), listener);
+        proofVerification.verify("https://example.com/status/1", credential("uAAAA", "uAAAA"), listener);
+        proofVerification.verify("https://example.com/status/2", credential("uAAAA", "uAAAA"), listener);
+        proofVerification.verify("https://example.com/status/1", credential("uAAAB", "uAAAB"), listener);
+
+        assertEquals(2, verifyCount.get());
+        assertEquals(2, proofVerification.verificationCount());
+        assertEquals(2, proofVerification.cachedCount());
+        assertEquals(4, listener.histogram(VerificationStage.PROOF).count());
+        assertEquals(2, listener.cachedProofCount());
+    }
+
+    @Test
+    void testVerify_rejectsInvalidProofAndRemembersIt() throws Exception {
+        StatusListProofVerification proofVerification = new StatusListProofVerification(proofVerifier, keyResolver);
+        ParsedStatusListCredential tampered = credential("uAAAB", "uAAAA");
+
+        for (int i = 0; i < 2; i++) {
+            CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class,
+                    () -> proofVerification.verify("https://example.com/status/1", tampered, VerificationListener.NOOP));
+            assertEquals(Constants.STATUS_LIST_PROOF_ERROR_TITLE, exception.getTitle());
+        }
+        assertEquals(1, verifyCount.get());
+    }
+
+    @Test
+    void testVerify_doesNotRememberKeyResolutionFailures() throws Exception {
+        AtomicBoolean keyServerDown = new AtomicBoolean(true);
+        StatusListProofVerification proofVerification = new StatusListProofVerification(proofVerifier, verificationMethod -> {
+            if (keyServerDown.get()) {
+                throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+            }
+            return keyResolver.resolve(verificationMethod);
+        });
+        ParsedStatusListCredential credential = credential("uAAAA", "uAAAA");
+
+        assertThrows(CredentialStatusNetworkException.class,
+                () -> proofVerification.verify("https://example.com/status/1", credential, VerificationListener.NOOP));
+        keyServerDown.set(false);
+        proofVerification.verify("https://example.com/status/1", credential, VerificationListener.NOOP);
+
+        assertEquals(2, verifyCount.get());
+        assertEquals(0, proofVerification.cachedCount());
+    }
+
+    @Test
+    void testVerify_doesNotRememberRejectionsWithUnresolvedKey() throws Exception {
+        AtomicBoolean keyPublished = new AtomicBoolean(false);
+        StatusListProofVerification proofVerification = new StatusListProofVerification(proofVerifier,
+                verificationMethod -> keyPublished.get() ? keyResolver.resolve(verificationMethod) : null);
+        ParsedStatusListCredential credential = credential("uAAAA", "uAAAA");
+
+        assertThrows(CredentialStatusProcessingException.class,
+                () -> proofVerification.verify("https://example.com/status/1", credential, VerificationListener.NOOP));
+        keyPublished.set(true);
+        proofVerification.verify("https://example.com/status/1", credential, VerificationListener.NOOP);
+        proofVerification.verify("https://example.com/status/1", credential, VerificationListener.NOOP);
+
+        assertEquals(2, verifyCount.get());
+        assertEquals(1, proofVerification.cachedCount());
+    }
+
+    @Test
+    void testVerify_evictsOldestResults() throws Exception {
+        StatusListProofVerification proofVerification = new StatusListProofVerification(proofVerifier, keyResolver, 1);
+
+        proofVerification.verify("https://example.com/status/1", credential("uAAAA", "uAAAA"), VerificationListener.NOOP);
+        proofVerification.verify("https://example.com/status/2", credential("uAAAB", "uAAAB"), VerificationListener.NOOP);
+        proofVerification.verify("https://example.com/status/1", credential("uAAAA", "uAAAA"), VerificationListener.NOOP);
+
+        assertEquals(3, verifyCount.get());
+    }
+}
@@ -0,0 +1,168 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.client.StatusListResponse;
+import com.credenceid.vcstatus.dto.BatchVerificationResult;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.danubetech.verifiablecredentials.credentialstatus.CredentialStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchStatusVerifierTest {
+
+    private static final String STATUS_LIST_URL = "https://dhs-svip.github.io/ns/uscis/status/3";
+    private static final String FAILING_STATUS_LIST_URL = "https://example.com/status/unavailable";
+    private static final String FLAKY_STATUS_LIST_URL = "https://example.com/status/flaky";
+
+    private final Map<String, AtomicInteger> fetchCounts = new ConcurrentHashMap<>();
+
+    private static CredentialStatus credentialStatus(String statusListCredential, String statusListIndex) {
+        CredentialStatus credentialStatus = mock(CredentialStatus.class);
+        when(credentialStatus.getJsonObject()).thenReturn(Map.of(
+                "statusPurpose", "revocation",
+                "statusListIndex", statusListIndex,
+                "statusListCredential", statusListCredential));
+        return credentialStatus;
+    }
+
+    private StatusListClient statusListClient() throws IOException {
+        VerifiableCredential credential;
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test_data/BitstringStatusListCredential.json"))) {
+            credential = new ObjectMapper().readValue(inputStream, VerifiableCredential.class);
+        }
+        return new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url) throws CredentialStatusNetworkException {
+                int fetchCount = fetchCounts.computeIfAbsent(url, key -> new AtomicInteger()).incrementAndGet();
+                if (FAILING_STATUS_LIST_URL.equals(url) || FLAKY_STATUS_LIST_URL.equals(url) && fetchCount == 1) {
+                    throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+                }
+                return new StatusListResponse(credential, null);
+            }
+        };
+    }
+
+    @Test
+    void testVerify_reportsErrorsPerCredentialAndFetchesEachListOnce() throws IOException {
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient(), null);
+        BatchStatusVerifier batchStatusVerifier = new BatchStatusVerifier(statusListResolver, Executors.newVirtualThreadPerTaskExecutor(), 2);
+        List<List<CredentialStatus>> credentials = List.of(
+                List.of(credentialStatus(STATUS_LIST_URL, "4000")),
+                List.of(credentialStatus(STATUS_LIST_URL, "-1")),
+                List.of(credentialStatus(FAILING_STATUS_LIST_URL, "1")),
+                List.of(credentialStatus(STATUS_LIST_URL, "4001"), credentialStatus(FAILING_STATUS_LIST_URL, "2")),
+                List.of(credentialStatus(STATUS_LIST_URL, "4001")));
+
+        List<BatchVerificationResult> results = new ArrayList<>();
+        batchStatusVerifier.verify(credentials.iterator(), results::add);
+
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).sequence());
+        }
+        assertTrue(results.get(0).statusVerificationResults().getFirst().status());
+        assertEquals(Constants.STATUS_LIST_INDEX_ERROR_TITLE, assertInstanceOf(CredentialStatusProcessingException.class, results.get(1).error()).getTitle());
+        assertInstanceOf(CredentialStatusNetworkException.class, results.get(2).error());
+        assertInstanceOf(CredentialStatusNetworkException.class, results.get(3).error());
+        assertTrue(results.get(4).isSuccess());
+        assertFalse(results.get(4).statusVerificationResults().getFirst().status());
+        assertEquals(1, fetchCounts.get(STATUS_LIST_URL).get());
+        assertEquals(1, fetchCounts.get(FAILING_STATUS_LIST_URL).get());
+    }
+
+    @Test
+    void testVerify_resolvesFailedListAgainInNextWindow() throws IOException {
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient(), null);
+        BatchStatusVerifier batchStatusVerifier = new BatchStatusVerifier(statusListResolver, Executors.newVirtualThreadPerTaskExecutor(), 1);
+        List<List<CredentialStatus>> credentials = List.of(
+                List.of(credentialStatus(FLAKY_STATUS_LIST_URL, "4000")),
+                List.of(credentialStatus(FLAKY_STATUS_LIST_URL, "4000")),
+                List.of(credentialStatus(FLAKY_STATUS_LIST_URL, "4001")));
+
+        List<BatchVerificationResult> results = new ArrayList<>();
+        batchStatusVerifier.verify(credentials.iterator(), results::add);
+
+        assertInstanceOf(CredentialStatusNetworkException.class, results.get(0).error());
+        assertTrue(results.get(1).statusVerificationResults().getFirst().status());
+        assertFalse(results.get(2).statusVerificationResults().getFirst().status());
+        assertEquals(2, fetchCounts.get(FLAKY_STATUS_LIST_URL).get());
+    }
+
+    @Test
+    void testVerify_resolvesExpiredListAgain() throws IOException {
+        MutableClock clock = new MutableClock(Instant.parse("2024-10-01T00:00:00Z"));
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient(), new StatusListCache(10, Duration.ofMinutes(5), clock));
+        BatchStatusVerifier batchStatusVerifier = new BatchStatusVerifier(statusListResolver, Executors.newVirtualThreadPerTaskExecutor(), 1);
+        Iterator<List<CredentialStatus>> credentials = List.of(
+                List.of(credentialStatus(STATUS_LIST_URL, "4000")),
+                List.of(credentialStatus(STATUS_LIST_URL, "4000")),
+                List.of(credentialStatus(STATUS_LIST_URL, "4001"))).iterator();
+        Iterator<List<CredentialStatus>> slowCredentials = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return credentials.hasNext();
+            }
+
+            @Override
+            public List<CredentialStatus> next() {
+                //the batch runs for longer than the lifetime of the list
+                clock.instant = clock.instant.plus(Duration.ofMinutes(3));
+                return credentials.next();
+            }
+        };
+
+        List<BatchVerificationResult> results = new ArrayList<>();
+        batchStatusVerifier.verify(slowCredentials, results::add);
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(BatchVerificationResult::isSuccess));
+        assertEquals(2, fetchCounts.get(STATUS_LIST_URL).get());
+    }
+
+    private static class MutableClock extends Clock {
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
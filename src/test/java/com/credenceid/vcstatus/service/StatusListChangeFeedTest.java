@@ -0,0 +1,104 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.dto.StatusListChange;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListChangeFeedTest {
+
+    private static final String STATUS_LIST_URL = "https://example.com/status/1";
+
+    private static CachedStatusList version(String statusPurpose, int... setBits) {
+        byte[] bitstring = new byte[16];
+        for (int bit : setBits) {
+            bitstring[bit / 8] |= (byte) (0x80 >>> (bit % 8));
+        }
+        return new CachedStatusList(STATUS_LIST_URL, statusPurpose, StatusList.wrap(bitstring), null, null, null, null, null, null);
+    }
+
+    @Test
+    void testPublish_notifiesChangedIndicesAfterBaseline() throws Exception {
+        StatusListChangeFeed changeFeed = new StatusListChangeFeed(null);
+        List<StatusListChange> changes = new ArrayList<>();
+        changeFeed.subscribe(STATUS_LIST_URL, "revocation", 1, changes::add);
+
+        changeFeed.publish(version("revocation", 3));
+        assertTrue(changes.isEmpty());
+        changeFeed.publish(version("revocation", 3, 5, 100));
+        changeFeed.publish(version("revocation", 5));
+
+        assertEquals(2, changes.size());
+        assertArrayEquals(new int[]{5, 100}, changes.get(0).changedIndices());
+        assertArrayEquals(new int[]{3, 100}, changes.get(1).changedIndices());
+        assertEquals(STATUS_LIST_URL, changes.get(1).statusListCredential());
+    }
+
+    @Test
+    void testPublish_filtersByPurposeAndIgnoresSameVersion() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        CachedStatusList baseline = version("suspension");
+        statusListCache.put(baseline);
+        StatusListChangeFeed changeFeed = new StatusListChangeFeed(statusListCache);
+        List<StatusListChange> revocations = new ArrayList<>();
+        List<StatusListChange> suspensions = new ArrayList<>();
+        changeFeed.subscribe(STATUS_LIST_URL, "revocation", 1, revocations::add);
+        changeFeed.subscribe(STATUS_LIST_URL, null, 2, suspensions::add);
+
+        changeFeed.publish(baseline);
+        changeFeed.publish(version("suspension", 6, 7));
+
+        assertTrue(revocations.isEmpty());
+        assertEquals(1, suspensions.size());
+        assertArrayEquals(new int[]{3}, suspensions.getFirst().changedIndices());
+    }
+
+    @Test
+    void testPublish_matchesPurposeIgnoringCase() throws Exception {
+        StatusListChangeFeed changeFeed = new StatusListChangeFeed(null);
+        List<StatusListChange> changes = new ArrayList<>();
+        changeFeed.subscribe(STATUS_LIST_URL, "revocation", 1, changes::add);
+
+        changeFeed.publish(version("Revocation"));
+        changeFeed.publish(version("Revocation", 2));
+
+        assertEquals(1, changes.size());
+        assertArrayEquals(new int[]{2}, changes.getFirst().changedIndices());
+    }
+
+    @Test
+    void testSubscription_closeStopsWatching() throws Exception {
+        StatusListChangeFeed changeFeed = new StatusListChangeFeed(null);
+        List<StatusListChange> changes = new ArrayList<>();
+        StatusListChangeFeed.Subscription subscription = changeFeed.subscribe(STATUS_LIST_URL, null, 1, changes::add);
+        changeFeed.publish(version("revocation"));
+        assertTrue(changeFeed.isWatched(STATUS_LIST_URL));
+
+        subscription.close();
+        changeFeed.publish(version("revocation", 1));
+
+        assertFalse(changeFeed.isWatched(STATUS_LIST_URL));
+        assertTrue(changes.isEmpty());
+    }
+
+    @Test
+    void testPublish_failingSubscriberDoesNotStopOthers() throws Exception {
+        StatusListChangeFeed changeFeed = new StatusListChangeFeed(null);
+        List<StatusListChange> changes = new ArrayList<>();
+        changeFeed.subscribe(STATUS_LIST_URL, null, 1, change -> {
+            throw new IllegalStateException("subscriber failure");
+        });
+        changeFeed.subscribe(STATUS_LIST_URL, null, 1, changes::add);
+
+        changeFeed.publish(version("revocation"));
+        changeFeed.publish(version("revocation", 0));
+
+        assertEquals(1, changes.size());
+    }
+}
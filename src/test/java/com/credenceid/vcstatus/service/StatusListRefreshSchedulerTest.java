@@ -0,0 +1,138 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.client.StatusListResponse;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListRefreshSchedulerTest {
+
+    private static final String STATUS_LIST_URL = "https://dhs-svip.github.io/ns/uscis/status/3";
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+
+    private StatusListClient countingClient() throws IOException {
+        VerifiableCredential credential;
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test_data/BitstringStatusListCredential.json"))) {
+            credential = new ObjectMapper().readValue(inputStream, VerifiableCredential.class);
+        }
+        return new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) {
+                fetchCount.incrementAndGet();
+                return new StatusListResponse(credential, null);
+            }
+        };
+    }
+
+    private static CachedStatusList statusList(Instant fetchedAt, Instant expiresAt) {
+        return new CachedStatusList(STATUS_LIST_URL, "revocation", StatusList.wrap(new byte[16]), fetchedAt, expiresAt,
+                null, null, "\"v0\"", null);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void testResolve_servesExpiredListWhileRefreshing() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        Instant now = statusListCache.now();
+        CachedStatusList expired = statusList(now.minusSeconds(70), now.minusSeconds(10));
+        statusListCache.put(expired);
+        StatusVerifierService statusVerifierService = new StatusVerifierService(countingClient(), statusListCache);
+        StatusListResolver statusListResolver = statusVerifierService.statusListResolver;
+
+        try (StatusListRefreshScheduler scheduler = statusVerifierService.refreshAhead().start()) {
+            assertSame(expired, statusListResolver.resolve(STATUS_LIST_URL));
+            awaitCondition(() -> scheduler.refreshCount() == 1);
+            assertEquals(1, scheduler.refreshCount());
+            assertEquals(1, fetchCount.get());
+            assertNotSame(expired, statusListCache.get(STATUS_LIST_URL));
+        }
+    }
+
+    @Test
+    void testResolve_waitsWhenListIsTooStale() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        Instant now = statusListCache.now();
+        CachedStatusList expired = statusList(now.minusSeconds(600), now.minusSeconds(300));
+        statusListCache.put(expired);
+        StatusVerifierService statusVerifierService = new StatusVerifierService(countingClient(), statusListCache);
+
+        try (StatusListRefreshScheduler ignored = statusVerifierService.refreshAhead().maxStale(Duration.ofMinutes(1)).start()) {
+            assertNotSame(expired, statusVerifierService.statusListResolver.resolve(STATUS_LIST_URL));
+            assertEquals(1, fetchCount.get());
+        }
+    }
+
+    @Test
+    void testRecordAccess_refreshesHotListBeforeExpiry() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        Instant now = statusListCache.now();
+        statusListCache.put(statusList(now.minusSeconds(100), now.plusSeconds(30)));
+        StatusVerifierService statusVerifierService = new StatusVerifierService(countingClient(), statusListCache);
+
+        try (StatusListRefreshScheduler scheduler = statusVerifierService.refreshAhead().start()) {
+            statusVerifierService.statusListResolver.resolve(STATUS_LIST_URL);
+            assertEquals(0, fetchCount.get());
+            awaitCondition(() -> scheduler.refreshCount() == 1);
+            assertEquals(1, fetchCount.get());
+            assertEquals(1, scheduler.hotCount());
+        }
+    }
+
+    @Test
+    void testRecordCachedResult_keepsListHot() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        Instant now = statusListCache.now();
+        statusListCache.put(statusList(now.minusSeconds(100), now.plusSeconds(300)));
+        StatusVerifierService statusVerifierService = new StatusVerifierService(countingClient(), statusListCache);
+
+        try (StatusListRefreshScheduler scheduler = statusVerifierService.refreshAhead().start()) {
+            statusVerifierService.statusListResolver.recordCachedResult(STATUS_LIST_URL);
+            statusVerifierService.statusListResolver.recordCachedResult(STATUS_LIST_URL);
+            assertEquals(1, scheduler.hotCount());
+            assertEquals(2, statusListCache.hitCount());
+            assertEquals(0, fetchCount.get());
+        }
+    }
+
+    @Test
+    void testRefresh_dropsColdList() throws Exception {
+        StatusListCache statusListCache = new StatusListCache();
+        Instant now = statusListCache.now();
+        statusListCache.put(statusList(now.minusSeconds(70), now.minusSeconds(10)));
+        StatusVerifierService statusVerifierService = new StatusVerifierService(countingClient(), statusListCache);
+
+        try (StatusListRefreshScheduler scheduler = statusVerifierService.refreshAhead().coldAfter(Duration.ZERO).start()) {
+            statusVerifierService.statusListResolver.resolve(STATUS_LIST_URL);
+            awaitCondition(() -> scheduler.hotCount() == 0);
+            assertEquals(0, scheduler.hotCount());
+            assertEquals(0, scheduler.refreshCount());
+            assertEquals(0, fetchCount.get());
+        }
+    }
+
+    @Test
+    void testRefreshAhead_requiresCache() {
+        assertThrows(IllegalStateException.class, () -> new StatusVerifierService(null).refreshAhead());
+    }
+}
@@ -0,0 +1,268 @@
+package com.credenceid.vcstatus.service;
+
+import com.credenceid.vcstatus.cache.CachedStatusList;
+import com.credenceid.vcstatus.cache.StatusListCache;
+import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.client.StatusListResponse;
+import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.metrics.HistogramVerificationListener;
+import com.credenceid.vcstatus.metrics.VerificationListener;
+import com.credenceid.vcstatus.metrics.VerificationStage;
+import com.credenceid.vcstatus.proof.StatusListProofVerification;
+import com.credenceid.vcstatus.statuslist.StatusList;
+import com.credenceid.vcstatus.util.Constants;
+import com.danubetech.verifiablecredentials.VerifiableCredential;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListResolverTest {
+
+    private static final String STATUS_LIST_URL = "https://dhs-svip.github.io/ns/uscis/status/3";
+
+    private final AtomicInteger fetchCount = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private VerifiableCredential readCredential() throws IOException {
+        try (InputStream inputStream = Objects.requireNonNull(getClass().getClassLoader().getResourceAsStream("test_data/BitstringStatusListCredential.json"))) {
+            return new ObjectMapper().readValue(inputStream, VerifiableCredential.class);
+        }
+    }
+
+    @Test
+    void testResolve_concurrentCallersShareOneFetch() throws Exception {
+        VerifiableCredential credential = readCredential();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url) throws CredentialStatusNetworkException {
+                fetchCount.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return new StatusListResponse(credential, null);
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, null);
+        List<Future<CachedStatusList>> futures = new ArrayList<>();
+        try (ExecutorService executorService = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> statusListResolver.resolve(STATUS_LIST_URL)));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            CachedStatusList first = futures.getFirst().get(5, TimeUnit.SECONDS);
+            for (Future<CachedStatusList> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+        }
+        assertEquals(1, fetchCount.get());
+    }
+
+    @Test
+    void testResolve_failureIsNotRemembered() {
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url) throws CredentialStatusNetworkException {
+                fetchCount.incrementAndGet();
+                throw new CredentialStatusNetworkException(Constants.STATUS_LIST_NETWORK_ERROR_TITLE, Constants.STATUS_LIST_NETWORK_ERROR_DETAIL);
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, null);
+        assertThrows(CredentialStatusNetworkException.class, () -> statusListResolver.resolve(STATUS_LIST_URL));
+        assertThrows(CredentialStatusNetworkException.class, () -> statusListResolver.resolve(STATUS_LIST_URL));
+        assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    void testResolve_revalidatesExpiredListWithValidators() throws Exception {
+        VerifiableCredential credential = readCredential();
+        List<String> receivedEtags = new ArrayList<>();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) {
+                receivedEtags.add(etag);
+                return etag == null
+                        ? new StatusListResponse(credential, Duration.ZERO, "\"v1\"", null)
+                        : StatusListResponse.notModified(Duration.ZERO, null);
+            }
+        };
+        StatusListCache statusListCache = new StatusListCache();
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, statusListCache);
+
+        CachedStatusList fetched = statusListResolver.resolve(STATUS_LIST_URL);
+        CachedStatusList revalidated = statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertSame(fetched.statusList(), revalidated.statusList());
+        assertEquals("\"v1\"", revalidated.etag());
+        assertEquals(Arrays.asList(null, "\"v1\""), receivedEtags);
+    }
+
+    @Test
+    void testResolve_fetchesAgainListPastValidUntilInsteadOfRevalidating() throws Exception {
+        VerifiableCredential credential = readCredential();
+        List<String> receivedEtags = new ArrayList<>();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) {
+                receivedEtags.add(etag);
+                return new StatusListResponse(credential, null, "\"v2\"", null);
+            }
+
+            @Override
+            public StatusListResponse fetch(String url) {
+                return fetch(url, null, null);
+            }
+        };
+        StatusListCache statusListCache = new StatusListCache();
+        Instant validUntil = statusListCache.now().minusSeconds(1);
+        statusListCache.put(new CachedStatusList(STATUS_LIST_URL, "revocation", StatusList.wrap(new byte[16 * 1024]),
+                validUntil.minusSeconds(60), validUntil, validUntil, null, "\"v1\"", null));
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, statusListCache);
+
+        CachedStatusList resolved = statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertEquals(Collections.singletonList(null), receivedEtags);
+        assertEquals("\"v2\"", resolved.etag());
+        assertTrue(resolved.statusList().isSet(4000));
+    }
+
+    @Test
+    void testResolve_reportsDecodeInflateAndCacheEvents() throws Exception {
+        VerifiableCredential credential = readCredential();
+        HistogramVerificationListener verificationListener = new HistogramVerificationListener();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) {
+                return new StatusListResponse(credential, null);
+            }
+
+            @Override
+            public VerificationListener verificationListener() {
+                return verificationListener;
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, new StatusListCache());
+        statusListResolver.resolve(STATUS_LIST_URL);
+        statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertEquals(1, verificationListener.histogram(VerificationStage.DECODE).count());
+        assertEquals(1, verificationListener.histogram(VerificationStage.INFLATE).count());
+        assertEquals(16 * 1024, verificationListener.inflatedBytes());
+        assertEquals(1, verificationListener.cacheMissCount());
+        assertEquals(1, verificationListener.cacheHitCount());
+    }
+
+    @Test
+    void testResolve_servesExpiredListWhenFetchFailsWithinStaleIfError() throws Exception {
+        VerifiableCredential credential = readCredential();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) throws CredentialStatusNetworkException {
+                if (fetchCount.getAndIncrement() > 0) {
+                    throw new CredentialStatusNetworkException(Constants.STATUS_LIST_UNAVAILABLE_ERROR_TITLE, Constants.STATUS_LIST_UNAVAILABLE_ERROR_DETAIL);
+                }
+                return new StatusListResponse(credential, Duration.ZERO, "\"v1\"", null);
+            }
+
+            @Override
+            public Duration staleIfError() {
+                return Duration.ofMinutes(1);
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, new StatusListCache());
+        CachedStatusList fetched = statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertSame(fetched, statusListResolver.resolve(STATUS_LIST_URL));
+        assertEquals(2, fetchCount.get());
+    }
+
+    @Test
+    void testResolve_reportsFailureWithoutStaleIfError() throws Exception {
+        VerifiableCredential credential = readCredential();
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url, String etag, String lastModified) throws CredentialStatusNetworkException {
+                if (fetchCount.getAndIncrement() > 0) {
+                    throw new CredentialStatusNetworkException(Constants.STATUS_LIST_UNAVAILABLE_ERROR_TITLE, Constants.STATUS_LIST_UNAVAILABLE_ERROR_DETAIL);
+                }
+                return new StatusListResponse(credential, Duration.ZERO, "\"v1\"", null);
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, new StatusListCache());
+        statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertThrows(CredentialStatusNetworkException.class, () -> statusListResolver.resolve(STATUS_LIST_URL));
+    }
+
+    @Test
+    void testResolve_verifiesProofOncePerListVersion() throws Exception {
+        VerifiableCredential credential = readCredential();
+        AtomicInteger proofCount = new AtomicInteger();
+        StatusListProofVerification proofVerification = new StatusListProofVerification((vc, keyResolver) -> {
+            proofCount.incrementAndGet();
+            return vc.getJsonObject().containsKey("proof");
+        }, verificationMethod -> null);
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url) {
+                fetchCount.incrementAndGet();
+                return new StatusListResponse(credential, null);
+            }
+
+            @Override
+            public StatusListProofVerification proofVerification() {
+                return proofVerification;
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, null);
+        statusListResolver.resolve(STATUS_LIST_URL);
+        statusListResolver.resolve(STATUS_LIST_URL);
+
+        assertEquals(2, fetchCount.get());
+        assertEquals(1, proofCount.get());
+        assertEquals(1, proofVerification.cachedCount());
+    }
+
+    @Test
+    void testResolve_rejectsListWithInvalidProof() throws Exception {
+        VerifiableCredential credential = readCredential();
+        StatusListProofVerification proofVerification = new StatusListProofVerification((vc, keyResolver) -> false, verificationMethod -> null);
+        StatusListClient statusListClient = new StatusListClient() {
+            @Override
+            public StatusListResponse fetch(String url) {
+                return new StatusListResponse(credential, null);
+            }
+
+            @Override
+            public StatusListProofVerification proofVerification() {
+                return proofVerification;
+            }
+        };
+        StatusListResolver statusListResolver = new StatusListResolver(statusListClient, new StatusListCache());
+
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class,
+                () -> statusListResolver.resolve(STATUS_LIST_URL));
+        assertEquals(Constants.STATUS_LIST_PROOF_ERROR_TITLE, exception.getTitle());
+        assertEquals(0, statusListResolver.statusListCache().size());
+    }
+}
@@ -0,0 +1,68 @@
+package com.credenceid.vcstatus.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusResultCacheTest {
+
+    private static final String STATUS_LIST_URL = "https://example.com/status/1";
+
+    private static StatusEntry entry(String statusPurpose, int statusListIndex) {
+        return new StatusEntry(statusPurpose, statusListIndex, STATUS_LIST_URL, 1, Map.of());
+    }
+
+    @Test
+    void testGet_returnsResultOfSameVersion() {
+        StatusResultCache cache = new StatusResultCache(100, Duration.ofMinutes(1));
+        cache.put(entry("revocation", 4000), 7, 1, Duration.ofMinutes(5), 0);
+
+        assertEquals(1, cache.get(entry("revocation", 4000), 7, 1));
+        assertEquals(-1, cache.get(entry("revocation", 4001), 7, 1));
+        assertEquals(-1, cache.get(entry("suspension", 4000), 7, 1));
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    void testGet_ignoresResultOfOtherVersion() {
+        StatusResultCache cache = new StatusResultCache(100, Duration.ofMinutes(1));
+        cache.put(entry("revocation", 4000), 7, 1, Duration.ofMinutes(5), 0);
+
+        assertEquals(-1, cache.get(entry("revocation", 4000), 8, 1));
+    }
+
+    @Test
+    void testGet_expiresWithTtlOrStatusList() {
+        StatusResultCache cache = new StatusResultCache(100, Duration.ofSeconds(10));
+        cache.put(entry("revocation", 1), 0, 0, Duration.ofMinutes(5), 0);
+        cache.put(entry("revocation", 2), 0, 0, Duration.ofSeconds(2), 0);
+        cache.put(entry("revocation", 3), 0, 0, Duration.ZERO, 0);
+
+        assertEquals(0, cache.get(entry("revocation", 1), 0, Duration.ofSeconds(9).toNanos()));
+        assertEquals(-1, cache.get(entry("revocation", 1), 0, Duration.ofSeconds(10).toNanos()));
+        assertEquals(0, cache.get(entry("revocation", 2), 0, Duration.ofSeconds(1).toNanos()));
+        assertEquals(-1, cache.get(entry("revocation", 2), 0, Duration.ofSeconds(2).toNanos()));
+        assertEquals(-1, cache.get(entry("revocation", 3), 0, 0));
+    }
+
+    @Test
+    void testConstructor_roundsCapacityToPowerOfTwo() {
+        assertEquals(1, new StatusResultCache(1, Duration.ofSeconds(1)).capacity());
+        assertEquals(1024, new StatusResultCache(1000, Duration.ofSeconds(1)).capacity());
+        assertEquals(1024, new StatusResultCache(1024, Duration.ofSeconds(1)).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new StatusResultCache(0, Duration.ofSeconds(1)));
+    }
+
+    @Test
+    void testClear_removesEveryResult() {
+        StatusResultCache cache = new StatusResultCache(100, Duration.ofMinutes(1));
+        cache.put(entry("revocation", 4000), 7, 1, Duration.ofMinutes(5), 0);
+        cache.clear();
+
+        assertEquals(-1, cache.get(entry("revocation", 4000), 7, 1));
+    }
+}
@@ -1,6 +1,8 @@
 package com.credenceid.vcstatus.service;
 
+import com.credenceid.vcstatus.cache.StatusListCache;
 import com.credenceid.vcstatus.client.StatusListClient;
+import com.credenceid.vcstatus.client.StatusListResponse;
 import com.credenceid.vcstatus.dto.StatusVerificationResult;
 import com.credenceid.vcstatus.exception.CredentialStatusNetworkException;
 import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
@@ -13,18 +15,27 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
-import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,6 +49,9 @@ class StatusVerifierServiceTest {
     @Mock
     private Map<String, Object> jsonObjectMock;
 
+    @Mock
+    private StatusListClient statusListClient;
+
     @BeforeEach
     void init() {
         when(credentialStatus.getJsonObject()).thenReturn(jsonObjectMock);
@@ -58,19 +72,149 @@ class StatusVerifierServiceTest {
         List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
         VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
 
-        try (var mockClient = Mockito.mockStatic(StatusListClient.class)) {
-            mockClient.when(() -> StatusListClient.fetchStatusListCredential(any()))
-                    .thenReturn(bitStringStatusListCredential);
-            List<StatusVerificationResult> results = StatusVerifierService.verifyStatus(listOfCredentialStatus);
-            assertNotNull(results);
-            assertFalse(results.isEmpty());
-            assertTrue(results.getFirst().status());
-            assertEquals("revocation", results.getFirst().statusPurpose());
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        List<StatusVerificationResult> results = new StatusVerifierService(statusListClient, null).verify(listOfCredentialStatus);
+        assertNotNull(results);
+        assertFalse(results.isEmpty());
+        assertTrue(results.getFirst().status());
+        assertEquals("revocation", results.getFirst().statusPurpose());
+    }
+
+    @Test
+    @DisplayName("testVerifyStatus_CachedStatusList will fetch the status list only once")
+    void testVerifyStatus_CachedStatusList() throws IOException, CredentialStatusProcessingException, CredentialStatusNetworkException {
+        String mockResource = "test_data/BitstringStatusListCredential.json";
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(Objects.requireNonNull(classLoader.getResource(mockResource), "Resource not found: " + mockResource).getFile());
+        String mockStatusJSON = Files.readString(file.toPath());
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
+        StatusListCache statusListCache = new StatusListCache();
+        StatusVerifierService statusVerifierService = new StatusVerifierService(statusListClient, statusListCache);
+
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        assertTrue(statusVerifierService.verify(listOfCredentialStatus).getFirst().status());
+        assertTrue(statusVerifierService.verify(listOfCredentialStatus).getFirst().status());
+        verify(statusListClient, times(1)).fetch(any());
+        assertEquals(1, statusListCache.hitCount());
+        assertEquals(1, statusListCache.missCount());
+    }
+
+    @Test
+    @DisplayName("testVerifyStatus_CachedResult will reuse the result until the status list changes")
+    void testVerifyStatus_CachedResult() throws IOException, CredentialStatusProcessingException, CredentialStatusNetworkException {
+        String mockResource = "test_data/BitstringStatusListCredential.json";
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(Objects.requireNonNull(classLoader.getResource(mockResource), "Resource not found: " + mockResource).getFile());
+        String mockStatusJSON = Files.readString(file.toPath());
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
+        StatusListCache statusListCache = new StatusListCache();
+        StatusResultCache statusResultCache = new StatusResultCache();
+        StatusVerifierService statusVerifierService = new StatusVerifierService(statusListClient, statusListCache, statusResultCache);
+
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        assertTrue(statusVerifierService.verify(listOfCredentialStatus).getFirst().status());
+        assertTrue(statusVerifierService.verify(listOfCredentialStatus).getFirst().status());
+        assertEquals(1, statusResultCache.hitCount());
+        //the list answered from cached results counts as served from the cache
+        assertEquals(1, statusListCache.hitCount());
+
+        statusListCache.invalidate("https://dhs-svip.github.io/ns/uscis/status/3");
+        assertTrue(statusVerifierService.verify(listOfCredentialStatus).getFirst().status());
+        verify(statusListClient, times(2)).fetch(any());
+        assertEquals(1, statusResultCache.hitCount());
+    }
+
+    @Test
+    @DisplayName("testVerifyStatus_SharedStatusList will fetch a status list referenced twice only once")
+    void testVerifyStatus_SharedStatusList() throws IOException, CredentialStatusProcessingException, CredentialStatusNetworkException {
+        String mockResource = "test_data/BitstringStatusListCredential.json";
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(Objects.requireNonNull(classLoader.getResource(mockResource), "Resource not found: " + mockResource).getFile());
+        String mockStatusJSON = Files.readString(file.toPath());
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000", "4001");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus, credentialStatus);
+        VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
+
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        List<StatusVerificationResult> results = new StatusVerifierService(statusListClient, null).verify(listOfCredentialStatus);
+        assertEquals(2, results.size());
+        assertTrue(results.get(0).status());
+        assertFalse(results.get(1).status());
+        verify(statusListClient, times(1)).fetch(any());
+    }
+
+    @Test
+    @DisplayName("testVerifyStatusAsync_RevocationTrue will complete with the revocation status as True")
+    void testVerifyStatusAsync_RevocationTrue() throws Exception {
+        String mockResource = "test_data/BitstringStatusListCredential.json";
+        ClassLoader classLoader = getClass().getClassLoader();
+        File file = new File(Objects.requireNonNull(classLoader.getResource(mockResource), "Resource not found: " + mockResource).getFile());
+        String mockStatusJSON = Files.readString(file.toPath());
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
+
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        List<StatusVerificationResult> results = new StatusVerifierService(statusListClient, null)
+                .verifyStatusAsync(listOfCredentialStatus).get(5, TimeUnit.SECONDS);
+        assertEquals(1, results.size());
+        assertTrue(results.getFirst().status());
+        assertEquals("revocation", results.getFirst().statusPurpose());
+    }
+
+    @Test
+    @DisplayName("testVerifyStatusAsync_Timeout will fail once the deadline elapses")
+    void testVerifyStatusAsync_Timeout() throws CredentialStatusNetworkException {
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        when(statusListClient.fetch(any())).thenAnswer(invocation -> {
+            Thread.sleep(5000);
+            return null;
+        });
+
+        try (ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor()) {
+            CompletableFuture<List<StatusVerificationResult>> results = new StatusVerifierService(statusListClient, null)
+                    .verifyStatusAsync(listOfCredentialStatus, executorService, Duration.ofMillis(50));
+            ExecutionException exception = assertThrows(ExecutionException.class, () -> results.get(1, TimeUnit.SECONDS));
+            CredentialStatusNetworkException cause = assertInstanceOf(CredentialStatusNetworkException.class, exception.getCause());
+            assertEquals(Constants.STATUS_LIST_TIMEOUT_ERROR_TITLE, cause.getTitle());
+            executorService.shutdownNow();
         }
     }
 
     @Test
-    void testVerifyStatus_StatusPurposeCompareFailure() throws IOException {
+    @DisplayName("testVerifyStatusAsync_TimeoutCancelsQueuedFetches will not fetch status lists once the deadline elapsed")
+    void testVerifyStatusAsync_TimeoutCancelsQueuedFetches() throws CredentialStatusNetworkException {
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusSize")).thenReturn("1");
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        List<Runnable> queuedTasks = new ArrayList<>();
+
+        CompletableFuture<List<StatusVerificationResult>> results = new StatusVerifierService(statusListClient, null)
+                .verifyStatusAsync(listOfCredentialStatus, queuedTasks::add, Duration.ofMillis(50));
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> results.get(1, TimeUnit.SECONDS));
+        assertInstanceOf(CredentialStatusNetworkException.class, exception.getCause());
+        queuedTasks.forEach(Runnable::run);
+        verify(statusListClient, never()).fetch(any());
+    }
+
+    @Test
+    void testVerifyStatus_StatusPurposeCompareFailure() throws IOException, CredentialStatusNetworkException {
         String mockResource = "test_data/InvalidBitstringStatusListCredential.json";
         ClassLoader classLoader = getClass().getClassLoader();
         File file = new File(Objects.requireNonNull(classLoader.getResource(mockResource), "Resource not found: " + mockResource).getFile());
@@ -80,15 +224,14 @@ class StatusVerifierServiceTest {
         when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
         VerifiableCredential bitStringStatusListCredential = objectMapper.readValue(mockStatusJSON, VerifiableCredential.class);
         List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
-        try (var mockClient = Mockito.mockStatic(StatusListClient.class)) {
-            mockClient.when(() -> StatusListClient.fetchStatusListCredential(any())).thenReturn(bitStringStatusListCredential);
-            CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
-                    StatusVerifierService.verifyStatus(listOfCredentialStatus)
-            );
-
-            assertEquals(Constants.STATUS_PURPOSE_COMPARISON_ERROR_TITLE, exception.getTitle());
-            assertEquals(Constants.STATUS_PURPOSE_COMPARISON_ERROR_DETAIL, exception.getDetail());
-        }
+        when(statusListClient.fetch(any())).thenReturn(new StatusListResponse(bitStringStatusListCredential, null));
+        StatusVerifierService statusVerifierService = new StatusVerifierService(statusListClient, null);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                statusVerifierService.verify(listOfCredentialStatus)
+        );
+
+        assertEquals(Constants.STATUS_PURPOSE_COMPARISON_ERROR_TITLE, exception.getTitle());
+        assertEquals(Constants.STATUS_PURPOSE_COMPARISON_ERROR_DETAIL, exception.getDetail());
     }
 
     @Test
@@ -103,4 +246,19 @@ class StatusVerifierServiceTest {
         assertEquals(Constants.STATUS_LIST_INDEX_ERROR_TITLE, exception.getTitle());
         assertEquals(Constants.STATUS_LIST_INDEX_ERROR_DETAIL, exception.getDetail());
     }
+
+    @Test
+    void testVerifyStatus_withInvalidStatusMessage() {
+        when(jsonObjectMock.get("statusListIndex")).thenReturn("4000");
+        when(jsonObjectMock.get("statusPurpose")).thenReturn("revocation");
+        when(jsonObjectMock.get("statusSize")).thenReturn("2");
+        when(jsonObjectMock.get("statusMessage")).thenReturn(List.of(Map.of("status", "0xZZ", "message", "unknown")));
+        List<CredentialStatus> listOfCredentialStatus = List.of(credentialStatus);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                StatusVerifierService.verifyStatus(listOfCredentialStatus)
+        );
+
+        assertEquals(Constants.STATUS_MESSAGE_ERROR_TITLE, exception.getTitle());
+        assertEquals(Constants.STATUS_MESSAGE_ERROR_DETAIL, exception.getDetail());
+    }
 }
@@ -0,0 +1,135 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import com.credenceid.vcstatus.util.Utils;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MutableStatusListTest {
+
+    @Test
+    void testCreate_padsToMinimumLength() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(10, 1);
+
+        assertEquals(MutableStatusList.MIN_BYTE_LENGTH, statusList.byteLength());
+        assertEquals(MutableStatusList.MIN_BYTE_LENGTH * 8, statusList.entryCount());
+    }
+
+    @Test
+    void testSet_multiBitStatusesAcrossWordBoundaries() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(200_000, 3, new Random(1));
+        //index 21 spans bits 63 to 65
+        statusList.set(21, 5);
+        statusList.set(20, 7);
+        statusList.set(22, 1);
+        statusList.set(199_999, 6);
+
+        assertEquals(5, statusList.get(21));
+        assertEquals(7, statusList.get(20));
+        assertEquals(1, statusList.get(22));
+        StatusList snapshot = statusList.toStatusList();
+        assertEquals(5, snapshot.getStatus(21, 3));
+        assertEquals(7, snapshot.getStatus(20, 3));
+        assertEquals(1, snapshot.getStatus(22, 3));
+        assertEquals(6, snapshot.getStatus(199_999, 3));
+
+        statusList.clear(21);
+        assertEquals(0, statusList.get(21));
+        assertEquals(7, statusList.get(20));
+        assertEquals(1, statusList.get(22));
+    }
+
+    @Test
+    void testSet_bulkUpdateChecksEveryIndexFirst() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(1000, 1);
+        statusList.set(new int[]{1, 5, 9}, 1);
+        assertEquals(1, statusList.get(5));
+
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class,
+                () -> statusList.set(new int[]{2, -1}, 1));
+        assertEquals(Constants.RANGE_ERROR_TITLE, exception.getTitle());
+        assertEquals(0, statusList.get(2));
+    }
+
+    @Test
+    void testSet_rejectsValueLargerThanStatusSize() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(1000, 2);
+
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () -> statusList.set(0, 4));
+        assertEquals(Constants.STATUS_VALUE_ERROR_TITLE, exception.getTitle());
+    }
+
+    @Test
+    void testEncode_roundTripsThroughDecoder() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(1_000_000, 2);
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            statusList.set(random.nextInt(statusList.entryCount()), random.nextInt(4));
+        }
+
+        String encodedList = statusList.encode();
+
+        assertTrue(encodedList.startsWith("u"));
+        assertSame(encodedList, statusList.encode());
+        byte[] decoded = Utils.decodeStatusList(encodedList);
+        assertEquals(ByteBuffer.wrap(decoded), statusList.toStatusList().asByteBuffer());
+
+        statusList.set(0, statusList.get(0) ^ 1);
+        assertNotSame(encodedList, statusList.encode());
+        assertEquals(statusList.get(0), StatusList.wrap(Utils.decodeStatusList(statusList.encode())).getStatus(0, 2));
+    }
+
+    @Test
+    void testCopyOf_keepsStatusesAndAllocatesEveryIndex() throws Exception {
+        MutableStatusList original = MutableStatusList.create(1000, 1);
+        original.set(new int[]{3, 70}, 1);
+
+        MutableStatusList copy = MutableStatusList.copyOf(StatusList.wrap(Utils.decodeStatusList(original.encode())), 1);
+
+        assertEquals(1, copy.get(3));
+        assertEquals(1, copy.get(70));
+        assertEquals(copy.entryCount(), copy.allocatedCount());
+        assertFalse(copy.reserve(4));
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, copy::allocate);
+        assertEquals(Constants.STATUS_LIST_FULL_ERROR_TITLE, exception.getTitle());
+    }
+
+    @Test
+    void testCopyOf_reservesIssuedIndicesAndSetStatuses() throws Exception {
+        MutableStatusList original = MutableStatusList.create(1000, 1);
+        int issued = original.allocate();
+        original.set(70, 1);
+
+        MutableStatusList copy = MutableStatusList.copyOf(StatusList.wrap(Utils.decodeStatusList(original.encode())), 1, new int[]{issued});
+
+        assertEquals(0, copy.get(issued));
+        assertEquals(1, copy.get(70));
+        assertEquals(issued == 70 ? 1 : 2, copy.allocatedCount());
+        assertFalse(copy.reserve(issued));
+        assertFalse(copy.reserve(70));
+        assertThrows(CredentialStatusProcessingException.class, () ->
+                MutableStatusList.copyOf(copy.toStatusList(), 1, new int[]{copy.entryCount()}));
+    }
+
+    @Test
+    void testAllocate_handsOutEveryIndexOnce() throws Exception {
+        MutableStatusList statusList = MutableStatusList.create(0, 31, new Random(3));
+        int entryCount = statusList.entryCount();
+        Set<Integer> allocated = new HashSet<>();
+        for (int i = 0; i < entryCount; i++) {
+            int index = statusList.allocate();
+            assertTrue(index >= 0 && index < entryCount);
+            assertTrue(allocated.add(index));
+        }
+
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, statusList::allocate);
+        assertEquals(Constants.STATUS_LIST_FULL_ERROR_TITLE, exception.getTitle());
+    }
+}
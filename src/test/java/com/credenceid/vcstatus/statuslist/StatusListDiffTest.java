@@ -0,0 +1,67 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListDiffTest {
+
+    @Test
+    void testChangedIndices_matchesBitByBitComparison() throws CredentialStatusProcessingException {
+        Random random = new Random(16);
+        byte[] previous = new byte[1029];
+        random.nextBytes(previous);
+        byte[] current = previous.clone();
+        for (int i = 0; i < 40; i++) {
+            current[random.nextInt(current.length)] ^= (byte) (1 << random.nextInt(8));
+        }
+        StatusList previousList = StatusList.wrap(previous);
+        StatusList currentList = StatusList.wrap(current);
+        StatusListDiff diff = StatusListDiff.between(previousList, currentList);
+
+        for (int statusSize : new int[]{1, 2, 3, 8}) {
+            TreeSet<Integer> expected = new TreeSet<>();
+            for (int index = 0; index < previousList.entryCount(statusSize); index++) {
+                if (previousList.getStatus(index, statusSize) != currentList.getStatus(index, statusSize)) {
+                    expected.add(index);
+                }
+            }
+            assertArrayEquals(expected.stream().mapToInt(Integer::intValue).toArray(), diff.changedIndices(statusSize));
+        }
+    }
+
+    @Test
+    void testBetween_identicalListsAreEmpty() throws CredentialStatusProcessingException {
+        byte[] bitstring = new byte[100];
+        new Random(1).nextBytes(bitstring);
+        StatusListDiff diff = StatusListDiff.between(StatusList.wrap(bitstring), StatusList.wrap(bitstring.clone()));
+
+        assertTrue(diff.isEmpty());
+        assertEquals(0, diff.changedBitCount());
+        assertEquals(0, diff.changedIndices(1).length);
+    }
+
+    @Test
+    void testBetween_longerListIsComparedAgainstZero() throws CredentialStatusProcessingException {
+        byte[] current = new byte[20];
+        current[0] = (byte) 0x80;
+        current[19] = 0x01;
+        StatusListDiff diff = StatusListDiff.between(StatusList.wrap(new byte[10]), StatusList.wrap(current));
+
+        assertEquals(2, diff.changedBitCount());
+        assertArrayEquals(new int[]{0, 159}, diff.changedIndices(1));
+        assertArrayEquals(new int[]{0, 19}, diff.changedIndices(8));
+    }
+
+    @Test
+    void testChangedIndices_invalidStatusSize() {
+        StatusListDiff diff = StatusListDiff.between(StatusList.wrap(new byte[8]), StatusList.wrap(new byte[8]));
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () -> diff.changedIndices(0));
+        assertEquals(Constants.STATUS_SIZE_ERROR_TITLE, exception.getTitle());
+    }
+}
@@ -0,0 +1,87 @@
+package com.credenceid.vcstatus.statuslist;
+
+import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
+import com.credenceid.vcstatus.util.Constants;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatusListTest {
+
+    @Test
+    void testGetStatus_singleBit() throws CredentialStatusProcessingException {
+        StatusList statusList = StatusList.wrap(new byte[]{(byte) 0b1000_0001, 0});
+        assertTrue(statusList.isSet(0));
+        assertFalse(statusList.isSet(1));
+        assertTrue(statusList.isSet(7));
+        assertFalse(statusList.isSet(15));
+    }
+
+    @Test
+    void testGetStatus_multiBit() throws CredentialStatusProcessingException {
+        //statusSize 2: 0b10 01 11 00
+        StatusList statusList = StatusList.wrap(new byte[]{(byte) 0b1001_1100});
+        assertEquals(2, statusList.getStatus(0, 2));
+        assertEquals(1, statusList.getStatus(1, 2));
+        assertEquals(3, statusList.getStatus(2, 2));
+        assertEquals(0, statusList.getStatus(3, 2));
+    }
+
+    @Test
+    void testGetStatus_matchesBitByBitReadAcrossWordsAndTail() throws CredentialStatusProcessingException {
+        byte[] bitstring = new byte[67];
+        new Random(7).nextBytes(bitstring);
+        StatusList statusList = StatusList.wrap(bitstring);
+        for (int statusSize = 1; statusSize <= StatusList.MAX_STATUS_SIZE; statusSize++) {
+            for (int index = 0; index < statusList.entryCount(statusSize); index++) {
+                int expected = 0;
+                for (int bit = index * statusSize; bit < (index + 1) * statusSize; bit++) {
+                    expected = (expected << 1) | ((bitstring[bit / 8] >> (7 - bit % 8)) & 1);
+                }
+                assertEquals(expected, statusList.getStatus(index, statusSize), "statusSize " + statusSize + " index " + index);
+            }
+        }
+    }
+
+    @Test
+    void testGetStatuses_keepsOrderOfIndices() throws CredentialStatusProcessingException {
+        StatusList statusList = StatusList.wrap(new byte[]{0x12, 0x34});
+        assertArrayEquals(new int[]{4, 1, 2, 3}, statusList.getStatuses(new int[]{3, 0, 1, 2}, 4));
+    }
+
+    @Test
+    void testEntryCount() {
+        StatusList statusList = StatusList.wrap(new byte[16 * 1024]);
+        assertEquals(131072, statusList.entryCount(1));
+        assertEquals(43690, statusList.entryCount(3));
+        assertEquals(16 * 1024, statusList.byteLength());
+    }
+
+    @Test
+    void testWrap_byteBufferSlice() throws CredentialStatusProcessingException {
+        StatusList statusList = StatusList.wrap(ByteBuffer.wrap(new byte[]{0, (byte) 0xff, 0}, 1, 1));
+        assertEquals(1, statusList.byteLength());
+        assertEquals(0xff, statusList.getStatus(0, 8));
+    }
+
+    @Test
+    void testGetStatus_RANGE_ERROR() {
+        StatusList statusList = StatusList.wrap(new byte[2]);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                statusList.getStatus(8, 2));
+        assertEquals(Constants.RANGE_ERROR_TITLE, exception.getTitle());
+        assertThrows(CredentialStatusProcessingException.class, () -> statusList.getStatus(-1, 1));
+    }
+
+    @Test
+    void testGetStatus_STATUS_SIZE_ERROR() {
+        StatusList statusList = StatusList.wrap(new byte[8]);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                statusList.getStatus(0, 0));
+        assertEquals(Constants.STATUS_SIZE_ERROR_TITLE, exception.getTitle());
+        assertEquals(Constants.STATUS_SIZE_ERROR_DETAIL, exception.getDetail());
+    }
+}
@@ -0,0 +1,72 @@
+package com.credenceid.vcstatus.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Base64UrlDecoderTest {
+
+    @Test
+    void testDecode_matchesJdkDecoderForEveryRemainder() {
+        Random random = new Random(13);
+        for (int length = 1; length < 200; length++) {
+            byte[] data = new byte[length];
+            random.nextBytes(data);
+            String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+
+            int decodedLength = Base64UrlDecoder.decodedLength(encoded, 0, false);
+            byte[] decoded = new byte[decodedLength];
+            assertEquals(length, decodedLength);
+            assertEquals(length, Base64UrlDecoder.decode(encoded, 0, decoded, false));
+            assertArrayEquals(data, decoded);
+        }
+    }
+
+    @Test
+    void testDecode_startsAtOffsetAndLeavesRestOfBufferUntouched() {
+        byte[] data = {1, 2, 3, 4, 5};
+        String encoded = "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(data);
+        byte[] buffer = new byte[16];
+        Arrays.fill(buffer, (byte) 0x7f);
+
+        assertEquals(5, Base64UrlDecoder.decode(encoded, 1, buffer, false));
+        assertArrayEquals(data, Arrays.copyOf(buffer, 5));
+        assertEquals(0x7f, buffer[5]);
+    }
+
+    @Test
+    void testDecode_rejectsCharactersOutsideOfTheAlphabet() {
+        byte[] buffer = new byte[16];
+        assertEquals(-1, Base64UrlDecoder.decode("AAAA+AAA", 0, buffer, false));
+        assertEquals(-1, Base64UrlDecoder.decode("AAAA/A", 0, buffer, false));
+        assertEquals(-1, Base64UrlDecoder.decode("AA=A", 0, buffer, false));
+        assertEquals(-1, Base64UrlDecoder.decode("AAAA==", 0, buffer, false));
+        assertEquals(-1, Base64UrlDecoder.decode("AAAé", 0, buffer, false));
+        assertEquals(-1, Base64UrlDecoder.decode("AAAAAĀA", 0, buffer, false));
+    }
+
+    @Test
+    void testDecodedLength_rejectsImpossibleLengths() {
+        assertEquals(-1, Base64UrlDecoder.decodedLength("", 0, false));
+        assertEquals(-1, Base64UrlDecoder.decodedLength("u", 1, false));
+        assertEquals(-1, Base64UrlDecoder.decodedLength("AAAAA", 0, false));
+        assertEquals(-1, Base64UrlDecoder.decodedLength("AAAAA==", 0, true));
+    }
+
+    @Test
+    void testDecode_lenientAcceptsStandardAlphabetAndPadding() {
+        byte[] data = {(byte) 0xfb, (byte) 0xff, (byte) 0xbf, 0x10};
+        String encoded = Base64.getEncoder().encodeToString(data);
+        assertTrue(encoded.endsWith("=="));
+        assertTrue(encoded.contains("+") || encoded.contains("/"));
+
+        int decodedLength = Base64UrlDecoder.decodedLength(encoded, 0, true);
+        byte[] decoded = new byte[decodedLength];
+        assertEquals(4, Base64UrlDecoder.decode(encoded, 0, decoded, true));
+        assertArrayEquals(data, decoded);
+    }
+}
@@ -3,6 +3,17 @@ package com.credenceid.vcstatus.util;
 import com.credenceid.vcstatus.exception.CredentialStatusProcessingException;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class UtilsTest {
@@ -64,8 +75,125 @@ class UtilsTest {
     void testGetBitAtIndex_RANGE_ERROR() {
         String invalidEncoded = "H4sIAAAAAAAAA-3OMQEAAAgDoEU3ugEWwENIQMI3cx0AAAAAAAAAAAAAAAAAAACgLGiNcIEAQAAA";
         CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
-                Utils.getBitAtIndex(invalidEncoded, 100000, 1));
+                Utils.getBitAtIndex(invalidEncoded, 131072, 1));
         assertEquals(Constants.RANGE_ERROR_TITLE, exception.getTitle());
         assertEquals(Constants.RANGE_ERROR_DETAIL, exception.getDetail());
     }
+
+    @Test
+    void testGetBitAtIndex_largeIndexOnSmallList_RANGE_ERROR() {
+        String encoded = "H4sIAAAAAAAAA-3OMQEAAAgDoEU3ugEWwENIQMI3cx0AAAAAAAAAAAAAAAAAAACgLGiNcIEAQAAA";
+        //the furthest index a list within the default limits can hold
+        int index = StatusListLimits.DEFAULT.maxInflatedBytes() * 8 - 1;
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.getBitAtIndex(encoded, index, 1));
+        assertEquals(Constants.RANGE_ERROR_TITLE, exception.getTitle());
+    }
+
+    @Test
+    void testGetBitsAtIndices_matchesFullDecode() throws Exception {
+        byte[] bitstring = new byte[16 * 1024];
+        new Random(42).nextBytes(bitstring);
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+            gzipOutputStream.write(bitstring);
+        }
+        String encoded = Base64.getUrlEncoder().withoutPadding().encodeToString(byteArrayOutputStream.toByteArray());
+        int[] indices = {0, 7, 8, 1000, 4000, 16383};
+
+        boolean[] bits = Utils.getBitsAtIndices(encoded, indices, 1);
+        for (int i = 0; i < indices.length; i++) {
+            assertEquals(Utils.getBitAtIndex(bitstring, indices[i], 1), bits[i]);
+            assertEquals(bits[i], Utils.getBitAtIndex(encoded, indices[i], 1));
+        }
+    }
+
+    @Test
+    void testGetBitAtIndex_notGzip() {
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.getBitAtIndex("AAAAAAAAAAAAAAAA", 1, 1));
+        assertEquals("IO_EXCEPTION", exception.getTitle());
+    }
+
+    private static String encodedList(byte[] bitstring) throws Exception {
+        ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(byteArrayOutputStream)) {
+            gzipOutputStream.write(bitstring);
+        }
+        return "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(byteArrayOutputStream.toByteArray());
+    }
+
+    @Test
+    void testDecodeStatusList_withinLimits() throws Exception {
+        byte[] bitstring = new byte[64 * 1024];
+        new Random(7).nextBytes(bitstring);
+        assertArrayEquals(bitstring, Utils.decodeStatusList(encodedList(bitstring), new StatusListLimits(1024, 128 * 1024, 64 * 1024)));
+    }
+
+    @Test
+    void testDecodeStatusList_inflatedSizeLimit() throws Exception {
+        //a megabyte of zeros compresses to about a kilobyte
+        String encoded = encodedList(new byte[1024 * 1024]);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.decodeStatusList(encoded, new StatusListLimits(1024, 16 * 1024, 64 * 1024)));
+        assertEquals(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, exception.getTitle());
+        assertEquals(Constants.STATUS_LIST_INFLATED_SIZE_LIMIT_ERROR_DETAIL, exception.getDetail());
+    }
+
+    @Test
+    void testDecodeStatusList_inflatedSizeLimitWithUnderstatedTrailer() throws Exception {
+        byte[] compressed = Base64.getUrlDecoder().decode(encodedList(new byte[1024 * 1024]).substring(1));
+        //claim an empty bitstring in the trailer so that the limit is only hit while inflating
+        Arrays.fill(compressed, compressed.length - 4, compressed.length, (byte) 0);
+        String encoded = "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(compressed);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.decodeStatusList(encoded, new StatusListLimits(1024, 16 * 1024, 64 * 1024)));
+        assertEquals(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, exception.getTitle());
+    }
+
+    @Test
+    void testDecodeStatusList_overstatedTrailerDoesNotSizeTheBuffer() throws Exception {
+        byte[] compressed = Base64.getUrlDecoder().decode(encodedList(new byte[16]).substring(1));
+        //claim 100 MiB in the trailer of a member inflating to 16 bytes
+        ByteBuffer.wrap(compressed, compressed.length - 4, 4).order(ByteOrder.LITTLE_ENDIAN).putInt(100 * 1024 * 1024);
+        String encoded = "u" + Base64.getUrlEncoder().withoutPadding().encodeToString(compressed);
+        com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+
+        long allocatedBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.decodeStatusList(encoded));
+        long allocated = threadMXBean.getThreadAllocatedBytes(threadId) - allocatedBefore;
+
+        assertEquals("IO_EXCEPTION", exception.getTitle());
+        assertTrue(allocated < 8 * 1024 * 1024, "allocated " + allocated + " bytes");
+    }
+
+    @Test
+    void testDecodeStatusList_compressedSizeLimit() throws Exception {
+        byte[] bitstring = new byte[16 * 1024];
+        new Random(7).nextBytes(bitstring);
+        String encoded = encodedList(bitstring);
+        CredentialStatusProcessingException exception = assertThrows(CredentialStatusProcessingException.class, () ->
+                Utils.decodeStatusList(encoded, new StatusListLimits(1024, 4 * 1024, 64 * 1024)));
+        assertEquals(Constants.STATUS_LIST_SIZE_LIMIT_ERROR_TITLE, exception.getTitle());
+        assertEquals(Constants.STATUS_LIST_COMPRESSED_SIZE_LIMIT_ERROR_DETAIL, exception.getDetail());
+    }
+
+    @Test
+    void testEncodeStatusList_readableByStandardGzipAndBase64() throws Exception {
+        for (int length : new int[]{1, 2, 3, 16 * 1024, 100_001}) {
+            byte[] bitstring = new byte[length];
+            new Random(length).nextBytes(bitstring);
+
+            String encoded = Utils.encodeStatusList(bitstring);
+
+            assertTrue(encoded.startsWith("u"));
+            byte[] compressed = Base64.getUrlDecoder().decode(encoded.substring(1));
+            try (GZIPInputStream gzipInputStream = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+                assertArrayEquals(bitstring, gzipInputStream.readAllBytes());
+            }
+            assertArrayEquals(bitstring, Utils.decodeStatusList(encoded));
+        }
+    }
 }